@@ -0,0 +1,187 @@
+package benchmark;
+
+import model.project1.Appointment;
+import model.project1.Date;
+import model.project1.IndexedList;
+import model.project1.List;
+import model.project1.Location;
+import model.project1.Patient;
+import model.project1.Profile;
+import model.project1.Provider;
+import model.project1.Specialty;
+import model.project1.Timeslot;
+import model.util.Doctor;
+import model.util.Imaging;
+import model.util.Radiology;
+import model.util.Technician;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Builds deterministic appointment calendars for the benchmarks.
+ * The roster mirrors providers.txt; patients, dates and timeslots are spread
+ * over the weekdays of a six-month booking window so the data resembles a real calendar.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class BenchmarkData {
+    /**
+     * Every fourth appointment is an imaging appointment.
+     */
+    private static final int IMAGING_EVERY = 4;
+
+    /**
+     * Number of distinct patients; each patient holds several appointments on larger calendars.
+     */
+    private static final int PATIENT_POOL = 5000;
+
+    private static final LocalDate WINDOW_START = LocalDate.of(2026, 11, 2);
+
+    /**
+     * Doctors from providers.txt.
+     */
+    public static final Doctor[] DOCTORS = {
+            doctor("ANDREW", "PATEL", 1989, 1, 21, Location.BRIDGEWATER, Specialty.FAMILY, "01"),
+            doctor("RACHAEL", "LIM", 1975, 11, 30, Location.BRIDGEWATER, Specialty.PEDIATRICIAN, "23"),
+            doctor("MONICA", "ZIMNES", 1981, 3, 11, Location.CLARK, Specialty.FAMILY, "11"),
+            doctor("JOHN", "HARPER", 1981, 3, 1, Location.CLARK, Specialty.FAMILY, "32"),
+            doctor("TOM", "KAUR", 1972, 11, 5, Location.PRINCETON, Specialty.ALLERGIST, "54"),
+            doctor("ERIC", "TAYLOR", 1969, 5, 29, Location.PISCATAWAY, Specialty.PEDIATRICIAN, "91"),
+            doctor("BEN", "RAMESH", 1981, 4, 8, Location.MORRISTOWN, Specialty.ALLERGIST, "39"),
+            doctor("JUSTIN", "CERAVOLO", 1980, 9, 22, Location.EDISON, Specialty.PEDIATRICIAN, "09"),
+            doctor("GARY", "JOHNSON", 1977, 12, 13, Location.EDISON, Specialty.FAMILY, "85"),
+            doctor("BEN", "JERRY", 1977, 12, 28, Location.PISCATAWAY, Specialty.FAMILY, "77")
+    };
+
+    /**
+     * Technicians from providers.txt.
+     */
+    public static final Technician[] TECHNICIANS = {
+            technician("GARY", "JOHNSON", 1987, 11, 14, Location.PISCATAWAY, 110),
+            technician("BEN", "JERRY", 1987, 9, 28, Location.PISCATAWAY, 150),
+            technician("FRANK", "LIN", 1999, 6, 24, Location.PISCATAWAY, 120),
+            technician("CHARLES", "BROWN", 1999, 6, 24, Location.BRIDGEWATER, 100),
+            technician("MONICA", "FOX", 1995, 10, 10, Location.BRIDGEWATER, 130),
+            technician("JENNY", "PATEL", 1991, 8, 9, Location.BRIDGEWATER, 125)
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates an array of appointments of the given size.
+     *
+     * @param size the number of appointments to create
+     * @return the generated appointments
+     */
+    public static Appointment[] appointments(int size) {
+        Date[] dates = bookingDays();
+        Radiology[] rooms = Radiology.values();
+        Appointment[] appointments = new Appointment[size];
+        for (int i = 0; i < size; i++) {
+            // Patient p's k-th appointment walks the days first and then the slots,
+            // so no patient is booked twice at the same date and time.
+            int p = i % PATIENT_POOL;
+            int k = i / PATIENT_POOL;
+            Date date = dates[(p + k) % dates.length];
+            Timeslot timeslot = Timeslot.of((k / dates.length + p) % Timeslot.MAX_SLOT_INDEX + 1);
+            Patient patient = patient(p);
+            if (i % IMAGING_EVERY == 0) {
+                appointments[i] = new Imaging(date, timeslot, patient,
+                        TECHNICIANS[i % TECHNICIANS.length], rooms[i % rooms.length]);
+            } else {
+                appointments[i] = new Appointment(date, timeslot, patient, DOCTORS[i % DOCTORS.length]);
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Creates a List holding the given appointments in order.
+     *
+     * @param appointments the appointments to copy
+     * @return a new List of the appointments
+     */
+    public static List<Appointment> toList(Appointment[] appointments) {
+        List<Appointment> list = new List<>();
+        for (Appointment appointment : appointments) {
+            list.add(appointment);
+        }
+        return list;
+    }
+
+    /**
+     * Creates a hash-indexed list holding the given appointments in order.
+     *
+     * @param appointments the appointments to copy
+     * @return a new IndexedList of the appointments
+     */
+    public static IndexedList<Appointment> toIndexedList(Appointment[] appointments) {
+        IndexedList<Appointment> list = new IndexedList<>(appointments.length);
+        for (Appointment appointment : appointments) {
+            list.add(appointment);
+        }
+        return list;
+    }
+
+    /**
+     * Creates a List of every doctor and technician, in the order of providers.txt.
+     *
+     * @return a new List of the providers
+     */
+    public static List<Provider> providers() {
+        List<Provider> providers = new List<>(DOCTORS.length + TECHNICIANS.length);
+        for (Doctor doctor : DOCTORS) {
+            providers.add(doctor);
+        }
+        for (Technician technician : TECHNICIANS) {
+            providers.add(technician);
+        }
+        return providers;
+    }
+
+    /**
+     * Creates the patient with the given number.
+     *
+     * @param number the patient number
+     * @return the patient
+     */
+    public static Patient patient(int number) {
+        return new Patient(new Profile("FIRST" + number, "LAST" + (number % 997),
+                new Date(1950 + number % 60, number % 12 + 1, number % 28 + 1)));
+    }
+
+    /**
+     * Returns a weekday inside the booking window that no generated appointment uses.
+     *
+     * @return a free booking date
+     */
+    public static Date unusedDate() {
+        return new Date(2027, 6, 1);
+    }
+
+    private static Date[] bookingDays() {
+        List<Date> days = new List<>();
+        for (LocalDate day = WINDOW_START; day.isBefore(WINDOW_START.plusMonths(6)); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days.add(new Date(day.getYear(), day.getMonthValue(), day.getDayOfMonth()));
+            }
+        }
+        Date[] result = new Date[days.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = days.get(i);
+        }
+        return result;
+    }
+
+    private static Doctor doctor(String fname, String lname, int year, int month, int day,
+                                 Location location, Specialty specialty, String npi) {
+        return new Doctor(new Profile(fname, lname, new Date(year, month, day)), location, specialty, npi);
+    }
+
+    private static Technician technician(String fname, String lname, int year, int month, int day,
+                                         Location location, int rate) {
+        return new Technician(new Profile(fname, lname, new Date(year, month, day)), location, rate);
+    }
+}
@@ -0,0 +1,44 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar.
+ * Accepts the regular JMH command line options and always attaches the GC profiler,
+ * so every run reports throughput, the sampled latency percentiles (p99 among them)
+ * and the allocation rate. Results are written as JMH JSON to benchmark-results.json
+ * unless -rff is given; compare them against benchmarks/baseline.json.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class BenchmarkRunner {
+    private static final String DEFAULT_RESULT_FILE = "benchmark-results.json";
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks selected on the command line.
+     *
+     * @param args JMH command line options
+     * @throws CommandLineOptionException if the options cannot be parsed
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(commandLine.getResult().orElse(DEFAULT_RESULT_FILE))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,247 @@
+package benchmark;
+
+import com.example.demo.ClinicManagerController;
+import model.project1.Appointment;
+import model.project1.Date;
+import model.project1.IndexedList;
+import model.project1.List;
+import model.project1.Location;
+import model.project1.Provider;
+import model.project1.Timeslot;
+import model.util.Doctor;
+import model.util.Imaging;
+import model.util.OccupancyIndex;
+import model.util.PatientSlotIndex;
+import model.util.Radiology;
+import model.util.RoomCalendar;
+import model.util.Sort;
+import model.util.Technician;
+import model.util.TechnicianCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the conflict checks ClinicManagerController runs on every booking.
+ * The checks are private, so they are reached through method handles on a controller
+ * whose appointment list and indexes are replaced with a generated calendar. Every probe
+ * misses, which is the worst case for a scan. The technician search runs on the busiest
+ * booking day instead, since it starts from the rotation pointer and stops at the first hit.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingCheckBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private ClinicManagerController controller;
+    private MethodHandle isDoctorUnavailable;
+    private MethodHandle isDuplicateAppointment;
+    private MethodHandle isRoomAvailable;
+    private MethodHandle findAvailableTechnician;
+
+    private Doctor doctor;
+    private Date date;
+    private Timeslot timeslot;
+    private Date dob;
+    private Date busyDate;
+
+    /**
+     * Creates a controller holding the generated calendar and resolves the checks.
+     *
+     * @throws ReflectiveOperationException if the controller no longer declares a check
+     */
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        controller = new ClinicManagerController();
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(ClinicManagerController.class,
+                MethodHandles.lookup());
+        VarHandle appointmentList = lookup.findVarHandle(ClinicManagerController.class,
+                "appointmentList", IndexedList.class);
+        Sort.setProviders(BenchmarkData.providers());
+        Appointment[] appointments = BenchmarkData.appointments(size);
+        appointmentList.set(controller, BenchmarkData.toIndexedList(appointments));
+        VarHandle occupancyIndex = lookup.findVarHandle(ClinicManagerController.class,
+                "occupancyIndex", OccupancyIndex.class);
+        occupancyIndex.set(controller, occupancyOf(appointments));
+        VarHandle patientSlotIndex = lookup.findVarHandle(ClinicManagerController.class,
+                "patientSlotIndex", PatientSlotIndex.class);
+        patientSlotIndex.set(controller, patientSlotsOf(appointments));
+        VarHandle roomCalendar = lookup.findVarHandle(ClinicManagerController.class,
+                "roomCalendar", RoomCalendar.class);
+        roomCalendar.set(controller, roomCalendarOf(appointments));
+        List<Technician> rotation = rotation();
+        busyDate = appointments[0].getDate();
+        lookup.findVarHandle(ClinicManagerController.class, "technicianRotationList", List.class)
+                .set(controller, rotation);
+        lookup.findVarHandle(ClinicManagerController.class, "technicianCalendar", TechnicianCalendar.class)
+                .set(controller, technicianCalendarOf(appointments, rotation, busyDate));
+
+        isDoctorUnavailable = lookup.findVirtual(ClinicManagerController.class, "isDoctorUnavailable",
+                MethodType.methodType(boolean.class, Doctor.class, Date.class, Timeslot.class));
+        isDuplicateAppointment = lookup.findVirtual(ClinicManagerController.class, "isDuplicateAppointment",
+                MethodType.methodType(boolean.class, String.class, String.class, Date.class, Date.class, Timeslot.class));
+        isRoomAvailable = lookup.findVirtual(ClinicManagerController.class, "isRoomAvailable",
+                MethodType.methodType(boolean.class, Date.class, Timeslot.class, Location.class, Radiology.class));
+        findAvailableTechnician = lookup.findVirtual(ClinicManagerController.class, "findAvailableTechnician",
+                MethodType.methodType(Technician.class, Date.class, Timeslot.class, Radiology.class));
+
+        doctor = BenchmarkData.DOCTORS[0];
+        date = BenchmarkData.unusedDate();
+        timeslot = Timeslot.of(Timeslot.MIN_SLOT_INDEX);
+        dob = new Date(1990, 1, 1);
+    }
+
+    /**
+     * Builds the occupancy index of the calendar.
+     * The generated calendar books providers more than once per slot, which the controller
+     * never does, so only the first appointment of each provider slot is indexed.
+     *
+     * @param appointments the calendar
+     * @return the occupancy index
+     */
+    private static OccupancyIndex occupancyOf(Appointment[] appointments) {
+        OccupancyIndex index = new OccupancyIndex();
+        for (Appointment appointment : appointments) {
+            Provider provider = (Provider) appointment.getProvider();
+            if (!index.isOccupied(provider, appointment.getDate(), appointment.getTimeslot())) {
+                index.book(appointment);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Builds the patient slot index of the calendar.
+     *
+     * @param appointments the calendar
+     * @return the patient slot index
+     */
+    private static PatientSlotIndex patientSlotsOf(Appointment[] appointments) {
+        PatientSlotIndex index = new PatientSlotIndex();
+        for (Appointment appointment : appointments) {
+            index.book(appointment);
+        }
+        return index;
+    }
+
+    /**
+     * Builds the room calendar of the calendar.
+     * Only the first imaging appointment of each room slot is recorded, for the same
+     * reason as the occupancy index.
+     *
+     * @param appointments the calendar
+     * @return the room calendar
+     */
+    private static RoomCalendar roomCalendarOf(Appointment[] appointments) {
+        RoomCalendar calendar = new RoomCalendar();
+        for (Appointment appointment : appointments) {
+            if (appointment instanceof Imaging imaging) {
+                Location location = ((Provider) imaging.getProvider()).getLocation();
+                if (calendar.isAvailable(location, imaging.getRoom(), imaging.getDate(), imaging.getTimeslot())) {
+                    calendar.book(imaging);
+                }
+            }
+        }
+        return calendar;
+    }
+
+    /**
+     * Creates the technician rotation in the order the controller uses, the reverse of providers.txt.
+     *
+     * @return the rotation
+     */
+    private static List<Technician> rotation() {
+        List<Technician> rotation = new List<>();
+        for (int i = BenchmarkData.TECHNICIANS.length - 1; i >= 0; i--) {
+            rotation.add(BenchmarkData.TECHNICIANS[i]);
+        }
+        return rotation;
+    }
+
+    /**
+     * Builds the technician calendar of the calendar.
+     * Only the first imaging appointment of each technician slot is recorded, for the same
+     * reason as the occupancy index.
+     *
+     * @param appointments the calendar
+     * @param rotation     the technician rotation
+     * @param firstDay     the first booking day
+     * @return the technician calendar
+     */
+    private static TechnicianCalendar technicianCalendarOf(Appointment[] appointments, List<Technician> rotation,
+                                                           Date firstDay) {
+        TechnicianCalendar calendar = new TechnicianCalendar(rotation, 31 * 6 + 1, firstDay);
+        for (Appointment appointment : appointments) {
+            if (appointment instanceof Imaging imaging
+                    && !calendar.isAssigned((Technician) imaging.getProvider(), imaging.getDate(), imaging.getTimeslot())) {
+                calendar.assign(imaging);
+            }
+        }
+        return calendar;
+    }
+
+    /**
+     * Checks a doctor on a day with no bookings.
+     *
+     * @return the check result
+     * @throws Throwable if the check fails
+     */
+    @Benchmark
+    public boolean isDoctorUnavailable() throws Throwable {
+        return (boolean) isDoctorUnavailable.invoke(controller, doctor, date, timeslot);
+    }
+
+    /**
+     * Checks a patient with no existing booking.
+     *
+     * @return the check result
+     * @throws Throwable if the check fails
+     */
+    @Benchmark
+    public boolean isDuplicateAppointment() throws Throwable {
+        return (boolean) isDuplicateAppointment.invoke(controller, "NOBODY", "NOWHERE", dob, date, timeslot);
+    }
+
+    /**
+     * Checks a room at a location that has no technicians.
+     *
+     * @return the check result
+     * @throws Throwable if the check fails
+     */
+    @Benchmark
+    public boolean isRoomAvailable() throws Throwable {
+        return (boolean) isRoomAvailable.invoke(controller, date, timeslot, Location.CLARK, Radiology.XRAY);
+    }
+
+    /**
+     * Finds the next free technician on the first booking day, where the calendar is busiest.
+     *
+     * @return the technician found, or null
+     * @throws Throwable if the search fails
+     */
+    @Benchmark
+    public Technician findAvailableTechnician() throws Throwable {
+        return (Technician) findAvailableTechnician.invoke(controller, busyDate, timeslot, Radiology.XRAY);
+    }
+}
@@ -0,0 +1,280 @@
+package benchmark;
+
+import model.project1.Appointment;
+import model.project1.Date;
+import model.project1.IndexedList;
+import model.project1.Profile;
+import model.project1.Provider;
+import model.project1.Timeslot;
+import model.project1.VisitHistory;
+import model.util.AppointmentJournal;
+import model.util.AppointmentSnapshot;
+import model.util.OccupancyIndex;
+import model.util.PatientSlotIndex;
+import model.util.ProviderRegistry;
+import model.util.ReportViews;
+import model.util.Technician;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the appointment journal: appending a calendar's bookings with group commit,
+ * replaying the journal alone, and replaying it into a book with its main indexes and
+ * report views. Bookings that clash with an earlier one are skipped by the rebuild,
+ * as they would have been refused when booked. The snapshot benchmarks capture the calendar,
+ * write it, and load it back into a book.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JournalBenchmark {
+    private static final AppointmentJournal.Cut CUT = new AppointmentJournal.Cut(0, 16);
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private ProviderRegistry registry;
+    private Appointment[] appointments;
+    private Path directory;
+    private Path journal;
+    private IndexedList<Appointment> book;
+    private Path snapshot;
+
+    /**
+     * Writes the calendar to a journal.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        registry = new ProviderRegistry(BenchmarkData.providers());
+        appointments = BenchmarkData.appointments(size);
+        directory = Files.createTempDirectory("journal");
+        journal = directory.resolve("replay.journal");
+        try (AppointmentJournal writer = AppointmentJournal.open(journal, registry, new Counter())) {
+            for (Appointment appointment : appointments) {
+                writer.book(appointment);
+            }
+        }
+        book = BenchmarkData.toIndexedList(appointments);
+        snapshot = directory.resolve("restore.snapshot");
+        AppointmentSnapshot.capture(book, new VisitHistory(), null).write(snapshot, CUT);
+    }
+
+    /**
+     * Deletes the journals.
+     *
+     * @throws IOException if a journal cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(journal);
+        Files.deleteIfExists(directory.resolve("append.journal"));
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(directory.resolve("write.snapshot"));
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Appends every booking to a new journal and waits until it is on disk.
+     *
+     * @return the length of the journal
+     * @throws IOException if the journal cannot be written
+     */
+    @Benchmark
+    public long append() throws IOException {
+        Path path = directory.resolve("append.journal");
+        Files.deleteIfExists(path);
+        try (AppointmentJournal writer = AppointmentJournal.open(path, registry, new Counter())) {
+            for (Appointment appointment : appointments) {
+                writer.book(appointment);
+            }
+            writer.sync();
+        }
+        return Files.size(path);
+    }
+
+    /**
+     * Replays the journal without applying the records.
+     *
+     * @return the replay statistics
+     * @throws IOException if the journal cannot be read
+     */
+    @Benchmark
+    public AppointmentJournal.Stats replay() throws IOException {
+        try (AppointmentJournal replayed = AppointmentJournal.open(journal, registry, new Counter())) {
+            return replayed.replayed();
+        }
+    }
+
+    /**
+     * Replays the journal into a book with its occupancy and patient indexes, then builds the report views.
+     *
+     * @return the report views
+     * @throws IOException if the journal cannot be read
+     */
+    @Benchmark
+    public ReportViews rebuild() throws IOException {
+        Book book = new Book();
+        try (AppointmentJournal replayed = AppointmentJournal.open(journal, registry, book)) {
+            return ReportViews.of(book.appointments);
+        }
+    }
+
+    /**
+     * Captures the calendar as a snapshot, as done on the FX thread.
+     *
+     * @return the snapshot
+     */
+    @Benchmark
+    public AppointmentSnapshot capture() {
+        return AppointmentSnapshot.capture(book, new VisitHistory(), null);
+    }
+
+    /**
+     * Captures the calendar and writes it as a snapshot.
+     *
+     * @return the length of the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    @Benchmark
+    public long snapshot() throws IOException {
+        return AppointmentSnapshot.capture(book, new VisitHistory(), null)
+                .write(directory.resolve("write.snapshot"), CUT);
+    }
+
+    /**
+     * Loads the snapshot into a book with its occupancy and patient indexes, then builds the report views.
+     *
+     * @return the report views
+     * @throws IOException if the snapshot cannot be read
+     */
+    @Benchmark
+    public ReportViews restore() throws IOException {
+        Book restored = new Book();
+        AppointmentSnapshot.load(snapshot, registry, restored);
+        return ReportViews.of(restored.appointments);
+    }
+
+    /**
+     * Accepts every record without applying it.
+     */
+    private static class Counter implements AppointmentSnapshot.Restore {
+        /**
+         * Accepts a booking.
+         *
+         * @param appointment the appointment
+         * @return true
+         */
+        @Override
+        public boolean book(Appointment appointment) {
+            return true;
+        }
+
+        /**
+         * Accepts a cancellation.
+         *
+         * @param date     the date
+         * @param timeslot the timeslot
+         * @param patient  the patient's profile
+         * @return true
+         */
+        @Override
+        public boolean cancel(Date date, Timeslot timeslot, Profile patient) {
+            return true;
+        }
+
+        /**
+         * Accepts a reschedule.
+         *
+         * @param date     the date
+         * @param timeslot the timeslot
+         * @param patient  the patient's profile
+         * @param newSlot  the new timeslot
+         * @return true
+         */
+        @Override
+        public boolean move(Date date, Timeslot timeslot, Profile patient, Timeslot newSlot) {
+            return true;
+        }
+
+        /**
+         * Accepts a billing-cycle close.
+         *
+         * @return true
+         */
+        @Override
+        public boolean closeCycle() {
+            return true;
+        }
+
+        /**
+         * Accepts an archived visit.
+         *
+         * @param appointment the visit
+         * @param chargeCents the amount billed
+         * @return true
+         */
+        @Override
+        public boolean archive(Appointment appointment, long chargeCents) {
+            return true;
+        }
+
+        /**
+         * Ignores the technician rotation.
+         *
+         * @param technician the next technician
+         */
+        @Override
+        public void rotateTo(Technician technician) {
+        }
+    }
+
+    /**
+     * Applies the bookings to an appointment list and its occupancy and patient indexes.
+     */
+    private static final class Book extends Counter {
+        private final IndexedList<Appointment> appointments = new IndexedList<>();
+        private final OccupancyIndex occupancy = new OccupancyIndex();
+        private final PatientSlotIndex patients = new PatientSlotIndex();
+
+        /**
+         * Books the appointment unless its provider's slot is taken or it is already booked.
+         *
+         * @param appointment the appointment
+         * @return true if the appointment was booked
+         */
+        @Override
+        public boolean book(Appointment appointment) {
+            if (occupancy.isOccupied((Provider) appointment.getProvider(),
+                    appointment.getDate(), appointment.getTimeslot())
+                    || appointments.contains(appointment)) {
+                return false;
+            }
+            appointments.add(appointment);
+            occupancy.book(appointment);
+            patients.book(appointment);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package benchmark;
+
+import model.project1.Appointment;
+import model.project1.IndexedList;
+import model.project1.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the core operations of model.project1.List and its hash-indexed
+ * variant IndexedList over appointment calendars.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"List", "IndexedList"})
+    private String implementation;
+
+    private Appointment[] appointments;
+    private List<Appointment> list;
+    private Appointment missing;
+    private Appointment middle;
+
+    /**
+     * Builds the calendar shared by every invocation in the trial.
+     */
+    @Setup
+    public void setUp() {
+        appointments = BenchmarkData.appointments(size);
+        list = newList();
+        for (Appointment appointment : appointments) {
+            list.add(appointment);
+        }
+        missing = new Appointment(BenchmarkData.unusedDate(), appointments[0].getTimeslot(),
+                appointments[0].getPatient(), appointments[0].getProvider());
+        middle = appointments[size / 2];
+    }
+
+    /**
+     * Loads the whole calendar into an empty list.
+     *
+     * @return the loaded list
+     */
+    @Benchmark
+    public List<Appointment> add() {
+        List<Appointment> loaded = newList();
+        for (Appointment appointment : appointments) {
+            loaded.add(appointment);
+        }
+        return loaded;
+    }
+
+    /**
+     * Looks up an appointment that is not booked, the worst case for a linear scan.
+     *
+     * @return the lookup result
+     */
+    @Benchmark
+    public boolean containsMissing() {
+        return list.contains(missing);
+    }
+
+    /**
+     * Cancels an appointment from the middle of the calendar and books it again.
+     *
+     * @return the removal result
+     */
+    @Benchmark
+    public boolean removeAndAdd() {
+        boolean removed = list.remove(middle);
+        list.add(middle);
+        return removed;
+    }
+
+    private List<Appointment> newList() {
+        return "IndexedList".equals(implementation) ? new IndexedList<>() : new List<>();
+    }
+}
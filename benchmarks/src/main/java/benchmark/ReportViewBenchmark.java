@@ -0,0 +1,84 @@
+package benchmark;
+
+import model.project1.Appointment;
+import model.project1.Timeslot;
+import model.util.ReportViews;
+import model.util.Sort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the incrementally maintained report views: rendering a report by walking
+ * its view, and the cost a reschedule adds to keep every view in order.
+ * Compare the report timings with SortBenchmark, which sorts on every selection.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ReportViewBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"A", "P", "L", "O", "I"})
+    private char key;
+
+    private ReportViews views;
+    private Appointment moving;
+    private Timeslot[] slots;
+    private int move;
+
+    /**
+     * Books the calendar into the views and picks the appointment that is rescheduled.
+     */
+    @Setup
+    public void setUp() {
+        Appointment[] appointments = BenchmarkData.appointments(size);
+        views = new ReportViews();
+        for (Appointment appointment : appointments) {
+            views.add(appointment);
+        }
+        moving = appointments[size - 1];
+        slots = new Timeslot[Timeslot.MAX_SLOT_INDEX];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = Timeslot.of(i + Timeslot.MIN_SLOT_INDEX);
+        }
+    }
+
+    /**
+     * Renders the report for the selected key.
+     *
+     * @return the views
+     */
+    @Benchmark
+    public ReportViews report() {
+        Sort.report(views, key);
+        return views;
+    }
+
+    /**
+     * Reschedules one appointment to the next timeslot, updating every view.
+     *
+     * @return true if the appointment was moved
+     */
+    @Benchmark
+    public boolean reschedule() {
+        Timeslot next = slots[move++ % slots.length];
+        return views.update(moving, appointment -> appointment.setTimeslot(next));
+    }
+}
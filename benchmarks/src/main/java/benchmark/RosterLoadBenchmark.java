@@ -0,0 +1,84 @@
+package benchmark;
+
+import model.util.RosterLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading a provider roster of the given number of lines with RosterLoader.
+ * The roster repeats the providers of providers.txt.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RosterLoadBenchmark {
+    private static final String[] LINES = {
+            "D ANDREW PATEL 1/21/1989 BRIDGEWATER FAMILY 01",
+            "D RACHAEL LIM 11/30/1975 BRIDGEWATER PEDIATRICIAN 23",
+            "D MONICA ZIMNES 3/11/1981 CLARK FAMILY 11",
+            "D TOM KAUR 11/5/1972 PRINCETON ALLERGIST 54",
+            "T GARY JOHNSON 11/14/1987 PISCATAWAY 110",
+            "T CHARLES BROWN 6/24/1999 BRIDGEWATER 100"
+    };
+
+    @Param({"1000", "50000"})
+    private int lines;
+
+    private Path roster;
+
+    /**
+     * Writes the roster to a temporary file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            text.append(LINES[i % LINES.length]).append('\n');
+        }
+        roster = Files.createTempFile("roster", ".txt");
+        Files.writeString(roster, text);
+    }
+
+    /**
+     * Deletes the temporary roster.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(roster);
+    }
+
+    /**
+     * Loads the roster and builds its registry.
+     *
+     * @return the load result
+     * @throws IOException if the roster cannot be read
+     */
+    @Benchmark
+    public RosterLoader.Result load() throws IOException {
+        return RosterLoader.load(roster);
+    }
+}
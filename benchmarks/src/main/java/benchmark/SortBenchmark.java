@@ -0,0 +1,70 @@
+package benchmark;
+
+import model.project1.Appointment;
+import model.project1.List;
+import model.util.ParallelMergeSort;
+import model.util.Sort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks every report key of Sort.appointment.
+ * Each invocation copies the calendar into a fresh list first, because the reports
+ * reorder the list in place and the billing report empties it.
+ * Larger sizes can be passed on the command line, e.g. -p size=100000,1000000.
+ * The cutoff parameter compares the sequential sort (Integer.MAX_VALUE) with the
+ * parallel merge sort at its default cutoff.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class SortBenchmark {
+    @Param({"1000", "10000"})
+    private int size;
+
+    @Param({"A", "P", "L", "O", "I", "S", "C"})
+    private char key;
+
+    @Param({"2147483647", "8192"})
+    private int cutoff;
+
+    private Appointment[] appointments;
+
+    /**
+     * Builds the calendar shared by every invocation in the trial and registers its providers.
+     */
+    @Setup
+    public void setUp() {
+        appointments = BenchmarkData.appointments(size);
+        Sort.setProviders(BenchmarkData.providers());
+        ParallelMergeSort.setCutoff(cutoff);
+    }
+
+    /**
+     * Runs the report for the selected key.
+     *
+     * @return the list after the report ran
+     */
+    @Benchmark
+    public List<Appointment> appointment() {
+        List<Appointment> list = BenchmarkData.toList(appointments);
+        Sort.appointment(list, key);
+        return list;
+    }
+}
@@ -16,11 +16,15 @@ import javafx.scene.control.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.Calendar;
-import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * The ClinicManagerController class manages the functionality of the clinic's appointment scheduling system.
@@ -33,24 +37,49 @@ import java.util.Scanner;
 public class ClinicManagerController {
 
     /**
-     * List of providers in the clinic.
+     * Providers in the clinic, indexed by NPI, name, location and type.
      */
-    private List<Provider> providerList;
+    private ProviderRegistry providerRegistry;
 
     /**
-     * List of appointments scheduled in the clinic.
+     * List of appointments scheduled in the clinic, hash-indexed for constant time lookup and cancellation.
      */
-    private List<Appointment> appointmentList;
+    private IndexedList<Appointment> appointmentList;
 
     /**
-     * List of technicians in the rotation schedule.
+     * Report views of the appointments, kept in report order as appointments are booked, cancelled and rescheduled.
      */
-    private List<Technician> technicianRotationList;
+    private ReportViews reportViews;
+
+    /**
+     * Running billing totals of the appointments, in integer cents.
+     */
+    private BillingLedger billingLedger;
+
+    /**
+     * Timeslots booked by each provider on each day, for constant time availability checks.
+     */
+    private OccupancyIndex occupancyIndex;
+
+    /**
+     * Appointments by patient, date and timeslot, for constant time duplicate checks and lookups.
+     */
+    private PatientSlotIndex patientSlotIndex;
 
     /**
-     * Maximum number of timeslots available.
+     * Timeslots booked in each radiology room of each location on each day.
      */
-    private static final int MAX_TIMESLOTS = 16;
+    private RoomCalendar roomCalendar;
+
+    /**
+     * Visit history of every patient, archived at each billing-cycle close.
+     */
+    private VisitHistory visitHistory;
+
+    /**
+     * List of technicians in the rotation schedule.
+     */
+    private List<Technician> technicianRotationList;
 
     /**
      * Initial index for technician rotation.
@@ -93,9 +122,47 @@ public class ClinicManagerController {
     private int technicianRotationIndex;
 
     /**
-     * Matrix to track technician assignments to timeslots.
+     * Days covered by the technician calendar, enough for any date within the booking horizon.
+     */
+    private static final int TECHNICIAN_WINDOW_DAYS = 31 * 6 + 1;
+
+    /**
+     * Technicians assigned at each date and timeslot, by position in the rotation.
+     */
+    private TechnicianCalendar technicianCalendar;
+
+    /**
+     * Watches the roster file and reloads it when it changes.
      */
-    private boolean[][] technicianAssigned;
+    private RosterWatcher rosterWatcher;
+
+    /**
+     * Changes made to the appointment book since a roster reload copied it, in order, as calls on a
+     * replay; null when no reload is in progress. They are applied to the rebuilt book before it is swapped in.
+     */
+    private List<Predicate<AppointmentJournal.Replay>> changesSinceCapture;
+
+    /**
+     * Write-ahead journal of every change to the appointment book, replayed on startup.
+     */
+    private AppointmentJournal journal;
+
+    /**
+     * Whether the journal is being replayed. The report views and the technician calendar are
+     * built once after the replay rather than updated during it; the views are faster to build
+     * in bulk, and replayed days may precede the calendar's window.
+     */
+    private boolean replaying;
+
+    /**
+     * Background thread that checks the journal's growth, writes snapshots and compacts the journal.
+     */
+    private ScheduledExecutorService snapshotter;
+
+    /**
+     * Whether a snapshot is being written. Only one is written at a time.
+     */
+    private boolean snapshotting;
 
     @FXML
     private TextField office_patient_first_name;
@@ -203,12 +270,23 @@ public class ClinicManagerController {
     @FXML
     private TableView<Provider> providerTable;
 
-    private ObservableList<Provider> OBSdoctorList = FXCollections.observableArrayList();
-    private ObservableList<Provider> OBStechnicianList = FXCollections.observableArrayList();
-    private ObservableList<Provider> providerData = FXCollections.observableArrayList();
-    private ObservableList<Provider> OBSproviderList = FXCollections.observableArrayList();
     private static final String PROVIDERS_FILE_PATH = "providers.txt";
 
+    private static final String JOURNAL_FILE_PATH = "appointments.journal";
+
+    private static final String SNAPSHOT_FILE_PATH = "appointments.snapshot";
+
+    /**
+     * How often the journal's growth is checked, in seconds.
+     */
+    private static final long SNAPSHOT_INTERVAL_SECONDS = 60;
+
+    /**
+     * How much the journal must grow after the last snapshot before the next one is taken,
+     * about 64k changes.
+     */
+    private static final long SNAPSHOT_JOURNAL_BYTES = 1 << 20;
+
     /**
      * Initializes the Clinic Manager Controller by setting up lists, loading providers,
      * and initializing UI components. This method is called when the controller is
@@ -216,14 +294,17 @@ public class ClinicManagerController {
      */
     @FXML
     public void initialize() {
-        providerList = new List<>();
-        appointmentList = new List<>();
+        visitHistory = new VisitHistory();
+        appointmentList = new IndexedList<>();
+        reportViews = new ReportViews();
+        billingLedger = new BillingLedger();
+        occupancyIndex = new OccupancyIndex();
+        patientSlotIndex = new PatientSlotIndex();
+        roomCalendar = new RoomCalendar();
         technicianRotationList = new List<>();
         technicianRotationIndex = INITIAL_ROTATION_INDEX;
-        OBSproviderList = FXCollections.observableArrayList();
         loadProviders();
-        int MAX_TECHNICIANS = technicianRotationList.size();
-        technicianAssigned = new boolean[MAX_TIMESLOTS][MAX_TECHNICIANS];
+        technicianCalendar = newTechnicianCalendar();
         countyColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getLocation().getCounty()));
         zipColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getLocation().getZipCode()));
         imagingGroup = new ToggleGroup();
@@ -231,7 +312,7 @@ public class ClinicManagerController {
         CATSCAN_button.setToggleGroup(imagingGroup);
         ULTRASOUND_button.setToggleGroup(imagingGroup);
         printTechnicianRotation();
-        appointmentList = new List<>();
+        watchProviders();
         initializeTimeSlots();
         initializeDisplayOptions();
         Sort.setController(this);
@@ -242,141 +323,642 @@ public class ClinicManagerController {
                 "PS: Display Billing by Specialty",
                 "PO: Sort Office Appointments by County",
                 "PI: Sort Imaging Appointments by County",
-                "PC: Display Credit by Provider"
+                "PC: Display Credit by Provider",
+                "PB: Close Billing Cycle"
         );
         display_selector.setItems(displayOptions);
+        openJournal();
+        scheduleSnapshots();
+    }
+
+    /**
+     * Loads the last snapshot of the appointment store, then opens the appointment journal and
+     * replays the changes made after the snapshot, to rebuild the appointment book and its indexes.
+     * If the snapshot cannot be loaded, the previous one is used while the journal still follows it.
+     * A journal that has been compacted is never replayed without a snapshot it follows; it is left
+     * untouched, and like a journal that cannot be opened, the app runs without one and bookings
+     * are not persisted.
+     */
+    private void openJournal() {
+        replaying = true;
+        try {
+            JournalReplay replay = new JournalReplay();
+            AppointmentJournal.Cut cut = loadSnapshot(replay);
+            journal = AppointmentJournal.open(Path.of(JOURNAL_FILE_PATH), providerRegistry, replay, cut);
+            appendMessage(journal.replayed().toString());
+        } catch (IOException e) {
+            appendMessage("Error: " + JOURNAL_FILE_PATH + " cannot be opened and is left as it is; bookings will "
+                    + "not be saved: " + e.getMessage());
+        } finally {
+            replaying = false;
+        }
+        reportViews = ReportViews.of(appointmentList);
+        technicianCalendar = technicianCalendarOf(technicianRotationList, appointmentList);
+    }
+
+    /**
+     * Loads the newest snapshot the journal can be replayed after: the last snapshot, or the one
+     * before it if the last is missing or damaged. A snapshot the journal no longer follows is skipped.
+     *
+     * @param replay where the snapshot is restored
+     * @return the cut of the loaded snapshot, or null if none was loaded
+     */
+    private AppointmentJournal.Cut loadSnapshot(JournalReplay replay) {
+        Path journalPath = Path.of(JOURNAL_FILE_PATH);
+        Path snapshotPath = Path.of(SNAPSHOT_FILE_PATH);
+        for (Path path : new Path[]{snapshotPath, AppointmentSnapshot.previousOf(snapshotPath)}) {
+            try {
+                AppointmentJournal.Cut cut = AppointmentSnapshot.cutOf(path);
+                if (cut == null) {
+                    continue;
+                }
+                if (!AppointmentJournal.follows(journalPath, cut)) {
+                    appendMessage("Error: " + path + " does not match " + JOURNAL_FILE_PATH + " and is not used.");
+                    continue;
+                }
+                AppointmentSnapshot.Stats snapshot = AppointmentSnapshot.load(path, providerRegistry, replay);
+                if (snapshot != null) {
+                    appendMessage(snapshot.toString());
+                    return snapshot.cut();
+                }
+            } catch (IOException e) {
+                appendMessage("Error: " + path + " cannot be loaded: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts checking the journal's growth in the background, taking a snapshot once it has
+     * grown enough since the last one.
+     */
+    private void scheduleSnapshots() {
+        if (journal == null) {
+            return;
+        }
+        AppointmentJournal journal = this.journal;
+        snapshotter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotter.scheduleWithFixedDelay(() -> {
+            if (journal.tailBytes() >= SNAPSHOT_JOURNAL_BYTES) {
+                Platform.runLater(this::takeSnapshot);
+            }
+        }, SNAPSHOT_INTERVAL_SECONDS, SNAPSHOT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Captures the appointment store and cuts the journal at the same point, then hands the
+     * snapshot to the snapshotter thread to be written. Runs on the FX thread, like every booking,
+     * so no change falls between the capture and the cut; the capture only copies references,
+     * so bookings are not held up while the snapshot is encoded and written.
+     */
+    private void takeSnapshot() {
+        if (snapshotting || journal == null) {
+            return;
+        }
+        AppointmentSnapshot snapshot = AppointmentSnapshot.capture(appointmentList, visitHistory,
+                technicianRotationList.isEmpty() ? null : technicianRotationList.get(technicianRotationIndex));
+        AppointmentJournal.Cut cut;
+        try {
+            cut = journal.cut();
+        } catch (RuntimeException e) {
+            appendMessage("Error: snapshot not taken: " + e.getMessage());
+            return;
+        }
+        snapshotting = true;
+        snapshotter.execute(() -> writeSnapshot(snapshot, cut));
+    }
+
+    /**
+     * Writes a snapshot, then compacts the journal up to its cut. Runs on the snapshotter thread.
+     *
+     * @param snapshot the captured snapshot
+     * @param cut      the journal cut taken with it
+     */
+    private void writeSnapshot(AppointmentSnapshot snapshot, AppointmentJournal.Cut cut) {
+        String message;
+        try {
+            long bytes = snapshot.write(Path.of(SNAPSHOT_FILE_PATH), cut);
+            journal.compact(cut);
+            message = String.format("Snapshot of %d appointment(s) and %d archived visit(s) written (%,d bytes); "
+                    + "journal compacted.", snapshot.appointments(), snapshot.visits(), bytes);
+        } catch (IOException e) {
+            message = "Error: snapshot not completed: " + e.getMessage();
+        }
+        String written = message;
+        Platform.runLater(() -> {
+            snapshotting = false;
+            appendMessage(written);
+        });
+    }
+
+    /**
+     * Stops watching the roster and taking snapshots, and closes the journal once everything
+     * booked is on disk.
+     */
+    public void shutdown() {
+        try {
+            if (rosterWatcher != null) {
+                rosterWatcher.close();
+            }
+            if (snapshotter != null) {
+                snapshotter.shutdown();
+                snapshotter.awaitTermination(10, TimeUnit.SECONDS);
+            }
+            if (journal != null) {
+                journal.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Applies the snapshot and the journalled changes through the same methods as the UI, checking
+     * the slots first so a change that no longer applies is skipped instead of leaving the indexes
+     * half updated.
+     */
+    private class JournalReplay implements AppointmentSnapshot.Restore {
+        /**
+         * Gets the patient record of a journalled profile, so replayed bookings read the patient's history.
+         *
+         * @param profile the patient's profile
+         * @return the profile's record, or a new patient
+         */
+        @Override
+        public Patient patient(Profile profile) {
+            return visitHistory.patientOf(profile);
+        }
+
+        /**
+         * Books a journalled appointment and moves the technician rotation past its technician.
+         *
+         * @param appointment the appointment
+         * @return true if the appointment was booked
+         */
+        @Override
+        public boolean book(Appointment appointment) {
+            if (!isFree(appointment, appointment.getTimeslot())) {
+                return false;
+            }
+            bookAppointment(appointment);
+            if (appointment instanceof Imaging imaging) {
+                int position = technicianCalendar.positionOf((Technician) imaging.getProvider());
+                technicianRotationIndex = (position + 1) % technicianRotationList.size();
+            }
+            return true;
+        }
+
+        /**
+         * Cancels a journalled appointment.
+         *
+         * @param date     the date
+         * @param timeslot the timeslot
+         * @param patient  the patient's profile
+         * @return true if the appointment was found and cancelled
+         */
+        @Override
+        public boolean cancel(Date date, Timeslot timeslot, Profile patient) {
+            Appointment appointment = findAppointment(date, timeslot, patient.getFname(), patient.getLname(),
+                    patient.getDob());
+            if (appointment == null) {
+                return false;
+            }
+            cancelAppointment(appointment);
+            return true;
+        }
+
+        /**
+         * Moves a journalled appointment to a new timeslot.
+         *
+         * @param date     the date
+         * @param timeslot the current timeslot
+         * @param patient  the patient's profile
+         * @param newSlot  the new timeslot
+         * @return true if the appointment was found and moved
+         */
+        @Override
+        public boolean move(Date date, Timeslot timeslot, Profile patient, Timeslot newSlot) {
+            Appointment appointment = findAppointment(date, timeslot, patient.getFname(), patient.getLname(),
+                    patient.getDob());
+            if (appointment == null || !isFree(appointment, newSlot)) {
+                return false;
+            }
+            moveAppointment(appointment, newSlot);
+            return true;
+        }
+
+        /**
+         * Closes the journalled billing cycle.
+         *
+         * @return true
+         */
+        @Override
+        public boolean closeCycle() {
+            closeBillingCycle();
+            return true;
+        }
+
+        /**
+         * Archives a visit of an earlier billing cycle into the visit history.
+         *
+         * @param appointment the visit
+         * @param chargeCents the amount billed for the visit, in cents
+         * @return true
+         */
+        @Override
+        public boolean archive(Appointment appointment, long chargeCents) {
+            visitHistory.archive(appointment, chargeCents);
+            return true;
+        }
+
+        /**
+         * Moves the technician rotation to the snapshot's next technician, if it is still in the rotation.
+         *
+         * @param technician the technician
+         */
+        @Override
+        public void rotateTo(Technician technician) {
+            int position = technicianCalendar.positionOf(technician);
+            if (position >= 0) {
+                technicianRotationIndex = position;
+            }
+        }
+
+        /**
+         * Checks that the appointment's provider, and its room if it is an imaging appointment, are free.
+         *
+         * @param appointment the appointment
+         * @param timeslot    the timeslot to check
+         * @return true if the slot is free, false otherwise
+         */
+        boolean isFree(Appointment appointment, Timeslot timeslot) {
+            Provider provider = (Provider) appointment.getProvider();
+            if (occupancyIndex.isOccupied(provider, appointment.getDate(), timeslot)) {
+                return false;
+            }
+            return !(appointment instanceof Imaging imaging)
+                    || roomCalendar.isAvailable(provider.getLocation(), imaging.getRoom(), imaging.getDate(), timeslot);
+        }
     }
 
     /**
-     * Loads provider information from a file and populates the lists for doctors and technicians.
+     * Applies the changes made while a roster reload was rebuilding the appointment book to the
+     * rebuilt book. Bookings are moved to the providers of the reloaded roster, and a billing-cycle
+     * close empties the book without archiving again; the visits were archived when the cycle closed.
+     */
+    private final class RosterReplay extends JournalReplay {
+        private final ProviderRegistry registry;
+
+        /**
+         * Constructs a replay onto the rebuilt book.
+         *
+         * @param registry the reloaded providers
+         */
+        private RosterReplay(ProviderRegistry registry) {
+            this.registry = registry;
+        }
+
+        /**
+         * Books a copy of the appointment with the matching provider of the reloaded roster.
+         *
+         * @param appointment the appointment as it was booked
+         * @return true if the appointment was booked, false if its provider is missing or its slot is taken
+         */
+        @Override
+        public boolean book(Appointment appointment) {
+            Provider provider = registry.resolve((Provider) appointment.getProvider());
+            if (provider == null) {
+                return false;
+            }
+            appointment.setProvider(provider);
+            if (!isFree(appointment, appointment.getTimeslot())) {
+                return false;
+            }
+            bookAppointment(appointment);
+            return true;
+        }
+
+        /**
+         * Empties the book, as the billing-cycle close did.
+         *
+         * @return true
+         */
+        @Override
+        public boolean closeCycle() {
+            clearBook();
+            return true;
+        }
+    }
+
+    /**
+     * Loads provider information from a file into the provider registry and registers it for the reports.
      * It also updates the UI with the names of the providers and initializes the technician rotation.
      */
     @FXML
     private void loadProviders() {
         loadProviderDataFromFile();
-        initializeUniqueLocations();
+        Sort.setProviders(providerRegistry.byLastName());
+        createTechnicianRotation();
         updateUIWithProviderData();
     }
 
     /**
-     * Loads provider data from the file and populates the lists for doctors and technicians.
+     * Starts reloading the roster whenever the providers file changes.
+     * Each reload is parsed and the appointment book rebuilt for it on the watcher thread,
+     * and the result is swapped in on the FX thread.
      */
-    private void loadProviderDataFromFile() {
-        try (Scanner scanner = new Scanner(new File(PROVIDERS_FILE_PATH))) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                if (!line.isEmpty()) {
-                    Provider provider = parseProvider(line);
-                    addProviderToLists(provider);
-                    if (provider != null) {
-                        OBSproviderList.add(provider);
-                    }
+    private void watchProviders() {
+        try {
+            rosterWatcher = new RosterWatcher(Path.of(PROVIDERS_FILE_PATH), this::reloadRoster,
+                    e -> Platform.runLater(() -> appendMessage(
+                            "Error: " + PROVIDERS_FILE_PATH + " cannot be reloaded: " + e.getMessage())));
+        } catch (IOException e) {
+            appendMessage("Error: " + PROVIDERS_FILE_PATH + " cannot be watched: " + e.getMessage());
+        }
+    }
+
+    /**
+     * An appointment book and its indexes rebuilt for a reloaded roster, or the reasons it could not be.
+     *
+     * @param registry     the reloaded providers
+     * @param rotation     the technician rotation of the reloaded roster
+     * @param appointments the copied appointments, moved to the reloaded providers
+     * @param views        the report views of the appointments
+     * @param ledger       the billing ledger of the appointments
+     * @param occupancy    the occupancy index of the appointments
+     * @param patientSlots the patient slot index of the appointments
+     * @param rooms        the room calendar of the appointments
+     * @param technicians  the technician calendar of the rotation
+     * @param errors       why the roster was rejected; empty if it was not
+     */
+    private record RosterBook(ProviderRegistry registry, List<Technician> rotation,
+                              IndexedList<Appointment> appointments, ReportViews views, BillingLedger ledger,
+                              OccupancyIndex occupancy, PatientSlotIndex patientSlots, RoomCalendar rooms,
+                              TechnicianCalendar technicians, List<String> errors) {
+    }
+
+    /**
+     * Reloads the roster. Runs on the watcher thread: the appointment book is copied on the FX thread,
+     * then the copy is moved to the new providers and every index is rebuilt for it here, so the FX
+     * thread only applies the changes made in the meantime and swaps the new book in.
+     * If the copy or the rebuild fails, the changes are no longer recorded and the failure is
+     * rethrown for the watcher to report.
+     *
+     * @param result the reloaded roster
+     */
+    private void reloadRoster(RosterLoader.Result result) {
+        RosterBook rebuilt;
+        try {
+            Appointment[] captured = CompletableFuture.supplyAsync(this::captureBook, Platform::runLater).join();
+            rebuilt = rebuildBook(result.registry(), captured);
+        } catch (RuntimeException e) {
+            Platform.runLater(() -> changesSinceCapture = null);
+            throw e;
+        }
+        Platform.runLater(() -> applyRoster(result, rebuilt));
+    }
+
+    /**
+     * Copies the appointment book for a roster reload and starts recording the changes made to it
+     * until the reload is applied. Runs on the FX thread, like every booking. Only the appointment
+     * objects are copied, in O(n); the indexes are rebuilt from the copy off the FX thread.
+     *
+     * @return copies of the booked appointments, in booking order
+     */
+    private Appointment[] captureBook() {
+        changesSinceCapture = new List<>();
+        Appointment[] book = new Appointment[appointmentList.size()];
+        for (int i = 0; i < book.length; i++) {
+            Appointment appointment = appointmentList.get(i);
+            book[i] = copyOf(appointment, (Provider) appointment.getProvider());
+        }
+        return book;
+    }
+
+    /**
+     * Copies an appointment with another provider.
+     *
+     * @param appointment the appointment
+     * @param provider    the provider of the copy
+     * @return a new appointment with the same date, timeslot, patient and room
+     */
+    private static Appointment copyOf(Appointment appointment, Provider provider) {
+        if (appointment instanceof Imaging imaging) {
+            return new Imaging(imaging.getDate(), imaging.getTimeslot(), imaging.getPatient(),
+                    (Technician) provider, imaging.getRoom());
+        }
+        return new Appointment(appointment.getDate(), appointment.getTimeslot(), appointment.getPatient(), provider);
+    }
+
+    /**
+     * Moves copied appointments to the providers of a reloaded roster and builds a new book and
+     * new indexes for them. Runs on the watcher thread and touches nothing the FX thread uses; the
+     * reloaded providers are only registered for the reports once applyRoster installs them, so the
+     * report views built here rank their names without the registered ranks.
+     *
+     * @param registry the reloaded providers
+     * @param captured copies of the booked appointments, in booking order
+     * @return the rebuilt book, or the reasons it could not be built
+     */
+    private RosterBook rebuildBook(ProviderRegistry registry, Appointment[] captured) {
+        List<String> errors = new List<>();
+        for (Appointment appointment : captured) {
+            Provider provider = (Provider) appointment.getProvider();
+            Provider resolved = registry.resolve(provider);
+            if (resolved == null) {
+                String error = provider.getProfile() + " has appointments but is not in the new roster.";
+                if (!errors.contains(error)) {
+                    errors.add(error);
                 }
+            } else {
+                appointment.setProvider(resolved);
             }
-        } catch (FileNotFoundException e) {
-            appendMessage("Error: " + PROVIDERS_FILE_PATH + " cannot be found.");
+        }
+        if (!errors.isEmpty()) {
+            return new RosterBook(registry, null, null, null, null, null, null, null, null, errors);
+        }
+
+        List<Technician> rotation = rotationOf(registry);
+        IndexedList<Appointment> appointments = new IndexedList<>();
+        BillingLedger ledger = new BillingLedger();
+        OccupancyIndex occupancy = new OccupancyIndex();
+        PatientSlotIndex patientSlots = new PatientSlotIndex();
+        RoomCalendar rooms = new RoomCalendar();
+        try {
+            for (Appointment appointment : captured) {
+                appointments.add(appointment);
+                ledger.book(appointment);
+                occupancy.book(appointment);
+                patientSlots.book(appointment);
+                if (appointment instanceof Imaging imaging) {
+                    rooms.book(imaging);
+                }
+            }
+            ReportViews views = ReportViews.of(appointments);
+            TechnicianCalendar technicians = technicianCalendarOf(rotation, appointments);
+            return new RosterBook(registry, rotation, appointments, views, ledger, occupancy, patientSlots, rooms,
+                    technicians, errors);
+        } catch (IllegalArgumentException e) {
+            errors.add(e.getMessage());
+            return new RosterBook(registry, null, null, null, null, null, null, null, null, errors);
         }
     }
 
     /**
-     * Adds a provider to the respective lists for doctors, technicians, and general providers.
+     * Swaps in a reloaded roster and the appointment book rebuilt for it, after applying the changes
+     * made to the book since it was copied. Runs on the FX thread, in O(changes) plus the swap.
+     * If a booked provider is missing from the new roster, or the bookings would clash under it,
+     * the reload is rejected and nothing changes.
      *
-     * @param provider the provider object to add
+     * @param result  the reloaded roster
+     * @param rebuilt the book rebuilt for it on the watcher thread
      */
-    private void addProviderToLists(Provider provider) {
-        if (provider instanceof Doctor) {
-            OBSdoctorList.add(provider);
-        } else if (provider instanceof Technician) {
-            OBStechnicianList.add(provider);
+    private void applyRoster(RosterLoader.Result result, RosterBook rebuilt) {
+        List<Predicate<AppointmentJournal.Replay>> changes = changesSinceCapture;
+        changesSinceCapture = null;
+        for (RosterLoader.LineError error : result.errors()) {
+            appendMessage("Error: " + error);
+        }
+        if (!rebuilt.errors().isEmpty()) {
+            rejectRoster(rebuilt.errors());
+            return;
+        }
+
+        ProviderRegistry oldRegistry = providerRegistry;
+        IndexedList<Appointment> oldAppointments = appointmentList;
+        ReportViews oldViews = reportViews;
+        BillingLedger oldLedger = billingLedger;
+        OccupancyIndex oldOccupancy = occupancyIndex;
+        PatientSlotIndex oldPatientSlots = patientSlotIndex;
+        RoomCalendar oldRooms = roomCalendar;
+        TechnicianCalendar oldTechnicians = technicianCalendar;
+        List<Technician> oldRotation = technicianRotationList;
+        int oldRotationIndex = technicianRotationIndex;
+
+        int rotationIndex = INITIAL_ROTATION_INDEX;
+        if (!technicianRotationList.isEmpty()) {
+            Provider next = rebuilt.registry().resolve(technicianRotationList.get(technicianRotationIndex));
+            if (next instanceof Technician technician) {
+                rotationIndex = rebuilt.technicians().positionOf(technician);
+            }
         }
-        if (provider != null) {
-            providerList.add(provider);
+        providerRegistry = rebuilt.registry();
+        appointmentList = rebuilt.appointments();
+        reportViews = rebuilt.views();
+        billingLedger = rebuilt.ledger();
+        occupancyIndex = rebuilt.occupancy();
+        patientSlotIndex = rebuilt.patientSlots();
+        roomCalendar = rebuilt.rooms();
+        technicianCalendar = rebuilt.technicians();
+        technicianRotationList = rebuilt.rotation();
+        technicianRotationIndex = rotationIndex;
+
+        List<String> errors = new List<>();
+        AppointmentJournal attached = journal;
+        journal = null; // The changes are already journalled
+        try {
+            RosterReplay replay = new RosterReplay(rebuilt.registry());
+            for (Predicate<AppointmentJournal.Replay> change : changes) {
+                if (!change.test(replay)) {
+                    errors.add("A booking made during the reload does not fit the new roster.");
+                    break;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            errors.add(e.getMessage());
+        } finally {
+            journal = attached;
+        }
+        if (!errors.isEmpty()) {
+            providerRegistry = oldRegistry;
+            appointmentList = oldAppointments;
+            reportViews = oldViews;
+            billingLedger = oldLedger;
+            occupancyIndex = oldOccupancy;
+            patientSlotIndex = oldPatientSlots;
+            roomCalendar = oldRooms;
+            technicianCalendar = oldTechnicians;
+            technicianRotationList = oldRotation;
+            technicianRotationIndex = oldRotationIndex;
+            rejectRoster(errors);
+            return;
         }
+        Sort.setProviders(providerRegistry.byLastName());
+        appendMessage("Roster reloaded. " + result);
+        updateUIWithProviderData();
+        printTechnicianRotation();
     }
 
     /**
-     * Initializes unique locations from the provider list to avoid duplicates.
+     * Reports why a reloaded roster was rejected.
+     *
+     * @param errors the reasons
      */
-    private void initializeUniqueLocations() {
-        List<Location> uniqueLocations = new List<>();
-        for (Provider provider : providerList) {
-            Location loc = provider.getLocation();
-            if (!isDuplicateLocation(uniqueLocations, loc)) {
-                uniqueLocations.add(loc);
-                providerData.add(provider);
-            }
+    private void rejectRoster(List<String> errors) {
+        for (String error : errors) {
+            appendMessage("Error: " + error);
         }
+        appendMessage("Roster reload rejected; the current providers are kept.");
     }
 
     /**
-     * Checks if a location is already in the list of unique locations.
+     * Records a change to the appointment book if a roster reload has copied the book.
      *
-     * @param uniqueLocations list of unique locations
-     * @param loc location to check
-     * @return true if the location is duplicate, false otherwise
+     * @param change the change, as a call on a replay
      */
-    private boolean isDuplicateLocation(List<Location> uniqueLocations, Location loc) {
-        for (Location uniqueLoc : uniqueLocations) {
-            if (uniqueLoc.equals(loc)) {
-                return true;
+    private void recordChange(Predicate<AppointmentJournal.Replay> change) {
+        if (changesSinceCapture != null) {
+            changesSinceCapture.add(change);
+        }
+    }
+
+    /**
+     * Loads provider data from the file and builds the provider registry.
+     * Lines that cannot be parsed are reported and skipped; a missing file leaves the registry empty.
+     */
+    private void loadProviderDataFromFile() {
+        try {
+            RosterLoader.Result result = RosterLoader.load(Path.of(PROVIDERS_FILE_PATH));
+            for (RosterLoader.LineError error : result.errors()) {
+                appendMessage("Error: " + error);
             }
+            appendMessage(result.toString());
+            providerRegistry = result.registry();
+        } catch (NoSuchFileException e) {
+            appendMessage("Error: " + PROVIDERS_FILE_PATH + " cannot be found.");
+            providerRegistry = new ProviderRegistry(new List<>());
+        } catch (IOException e) {
+            appendMessage("Error: " + PROVIDERS_FILE_PATH + " cannot be read: " + e.getMessage());
+            providerRegistry = new ProviderRegistry(new List<>());
         }
-        return false;
     }
 
     /**
-     * Updates the UI with provider data, sets ComboBox items, and initializes the technician rotation.
+     * Updates the UI with provider data and sets ComboBox items.
      */
     private void updateUIWithProviderData() {
+        ObservableList<Provider> providerData = FXCollections.observableArrayList();
+        for (Provider provider : providerRegistry.firstAtEachLocation()) {
+            providerData.add(provider);
+        }
         providerTable.setItems(providerData);
 
         ObservableList<String> doctorNames = FXCollections.observableArrayList();
-        for (Provider doctor : OBSdoctorList) {
+        for (Provider doctor : providerRegistry.ofType(ProviderRegistry.Type.DOCTOR)) {
             doctorNames.add(doctor.getProfile().getFname() + " " + doctor.getProfile().getLname() + " (" + doctor.getLocation().name() + ")");
         }
         office_provider_selection.setItems(doctorNames);
 
-        ObservableList<String> technicianNames = FXCollections.observableArrayList();
-        for (Provider technician : OBStechnicianList) {
-            technicianNames.add(technician.getProfile().getFname() + " " + technician.getProfile().getLname() + " (" + technician.getLocation().name() + ")");
-        }
-
-        providerTable.setItems(providerData);
-        createTechnicianRotation();
-        Sort.provider(providerList);
         displayProviders();
     }
 
 
-    /**
-     * Parses a provider's information from a given line of text.
-     * Returns a Provider object based on the parsed information or null if the provider type is unrecognized.
-     *
-     * @param line the line of text containing provider information
-     * @return a Provider object (Doctor or Technician) or null if the type is unrecognized
-     */
-    private Provider parseProvider(String line) {
-        String[] tokens = line.split("\\s+");
-        String providerType = tokens[0].toUpperCase();
-        String firstName = tokens[1];
-        String lastName = tokens[2];
-        String[] dateParts = tokens[3].split("/");
-        Date dateOfBirth = new Date(
-                Integer.parseInt(dateParts[2]),
-                Integer.parseInt(dateParts[0]),
-                Integer.parseInt(dateParts[1]));
-        Location location = Location.valueOf(tokens[4].toUpperCase());
-
-        if (providerType.equals("D")) {
-            return new Doctor(new Profile(firstName, lastName, dateOfBirth), location,
-                    Specialty.valueOf(tokens[5].toUpperCase()), tokens[6]);
-        } else if (providerType.equals("T")) {
-            return new Technician(new Profile(firstName, lastName, dateOfBirth), location,
-                    Integer.parseInt(tokens[5]));
-        }
-        return null;
-    }
-
     /**
      * Initializes the available time slots for different appointment types by populating
      * a list of time slots and setting it in the corresponding ComboBoxes in the UI.
@@ -403,8 +985,7 @@ public class ClinicManagerController {
      */
     private void addTimeSlots(ObservableList<String> timeSlots, int startSlot, int endSlot) {
         for (int i = startSlot; i <= endSlot; i++) {
-            Timeslot slot = Timeslot.fromString(Integer.toString(i));
-            timeSlots.add(slot.toString());
+            timeSlots.add(Timeslot.of(i).toString());
         }
     }
 
@@ -480,7 +1061,7 @@ public class ClinicManagerController {
     private boolean validateAndCheckAvailability(AppointmentData data) {
         try {
             data.appointmentDate = validateAppointmentDate(String.valueOf(data.appointmentDate), status_messages);
-            data.timeslot = validateTimeslot(convertTimeToSlot(data.timeslotStr));
+            data.timeslot = convertTimeToSlot(data.timeslotStr);
             data.dob = validateDateOfBirth(String.valueOf(data.dob), status_messages);
             if (!validateInputs(data.appointmentDate, data.timeslot, data.dob)) return false;
             data.doctor = getDoctorByNPI(convertProviderToSNPI(data.providerName));
@@ -568,14 +1149,15 @@ public class ClinicManagerController {
         }
         try {
             appointmentDate = validateAppointmentDate(String.valueOf(appointmentDate),cancel_status_messages);
-            Timeslot timeslot = validateTimeslot(convertTimeToSlot(timeslotStr));
+            Timeslot timeslot = convertTimeToSlot(timeslotStr);
             dob = validateDateOfBirth(String.valueOf(dob),cancel_status_messages);
             if (!validateInputs(appointmentDate, timeslot, dob)) return;
             Appointment appointmentToCancel = findAppointment(appointmentDate, timeslot, firstName.toLowerCase(), lastName.toLowerCase(), dob);
 
             if (appointmentToCancel != null) {
-                appointmentList.remove(appointmentToCancel);
-                cancel_status_messages.appendText(appointmentDate + " " + timeslot + " " + firstName + " " + lastName + " " + dob + " - appointment has been canceled.\n");
+                cancelAppointment(appointmentToCancel);
+                String message = appointmentDate + " " + timeslot + " " + firstName + " " + lastName + " " + dob + " - appointment has been canceled.\n";
+                confirmSaved(() -> cancel_status_messages.appendText(message));
             } else {
                 cancel_status_messages.appendText(appointmentDate + " " + timeslot + " " + firstName + " " + lastName + " " + dob + " - appointment does not exist.\n");
             }
@@ -594,7 +1176,7 @@ public class ClinicManagerController {
         if (localDate == null) {
             return null;
         }
-        return new Date(localDate.getYear(), localDate.getMonthValue(), localDate.getDayOfMonth());
+        return Date.of(localDate.getYear(), localDate.getMonthValue(), localDate.getDayOfMonth());
     }
 
 
@@ -605,42 +1187,19 @@ public class ClinicManagerController {
      * @return the NPI as a string, or null if the provider name is not recognized
      */
     private String convertProviderToSNPI(String providerName) {
-        for (Provider provider : OBSproviderList) {
-            if (provider instanceof Doctor doctor) {
-                String fullName = doctor.getProfile().getFname() + " " + doctor.getProfile().getLname();
-                if (fullName.equalsIgnoreCase(providerName)) {
-                    return doctor.getNpi();
-                }
-            }
-        }
-        return null;
+        Doctor doctor = providerRegistry.doctorByName(providerName);
+        return doctor == null ? null : doctor.getNpi();
     }
 
     /**
-     * Converts a given timeslot string (in "HH:MM AM/PM" format) to a corresponding
-     * slot number as a string.
+     * Converts a given timeslot string (in "HH:MM AM/PM" format) to the corresponding timeslot.
      *
      * @param timeslot the timeslot string to convert
-     * @return the corresponding slot number as a string, or null if the timeslot is unrecognized
+     * @return the corresponding timeslot, or null if the timeslot is unrecognized
      */
-    private String convertTimeToSlot(String timeslot) {
-        Timeslot slot = null;
+    private Timeslot convertTimeToSlot(String timeslot) {
         try {
-            switch (timeslot) {
-                case "9:00 AM" -> slot = new Timeslot(Timeslot.BASE_HOUR_MORNING, 0);
-                case "9:30 AM" -> slot = new Timeslot(Timeslot.BASE_HOUR_MORNING, Timeslot.SLOT_DURATION_MINUTES);
-                case "10:00 AM" -> slot = new Timeslot(Timeslot.BASE_HOUR_MORNING + 1, 0);
-                case "10:30 AM" -> slot = new Timeslot(Timeslot.BASE_HOUR_MORNING + 1, Timeslot.SLOT_DURATION_MINUTES);
-                case "11:00 AM" -> slot = new Timeslot(Timeslot.BASE_HOUR_MORNING + 2, 0);
-                case "11:30 AM" -> slot = new Timeslot(Timeslot.BASE_HOUR_MORNING + 2, Timeslot.SLOT_DURATION_MINUTES);
-                case "2:00 PM" -> slot = new Timeslot(Timeslot.BASE_HOUR_AFTERNOON, 0);
-                case "2:30 PM" -> slot = new Timeslot(Timeslot.BASE_HOUR_AFTERNOON, Timeslot.SLOT_DURATION_MINUTES);
-                case "3:00 PM" -> slot = new Timeslot(Timeslot.BASE_HOUR_AFTERNOON + 1, 0);
-                case "3:30 PM" -> slot = new Timeslot(Timeslot.BASE_HOUR_AFTERNOON + 1, Timeslot.SLOT_DURATION_MINUTES);
-                case "4:00 PM" -> slot = new Timeslot(Timeslot.BASE_HOUR_AFTERNOON + 2, 0);
-                case "4:30 PM" -> slot = new Timeslot(Timeslot.BASE_HOUR_AFTERNOON + 2, Timeslot.SLOT_DURATION_MINUTES);
-            }
-            return String.valueOf(slot.getSlotIndex());
+            return Timeslot.fromLabel(timeslot);
         } catch (IllegalArgumentException e) {
             return null;
         }
@@ -692,33 +1251,38 @@ public class ClinicManagerController {
     }
 
     /**
-     * Processes commands related to sorting appointments.
+     * Processes commands related to the appointment reports.
+     * The ordered reports are walked from the report views, so the schedule itself is never reordered.
      *
      * @param appointments the list of appointments to manage
      * @param command      the command string containing the sorting operation to perform
      */
     private void processSortingCommand(List<Appointment> appointments, String command) {
         switch (command) {
-            case "PA": // Sort by appointment date, time, then provider's last name
-                Sort.appointment(appointments, 'A');
+            case "PA": // Appointment date, time, then provider's last name
+                Sort.report(reportViews, 'A');
                 break;
-            case "PP": // Sort by patient (last name, first name, date of birth, appointment date, time)
-                Sort.appointment(appointments, 'P');
+            case "PP": // Patient (last name, first name, date of birth), then appointment date
+                Sort.report(reportViews, 'P');
                 break;
-            case "PL": // Sort by county name, appointment date, time
-                Sort.appointment(appointments, 'L');
+            case "PL": // County name, appointment date, time
+                Sort.report(reportViews, 'L');
                 break;
             case "PS": // Display billing statements based on provider's specialty
-                Sort.appointment(appointments, 'S');
+                Sort.report(billingLedger, 'S');
+                break;
+            case "PO": // Office appointments by county name, date, time
+                Sort.report(reportViews, 'O');
                 break;
-            case "PO": // Sort office appointments by county name, date, time
-                Sort.appointment(appointments, 'O');
+            case "PI": // Imaging appointments by county name, date, time
+                Sort.report(reportViews, 'I');
                 break;
-            case "PI": // Sort imaging appointments by county name, date, time
-                Sort.appointment(appointments, 'I');
+            case "PC": // Display expected credit amounts for providers, in provider order
+                Sort.report(billingLedger, 'C');
                 break;
-            case "PC": // Display expected credit amounts for providers, sorted by provider profile
-                Sort.appointment(appointments, 'C');
+            case "PB": // Archive the appointments into visit history and start a new billing cycle
+                String summary = closeBillingCycle().toString();
+                confirmSaved(() -> appendToDisplayTextArea(summary));
                 break;
             default:
                 break;
@@ -766,6 +1330,7 @@ public class ClinicManagerController {
         else if ("PO: Sort Office Appointments by County".equals(selectedOption)) return "PO";
         else if ("PI: Sort Imaging Appointments by County".equals(selectedOption)) return "PI";
         else if ("PC: Display Credit by Provider".equals(selectedOption)) return "PC";
+        else if ("PB: Close Billing Cycle".equals(selectedOption)) return "PB";
         else return null;
     }
 
@@ -788,16 +1353,25 @@ public class ClinicManagerController {
     }
 
     /**
-     * Creates a rotation list of technicians by iterating through the provider list.
-     * This method adds each provider that is an instance of Technician to the technician rotation list.
+     * Creates the rotation list of technicians from the registry.
      */
     private void createTechnicianRotation() {
-        for (int i = providerList.size() - 1; i >= 0; i--) {
-            Provider provider = providerList.get(i);
-            if (provider instanceof Technician) {
-                technicianRotationList.add((Technician) provider);
-            }
+        technicianRotationList = rotationOf(providerRegistry);
+    }
+
+    /**
+     * Lists the technicians of a registry in rotation order, which is reverse roster order.
+     *
+     * @param registry the provider registry
+     * @return the technician rotation
+     */
+    private static List<Technician> rotationOf(ProviderRegistry registry) {
+        List<Provider> technicians = registry.ofType(ProviderRegistry.Type.TECHNICIAN);
+        List<Technician> rotation = new List<>(technicians.size());
+        for (int i = technicians.size() - 1; i >= 0; i--) {
+            rotation.add((Technician) technicians.get(i));
         }
+        return rotation;
     }
 
     /**
@@ -831,7 +1405,7 @@ public class ClinicManagerController {
     private void displayProviders() {
         appendToTextArea(status_messages, "Providers loaded to the list.");
 
-        for (Provider provider : providerList) {
+        for (Provider provider : providerRegistry.byLastName()) {
             StringBuilder message = new StringBuilder("[" + provider.getProfile().toString() + ", ");
             message.append(provider.getLocation().toString());
 
@@ -886,6 +1460,210 @@ public class ClinicManagerController {
         }
     }
 
+    /**
+     * Adds a new appointment to the schedule, the report views, the billing ledger and the indexes.
+     * The booking is journalled first; confirm it with confirmSaved, so it is not confirmed before it
+     * would survive a crash.
+     *
+     * @param appointment the appointment to book
+     */
+    private void bookAppointment(Appointment appointment) {
+        if (journal != null) {
+            journal.book(appointment);
+        }
+        if (changesSinceCapture != null) {
+            Appointment booked = copyOf(appointment, (Provider) appointment.getProvider());
+            recordChange(replay -> replay.book(booked));
+        }
+        appointmentList.add(appointment);
+        if (!replaying) {
+            reportViews.add(appointment);
+        }
+        billingLedger.book(appointment);
+        occupancyIndex.book(appointment);
+        patientSlotIndex.book(appointment);
+        if (appointment instanceof Imaging imaging) {
+            roomCalendar.book(imaging);
+            if (!replaying) {
+                technicianCalendar.assign(imaging);
+            }
+        }
+    }
+
+    /**
+     * Removes an appointment from the schedule, the report views, the billing ledger and the indexes.
+     * The cancellation is journalled first; confirm it with confirmSaved.
+     *
+     * @param appointment the appointment to cancel
+     */
+    private void cancelAppointment(Appointment appointment) {
+        if (journal != null) {
+            journal.cancel(appointment);
+        }
+        Date date = appointment.getDate();
+        Timeslot timeslot = appointment.getTimeslot();
+        Profile patient = appointment.getPatient().getProfile();
+        recordChange(replay -> replay.cancel(date, timeslot, patient));
+        appointmentList.remove(appointment);
+        if (!replaying) {
+            reportViews.remove(appointment);
+        }
+        billingLedger.cancel(appointment);
+        occupancyIndex.cancel(appointment);
+        patientSlotIndex.cancel(appointment);
+        if (appointment instanceof Imaging imaging) {
+            roomCalendar.cancel(imaging);
+            if (!replaying) {
+                technicianCalendar.release(imaging);
+            }
+        }
+    }
+
+    /**
+     * Moves an appointment to a new timeslot, keeping the schedule index, the report views
+     * the indexes and the room calendar in order.
+     * The patient and provider do not change, so the billing ledger is not affected.
+     * The reschedule is journalled first; confirm it with confirmSaved.
+     *
+     * @param appointment the appointment to move
+     * @param newSlot     the new timeslot
+     */
+    private void moveAppointment(Appointment appointment, Timeslot newSlot) {
+        if (journal != null) {
+            journal.move(appointment, newSlot);
+        }
+        Date date = appointment.getDate();
+        Timeslot timeslot = appointment.getTimeslot();
+        Profile patient = appointment.getPatient().getProfile();
+        recordChange(replay -> replay.move(date, timeslot, patient, newSlot));
+        occupancyIndex.cancel(appointment);
+        patientSlotIndex.cancel(appointment);
+        if (appointment instanceof Imaging imaging) {
+            roomCalendar.cancel(imaging);
+            if (!replaying) {
+                technicianCalendar.release(imaging);
+            }
+        }
+        Timeslot oldSlot = appointment.getTimeslot();
+        if (replaying) {
+            appointmentList.update(appointment, changed -> changed.setTimeslot(newSlot),
+                    changed -> changed.setTimeslot(oldSlot));
+        } else {
+            reportViews.update(appointment, moved -> appointmentList.update(moved,
+                    changed -> changed.setTimeslot(newSlot), changed -> changed.setTimeslot(oldSlot)));
+        }
+        occupancyIndex.book(appointment);
+        patientSlotIndex.book(appointment);
+        if (appointment instanceof Imaging imaging) {
+            roomCalendar.book(imaging);
+            if (!replaying) {
+                technicianCalendar.assign(imaging);
+            }
+        }
+    }
+
+    /**
+     * Closes the billing cycle: moves every appointment into its patient's visit history in one pass,
+     * then starts the next cycle with an empty schedule, report views, billing ledger, indexes and calendars.
+     * The close is journalled first; confirm it with confirmSaved.
+     *
+     * @return what was archived
+     */
+    private BillingCycle.Summary closeBillingCycle() {
+        if (journal != null) {
+            journal.closeCycle();
+        }
+        recordChange(AppointmentJournal.Replay::closeCycle);
+        BillingCycle.Summary summary = BillingCycle.close(appointmentList, visitHistory);
+        clearBook();
+        return summary;
+    }
+
+    /**
+     * Shows the confirmation of the changes just made once the journal has them on disk, without
+     * blocking the JavaFX application thread. The writer thread completes the wait and the
+     * confirmation is posted back with Platform.runLater, so changes made while one batch is being
+     * forced are confirmed together by the next force. If the changes cannot be saved, an error
+     * follows the confirmation, since they still stand until the app exits.
+     *
+     * @param confirmation shows the confirmation, on the JavaFX application thread
+     */
+    private void confirmSaved(Runnable confirmation) {
+        if (journal == null) {
+            confirmation.run();
+            return;
+        }
+        journal.whenSynced().whenComplete((saved, e) -> Platform.runLater(() -> {
+            confirmation.run();
+            if (e != null) {
+                status_messages.appendText("Error: the last change could not be saved to " + JOURNAL_FILE_PATH
+                        + " and will be lost when the app exits: " + e.getMessage() + "\n");
+            }
+        }));
+    }
+
+    /**
+     * Starts a new billing cycle with an empty schedule, report views, billing ledger, indexes and calendars.
+     */
+    private void clearBook() {
+        appointmentList = new IndexedList<>();
+        reportViews = new ReportViews();
+        billingLedger = new BillingLedger();
+        occupancyIndex = new OccupancyIndex();
+        patientSlotIndex = new PatientSlotIndex();
+        roomCalendar = new RoomCalendar();
+        technicianCalendar = newTechnicianCalendar();
+    }
+
+    /**
+     * Creates an empty technician calendar for the rotation, starting today.
+     *
+     * @return the technician calendar
+     */
+    private TechnicianCalendar newTechnicianCalendar() {
+        return newTechnicianCalendar(technicianRotationList, getToday());
+    }
+
+    /**
+     * Creates the technician calendar of a rotation with the imaging appointments booked.
+     * The window starts at the earliest imaging day, or today if that is earlier, but always
+     * reaches the latest; imaging appointments before the window are past and left out.
+     *
+     * @param rotation     the technicians, in rotation order
+     * @param appointments the booked appointments
+     * @return the technician calendar
+     * @throws IllegalArgumentException if two imaging appointments assign a technician at the same slot
+     */
+    private TechnicianCalendar technicianCalendarOf(List<Technician> rotation, Iterable<Appointment> appointments) {
+        int first = getToday().getEpochDay();
+        int last = first;
+        for (Appointment appointment : appointments) {
+            if (appointment instanceof Imaging) {
+                first = Math.min(first, appointment.getDate().getEpochDay());
+                last = Math.max(last, appointment.getDate().getEpochDay());
+            }
+        }
+        int firstDay = Math.max(first, last - TECHNICIAN_WINDOW_DAYS + 1);
+        TechnicianCalendar calendar = newTechnicianCalendar(rotation, Date.ofEpochDay(firstDay));
+        for (Appointment appointment : appointments) {
+            if (appointment instanceof Imaging imaging && imaging.getDate().getEpochDay() >= firstDay) {
+                calendar.assign(imaging);
+            }
+        }
+        return calendar;
+    }
+
+    /**
+     * Creates an empty technician calendar for a rotation.
+     *
+     * @param rotation the technicians, in rotation order
+     * @param firstDay the first day the calendar covers
+     * @return the technician calendar
+     */
+    private static TechnicianCalendar newTechnicianCalendar(List<Technician> rotation, Date firstDay) {
+        return new TechnicianCalendar(rotation, TECHNICIAN_WINDOW_DAYS, firstDay);
+    }
+
     /**
      * Processes a command to create a new office appointment using the provided tokens.
      * Validates the input data, checks for duplicates and doctor availability,
@@ -979,16 +1757,16 @@ public class ClinicManagerController {
     private void createNewAppointment(String firstName, String lastName, Date dob, Date appointmentDate,
                                       Timeslot timeslot, Doctor doctor, boolean isAvailable) {
         Appointment newAppointment = new Appointment(appointmentDate, timeslot,
-                new Patient(new Profile(firstName, lastName, dob)), doctor);
-        appointmentList.add(newAppointment);
+                visitHistory.patientOf(new Profile(firstName, lastName, dob)), doctor);
+        bookAppointment(newAppointment);
 
         // Log the appointment status based on the availability
         if (isAvailable) {
             // If the doctor is available and the appointment is booked
-            appendToOfficeTextArea(appointmentDate, timeslot, firstName, lastName, dob,
+            confirmSaved(() -> appendToOfficeTextArea(appointmentDate, timeslot, firstName, lastName, dob,
                     doctor.getProfile().getFname(), doctor.getProfile().getLname(),
                     doctor.getProfile().getDob(), doctor.getLocation(),
-                    doctor.getSpecialty(), doctor.getNpi(), true); // Pass true for availability
+                    doctor.getSpecialty(), doctor.getNpi(), true)); // Pass true for availability
         } else {
         }
     }
@@ -996,6 +1774,7 @@ public class ClinicManagerController {
     /**
      * Checks if the specified doctor is unavailable for the given appointment date and timeslot.
      * An existing appointment for the same doctor at the specified date and timeslot indicates unavailability.
+     * This is a single bit test in the occupancy index.
      *
      * @param doctor the doctor to check for availability
      * @param appointmentDate the date of the appointment
@@ -1003,23 +1782,13 @@ public class ClinicManagerController {
      * @return true if the doctor is unavailable; false otherwise
      */
     private boolean isDoctorUnavailable(Doctor doctor, Date appointmentDate, Timeslot timeslot) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment.getProvider() instanceof Doctor) {
-                Doctor existingDoctor = (Doctor) appointment.getProvider();
-                if (existingDoctor.equals(doctor) &&
-                        appointment.getDate().equals(appointmentDate) &&
-                        appointment.getTimeslot().equals(timeslot)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return occupancyIndex.isOccupied(doctor, appointmentDate, timeslot);
     }
 
     /**
      * Checks if an appointment with the same patient, date, and timeslot already exists.
      * A duplicate appointment is identified by matching the patient's name, date of birth,
-     * appointment date, and timeslot.
+     * appointment date, and timeslot, looked up in the patient slot index.
      *
      * @param firstName the first name of the patient
      * @param lastName the last name of the patient
@@ -1029,19 +1798,7 @@ public class ClinicManagerController {
      * @return true if a duplicate appointment exists; false otherwise
      */
     private boolean isDuplicateAppointment(String firstName, String lastName, Date dob, Date appointmentDate, Timeslot timeslot) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment.getPatient() instanceof Patient) {
-                Patient patient = (Patient) appointment.getPatient();
-                if (appointment.getDate().equals(appointmentDate) &&
-                        appointment.getTimeslot().equals(timeslot) &&
-                        patient.getProfile().getFname().equalsIgnoreCase(firstName) &&
-                        patient.getProfile().getLname().equalsIgnoreCase(lastName) &&
-                        patient.getProfile().getDob().equals(dob)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return patientSlotIndex.find(firstName, lastName, dob, appointmentDate, timeslot) != null;
     }
 
     /**
@@ -1096,7 +1853,7 @@ public class ClinicManagerController {
     private boolean validateImagingAppointmentData(ImagingAppointmentData data) {
         try {
             data.appointmentDate = validateAppointmentDate(String.valueOf(data.appointmentDate), imaging_status_messages);
-            data.timeslot = validateTimeslot(convertTimeToSlot(data.timeslotStr));
+            data.timeslot = convertTimeToSlot(data.timeslotStr);
             data.dob = validateDateOfBirth(String.valueOf(data.dob), imaging_status_messages);
 
             return validateInputs(data.appointmentDate, data.timeslot, data.dob);
@@ -1178,7 +1935,7 @@ public class ClinicManagerController {
             return;
         }
 
-        Technician technician = findAvailableTechnician(timeslot, room);
+        Technician technician = findAvailableTechnician(appointmentDate, timeslot, room);
         if (technician == null) {
             appendToImagingTextAreaNoTech(
                     appointmentDate, timeslot, firstName, lastName, dob, null, null, null, null, 0.0, imagingService
@@ -1223,11 +1980,12 @@ public class ClinicManagerController {
      */
     private void createNewImagingAppointment(String firstName, String lastName, Date dob, Date appointmentDate,
                                              Timeslot timeslot, Technician technician, Radiology room, String imagingService) {
-        Imaging newImaging = new Imaging(appointmentDate, timeslot, new Patient(new Profile(firstName, lastName, dob)), technician, room);
-        appointmentList.add(newImaging);
+        Imaging newImaging = new Imaging(appointmentDate, timeslot,
+                visitHistory.patientOf(new Profile(firstName, lastName, dob)), technician, room);
+        bookAppointment(newImaging);
 
-        appendToImagingTextArea(appointmentDate, timeslot, firstName, lastName, dob, technician.getProfile().getFname(), technician.getProfile().getLname(),
-                technician.getProfile().getDob(), technician.getLocation(), (double) technician.getRatePerVisit(), imagingService);
+        confirmSaved(() -> appendToImagingTextArea(appointmentDate, timeslot, firstName, lastName, dob, technician.getProfile().getFname(), technician.getProfile().getLname(),
+                technician.getProfile().getDob(), technician.getLocation(), (double) technician.getRatePerVisit(), imagingService));
 
     }
 
@@ -1254,23 +2012,7 @@ public class ClinicManagerController {
      * @return true if a duplicate imaging appointment exists, false otherwise
      */
     private boolean isDuplicateImagingAppointment(String firstName, String lastName, Date dob, Date appointmentDate, Timeslot timeslot) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment instanceof Imaging) {
-                Imaging imagingAppointment = (Imaging) appointment;
-                Person person = imagingAppointment.getPatient();
-
-                if (person instanceof Patient patient) {
-                    if (imagingAppointment.getDate().equals(appointmentDate) &&
-                            imagingAppointment.getTimeslot().equals(timeslot) &&
-                            patient.getProfile().getFname().equalsIgnoreCase(firstName) &&
-                            patient.getProfile().getLname().equalsIgnoreCase(lastName) &&
-                            patient.getProfile().getDob().equals(dob)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return patientSlotIndex.findImaging(firstName, lastName, dob, appointmentDate, timeslot) != null;
     }
 
     /**
@@ -1327,8 +2069,8 @@ public class ClinicManagerController {
      * @return true if data is valid, false otherwise
      */
     private boolean validateRescheduleInputs(RescheduleData data) {
-        data.oldSlot = validateTimeslot(convertTimeToSlot(data.oldTimeslotStr));
-        data.newSlot = validateTimeslot(convertTimeToSlot(data.newTimeslotStr));
+        data.oldSlot = convertTimeToSlot(data.oldTimeslotStr);
+        data.newSlot = convertTimeToSlot(data.newTimeslotStr);
 
         return validateInputs(data.appointmentDate, data.oldSlot, data.dob, data.newSlot);
     }
@@ -1386,6 +2128,24 @@ public class ClinicManagerController {
             return;
         }
 
+        // Check the provider is free at the new timeslot
+        Provider provider = (Provider) appointmentToReschedule.getProvider();
+        if (occupancyIndex.isOccupied(provider, appointmentDate, newSlot)) {
+            String message = String.format("%s is not available at slot %s.%n",
+                    provider, newSlot.getSlotIndex());
+            re_status_messages.appendText(message);
+            return;
+        }
+
+        // Check the imaging room is free at the new timeslot
+        if (appointmentToReschedule instanceof Imaging imaging &&
+                !isRoomAvailable(appointmentDate, newSlot, provider.getLocation(), imaging.getRoom())) {
+            String message = String.format("%s room at %s is not available at slot %s.%n",
+                    imaging.getRoom(), provider.getLocation().name(), newSlot.getSlotIndex());
+            re_status_messages.appendText(message);
+            return;
+        }
+
         // Reschedule the appointment to the new timeslot
         rescheduleAppointment(appointmentToReschedule, newSlot, appointmentDate, firstName, lastName, dob);
     }
@@ -1401,12 +2161,12 @@ public class ClinicManagerController {
      * @param dob the patient's date of birth
      */
     private void rescheduleAppointment(Appointment appointmentToReschedule, Timeslot newSlot, Date appointmentDate, String firstName, String lastName, Date dob) {
-        appointmentToReschedule.setTimeslot(newSlot);  // Update the timeslot in the appointment
+        moveAppointment(appointmentToReschedule, newSlot);
 
         String message = String.format("Rescheduled to %s %s %s %s %s %s%n",
                 appointmentDate.toString(), newSlot, firstName, lastName, dob, appointmentToReschedule.getProvider().toString());
 
-        re_status_messages.appendText(message);
+        confirmSaved(() -> re_status_messages.appendText(message));
     }
 
     /**
@@ -1503,8 +2263,7 @@ public class ClinicManagerController {
      * @return a Date object corresponding to today's date
      */
     private Date getToday() {
-        Calendar cal = Calendar.getInstance();
-        return new Date(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH));
+        return Date.today();
     }
 
     /**
@@ -1525,10 +2284,7 @@ public class ClinicManagerController {
      * @return true if the date is a Saturday or Sunday, false otherwise
      */
     private boolean isWeekend(Date date) {
-        Calendar cal = Calendar.getInstance();
-        cal.set(date.getYear(), date.getMonth() - 1, date.getDay());
-        int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
-        return dayOfWeek == Calendar.SATURDAY || dayOfWeek == Calendar.SUNDAY;
+        return date.isWeekend();
     }
 
     /**
@@ -1538,9 +2294,7 @@ public class ClinicManagerController {
      * @return true if the date is more than six months in the future, false otherwise
      */
     private boolean isBeyondSixMonths(Date date) {
-        Calendar cal = Calendar.getInstance();
-        cal.add(Calendar.MONTH, MAX_MONTHS_AHEAD);
-        Date sixMonthsFromNow = new Date(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH));
+        Date sixMonthsFromNow = getToday().plusMonths(MAX_MONTHS_AHEAD);
         return date.compareTo(sixMonthsFromNow) > 0;
     }
     /**
@@ -1566,101 +2320,58 @@ public class ClinicManagerController {
             int month = Integer.parseInt(parts[0]);
             int day = Integer.parseInt(parts[1]);
             int year = Integer.parseInt(parts[2]);
-            return new Date(year, month, day);
+            return Date.of(year, month, day);
         } catch (Exception e) {
             return null;
         }
     }
 
     /**
-     * Searches for a doctor in the provider list by their National Provider Identifier (NPI).
+     * Searches for a doctor in the provider registry by their National Provider Identifier (NPI).
      *
      * @param npi the National Provider Identifier of the doctor to find
      * @return the Doctor object if found, or null if no doctor with the given NPI exists
      */
     private Doctor findDoctorByNPI(int npi) {
-        for (Provider provider : providerList) {
-            if (provider instanceof Doctor doctor) {
-                if (Integer.parseInt(doctor.getNpi()) == npi) {
-                    return doctor;
-                }
-            }
-        }
-        return null;
+        return providerRegistry.doctorByNpi(npi);
     }
 
     /**
-     * Searches for an available technician for a specified timeslot and radiology room.
+     * Searches for an available technician for a specified date, timeslot and radiology room.
+     * The first technician after the rotation pointer who is free and whose location's room is free
+     * is taken, and the pointer moves past them; if none qualifies, the pointer stays put.
+     * The search is a few mask operations on the room and technician calendars.
      *
+     * @param date the date for which an available technician is required
      * @param timeslot the timeslot for which an available technician is required
      * @param room the radiology room where the service is requested
      * @return the available Technician if found, or null if no technician is available
      */
-    private Technician findAvailableTechnician(Timeslot timeslot, Radiology room) {
+    private Technician findAvailableTechnician(Date date, Timeslot timeslot, Radiology room) {
         if (technicianRotationList.isEmpty()) {
             return null;
         }
-        int technicianCount = technicianRotationList.size();
-        int slotIndex = timeslot.getSlotIndex() - 1;
-
-        for (int i = 0; i < technicianCount; i++) {
-            Technician technician = technicianRotationList.get(technicianRotationIndex);
-
-            boolean isRoomAvailable = isRoomAvailable(timeslot, technician.getLocation(), room);
-            boolean isTechnicianAlreadyAssigned = technicianAssigned[slotIndex][technicianRotationIndex];
-
-            if (isRoomAvailable && !isTechnicianAlreadyAssigned && isTechnicianAvailable(technician, timeslot, room)) {
-                technicianAssigned[slotIndex][technicianRotationIndex] = true;
-                technicianRotationIndex = (technicianRotationIndex + 1) % technicianCount;
-
-                return technician;
-            }
-            technicianRotationIndex = (technicianRotationIndex + 1) % technicianCount;
+        int locations = roomCalendar.freeLocations(room, date, timeslot);
+        int position = technicianCalendar.nextFree(technicianRotationIndex, date, timeslot, locations);
+        if (position < 0) {
+            return null;
         }
-        return null;
+        technicianRotationIndex = (position + 1) % technicianRotationList.size();
+        return technicianRotationList.get(position);
     }
 
     /**
-     * Checks if a specified radiology room is available during a given timeslot at a specific location.
+     * Checks if a specified radiology room is available on a given date and timeslot at a specific location.
+     * This is a single bit test in the room calendar.
      *
+     * @param date the date to check for availability
      * @param timeslot the timeslot to check for availability
      * @param location the location of the technician
      * @param room the radiology room to check for availability
-     * @return true if the room is available for the given timeslot; false otherwise
-     */
-    private boolean isRoomAvailable(Timeslot timeslot, Location location, Radiology room) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment instanceof Imaging imagingAppointment) {
-                Technician technician = (Technician) imagingAppointment.getProvider();
-                if (imagingAppointment.getTimeslot().equals(timeslot) &&
-                        imagingAppointment.getRoom().equals(room) &&
-                        technician.getLocation().equals(location)) {
-                    return false;
-                }
-            }
-        }
-        return true; // Room is available
-    }
-
-    /**
-     * Checks if a specified technician is available during a given timeslot for a specific radiology room.
-     *
-     * @param technician the technician to check for availability
-     * @param timeslot the timeslot to check for conflicts
-     * @param room the radiology room to check for conflicts
-     * @return true if the technician is available for the given timeslot and room; false otherwise
+     * @return true if the room is available for the given date and timeslot; false otherwise
      */
-    private boolean isTechnicianAvailable(Technician technician, Timeslot timeslot, Radiology room) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment instanceof Imaging imagingAppointment) {
-                if (imagingAppointment.getProvider().equals(technician) &&
-                        imagingAppointment.getTimeslot().equals(timeslot) &&
-                        imagingAppointment.getRoom().equals(room)) {
-                    return false; // Technician is already booked at the same time for the same room
-                }
-            }
-        }
-        return true;
+    private boolean isRoomAvailable(Date date, Timeslot timeslot, Location location, Radiology room) {
+        return roomCalendar.isAvailable(location, room, date, timeslot);
     }
 
     /**
@@ -1674,16 +2385,7 @@ public class ClinicManagerController {
      * @return the found Appointment if a match exists; null if no matching appointment is found
      */
     private Appointment findAppointment(Date date, Timeslot timeslot, String firstName, String lastName, Date dob) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment.getDate().equals(date) &&
-                    appointment.getTimeslot().equals(timeslot) &&
-                    appointment.getPatient().getProfile().getFname().equalsIgnoreCase(firstName) &&
-                    appointment.getPatient().getProfile().getLname().equalsIgnoreCase(lastName) &&
-                    appointment.getPatient().getProfile().getDob().equals(dob)) {
-                return appointment;
-            }
-        }
-        return null;
+        return patientSlotIndex.find(firstName, lastName, dob, date, timeslot);
     }
 
     /**
@@ -8,15 +8,25 @@ import javafx.stage.Stage;
 import java.io.IOException;
 
 public class ClinicManagerMain extends Application {
+    private ClinicManagerController controller;
+
     @Override
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(ClinicManagerMain.class.getResource("clinic-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 750, 425);
+        controller = fxmlLoader.getController();
         stage.setTitle("Clinic Manager");
         stage.setScene(scene);
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     public static void main(String[] args) {
         launch();
     }
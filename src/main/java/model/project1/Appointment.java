@@ -1,6 +1,8 @@
 package model.project1;
 import model.util.Person;
 
+import java.util.Objects;
+
 /**
  * Represents an appointment with a date, timeslot, patient, and provider.
  * This class allows for the creation and management of appointments,
@@ -118,6 +120,19 @@ public class Appointment implements Comparable<Appointment> {
         return dateEqual && timeslotEqual && patientEqual;
     }
 
+    /**
+     * Returns a hash code for the appointment, consistent with equals.
+     * Only the date, timeslot, and patient contribute, since those decide equality.
+     *
+     * @return the hash code of the appointment
+     */
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(date);
+        result = 31 * result + Objects.hashCode(timeslot);
+        return 31 * result + Objects.hashCode(patient);
+    }
+
     /**
      * Compares this appointment with another for ordering purposes.
      * Appointments are compared first by date, and if the dates are equal, by timeslot.
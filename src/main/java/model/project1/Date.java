@@ -1,20 +1,25 @@
 package model.project1;
 
-import javafx.fxml.FXML;
-
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.ZoneId;
 
 /**
  * Represents a date with year, month, and day.
  * This class implements the Comparable interface to allow sorting of dates.
  * It also provides methods to validate the date and check for leap years.
+ * A date is backed by its epoch day (days since 1/1/1970), so comparisons and
+ * day-of-week arithmetic are single integer operations. Dates are immutable, and
+ * the dates of the active booking window are interned by the of factory methods.
  *
  * @author Stephen Kwok and Jeongtae Kim
  */
 public class Date implements Comparable<Date> {
-    private int year;
-    private int month;
-    private int day;
+    private final int year;
+    private final int month;
+    private final int day;
+    private final int epochDay;
+    private String text; // Cached toString result
 
     private static final int MIN_YEAR = 1;
     private static final int MIN_DAY = 1;
@@ -35,13 +40,27 @@ public class Date implements Comparable<Date> {
     private static final int OCTOBER = 10;
     private static final int NOVEMBER = 11;
     private static final int DECEMBER = 12;
+    private static final int MONTHS_PER_YEAR = 12;
 
     private static final int LEAP_YEAR_DIVISIBLE_BY = 4;
     private static final int CENTURY_DIVISIBLE_BY = 100;
     private static final int FOUR_CENTURY_DIVISIBLE_BY = 400;
 
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int DAYS_PER_ERA = 146097; // Days in a 400-year cycle
+    private static final int DAYS_0000_TO_1970 = 719468; // Days from 3/1/0000 to 1/1/1970
+    private static final int EPOCH_DAY_OF_WEEK_OFFSET = 3; // 1/1/1970 was a Thursday
+
+    private static final int CACHE_DAYS_BEFORE_TODAY = 31;
+    private static final int CACHE_DAYS = 400; // Covers the six-month booking window with room to spare
+    private static final int CACHE_FIRST_DAY = (int) LocalDate.now().toEpochDay() - CACHE_DAYS_BEFORE_TODAY;
+    private static final Date[] CACHE = new Date[CACHE_DAYS];
+
+    private static volatile Today today;
+
     /**
      * Constructs a Date with the specified year, month, and day.
+     * The date does not have to be valid; use isValid to check it.
      *
      * @param year  the year of the date
      * @param month the month of the date
@@ -51,6 +70,117 @@ public class Date implements Comparable<Date> {
         this.year = year;
         this.month = month;
         this.day = day;
+        this.epochDay = toEpochDay(year, month, day);
+    }
+
+    /**
+     * Constructs the valid Date for the specified epoch day.
+     *
+     * @param epochDay the number of days since 1/1/1970
+     */
+    private Date(int epochDay) {
+        int z = epochDay + DAYS_0000_TO_1970;
+        int era = Math.floorDiv(z, DAYS_PER_ERA);
+        int dayOfEra = z - era * DAYS_PER_ERA;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153; // March is month 0
+        this.day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        this.month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        this.year = yearOfEra + era * FOUR_CENTURY_DIVISIBLE_BY + (month <= FEBRUARY ? 1 : 0);
+        this.epochDay = epochDay;
+    }
+
+    /**
+     * Returns the Date with the specified year, month, and day.
+     * Valid dates inside the active booking window are shared instances.
+     *
+     * @param year  the year of the date
+     * @param month the month of the date
+     * @param day   the day of the date
+     * @return the date, which may be invalid if the arguments are
+     */
+    public static Date of(int year, int month, int day) {
+        Date date = new Date(year, month, day);
+        if (!date.isValid()) {
+            return date;
+        }
+        return intern(date);
+    }
+
+    /**
+     * Returns the Date for the specified epoch day.
+     *
+     * @param epochDay the number of days since 1/1/1970
+     * @return the date
+     */
+    public static Date ofEpochDay(int epochDay) {
+        int slot = epochDay - CACHE_FIRST_DAY;
+        if (slot >= 0 && slot < CACHE_DAYS) {
+            Date cached = CACHE[slot];
+            if (cached == null) {
+                cached = new Date(epochDay);
+                CACHE[slot] = cached; // Benign race: every thread stores an equal, immutable date
+            }
+            return cached;
+        }
+        return new Date(epochDay);
+    }
+
+    /**
+     * Returns today's date. The date is computed once per day and then reused.
+     *
+     * @return today's date in the system time zone
+     */
+    public static Date today() {
+        Today current = today;
+        long now = System.currentTimeMillis();
+        if (current == null || now >= current.endsAt()) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate localToday = LocalDate.now(zone);
+            long endsAt = localToday.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            current = new Today(ofEpochDay((int) localToday.toEpochDay()), endsAt);
+            today = current;
+        }
+        return current.date();
+    }
+
+    /**
+     * Returns the shared instance equal to the specified valid date, if it is in the cache window.
+     *
+     * @param date a valid date
+     * @return the shared instance, or the date itself if it is outside the window
+     */
+    private static Date intern(Date date) {
+        int slot = date.epochDay - CACHE_FIRST_DAY;
+        if (slot < 0 || slot >= CACHE_DAYS) {
+            return date;
+        }
+        Date cached = CACHE[slot];
+        if (cached == null) {
+            CACHE[slot] = date;
+            return date;
+        }
+        return cached;
+    }
+
+    /**
+     * Converts a year, month, and day to the number of days since 1/1/1970.
+     * Out-of-range days roll over into the following month, so invalid dates still get a number.
+     *
+     * @param year  the year
+     * @param month the month
+     * @param day   the day
+     * @return the epoch day
+     */
+    private static int toEpochDay(int year, int month, int day) {
+        int y = month <= FEBRUARY ? year - 1 : year;
+        int era = Math.floorDiv(y, FOUR_CENTURY_DIVISIBLE_BY);
+        int yearOfEra = y - era * FOUR_CENTURY_DIVISIBLE_BY;
+        int shiftedMonth = month > FEBRUARY ? month - 3 : month + 9; // March is month 0
+        int dayOfYear = (153 * shiftedMonth + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
     }
 
     /**
@@ -80,6 +210,57 @@ public class Date implements Comparable<Date> {
         return day;
     }
 
+    /**
+     * Gets the number of days between 1/1/1970 and this date.
+     *
+     * @return the epoch day of the date
+     */
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    /**
+     * Gets the day of the week of the date.
+     *
+     * @return the day of the week
+     */
+    public DayOfWeek getDayOfWeek() {
+        return DayOfWeek.of(Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK_OFFSET, DAYS_PER_WEEK) + 1);
+    }
+
+    /**
+     * Checks if the date falls on a Saturday or Sunday.
+     *
+     * @return true if the date is on a weekend, false otherwise
+     */
+    public boolean isWeekend() {
+        return Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK_OFFSET, DAYS_PER_WEEK) >= DayOfWeek.SATURDAY.ordinal();
+    }
+
+    /**
+     * Returns the date the specified number of days after this date.
+     *
+     * @param days the number of days to add, which may be negative
+     * @return the resulting date
+     */
+    public Date plusDays(int days) {
+        return ofEpochDay(epochDay + days);
+    }
+
+    /**
+     * Returns the date the specified number of months after this date.
+     * If the day does not exist in the resulting month, the last day of that month is used.
+     *
+     * @param months the number of months to add, which may be negative
+     * @return the resulting date
+     */
+    public Date plusMonths(int months) {
+        int monthIndex = year * MONTHS_PER_YEAR + (month - JANUARY) + months;
+        int newYear = Math.floorDiv(monthIndex, MONTHS_PER_YEAR);
+        int newMonth = Math.floorMod(monthIndex, MONTHS_PER_YEAR) + JANUARY;
+        return of(newYear, newMonth, Math.min(day, daysInMonth(newYear, newMonth)));
+    }
+
     /**
      * Checks if the date is valid.
      *
@@ -89,16 +270,26 @@ public class Date implements Comparable<Date> {
         if (year < MIN_YEAR || month < JANUARY || month > DECEMBER || day < MIN_DAY || day > DAYS_IN_MONTH_31) {
             return false;
         }
+        return day <= daysInMonth(year, month);
+    }
 
+    /**
+     * Gets the number of days in the specified month.
+     *
+     * @param year  the year of the month
+     * @param month the month, from 1 to 12
+     * @return the number of days in the month
+     */
+    private static int daysInMonth(int year, int month) {
         if (month == FEBRUARY) {
-            return day <= (isLeapYear(year) ? DAYS_IN_FEBRUARY_LEAP : DAYS_IN_FEBRUARY_NON_LEAP);
+            return isLeapYear(year) ? DAYS_IN_FEBRUARY_LEAP : DAYS_IN_FEBRUARY_NON_LEAP;
         }
 
         if (month == APRIL || month == JUNE || month == SEPTEMBER || month == NOVEMBER) {
-            return day <= DAYS_IN_MONTH_30;
+            return DAYS_IN_MONTH_30;
         }
 
-        return day <= DAYS_IN_MONTH_31;
+        return DAYS_IN_MONTH_31;
     }
 
     /**
@@ -107,22 +298,23 @@ public class Date implements Comparable<Date> {
      * @param year the year to check
      * @return true if the year is a leap year, false otherwise
      */
-    private boolean isLeapYear(int year) {
+    private static boolean isLeapYear(int year) {
         return (year % LEAP_YEAR_DIVISIBLE_BY == 0 && year % CENTURY_DIVISIBLE_BY != 0) ||
                 (year % FOUR_CENTURY_DIVISIBLE_BY == 0);
     }
 
     /**
      * Compares this date to another date.
-     * Dates are compared first by year, then by month, and finally by day.
+     * Dates are compared by epoch day; invalid dates that roll over onto the same day
+     * are then ordered by month and day so the order stays consistent with equals.
      *
      * @param other the other date to compare to
      * @return a negative integer, zero, or a positive integer as this date is less than, equal to, or greater than the specified date
      */
     @Override
     public int compareTo(Date other) {
-        if (this.year != other.year) {
-            return Integer.compare(this.year, other.year);
+        if (this.epochDay != other.epochDay) {
+            return Integer.compare(this.epochDay, other.epochDay);
         }
 
         if (this.month != other.month) {
@@ -148,11 +340,22 @@ public class Date implements Comparable<Date> {
             return false;
         }
         Date other = (Date) obj;
-        return year == other.year &&
+        // The epoch day fixes the year once the month and day match
+        return epochDay == other.epochDay &&
                 month == other.month &&
                 day == other.day;
     }
 
+    /**
+     * Returns a hash code for the date, consistent with equals.
+     *
+     * @return the epoch day of the date
+     */
+    @Override
+    public int hashCode() {
+        return epochDay;
+    }
+
     /**
      * Returns a string representation of the date in MM/DD/YYYY format.
      *
@@ -160,9 +363,22 @@ public class Date implements Comparable<Date> {
      */
     @Override
     public String toString() {
-        return String.format("%d/%d/%d", month, day, year);
+        String result = text;
+        if (result == null) {
+            result = new StringBuilder(10).append(month).append('/').append(day).append('/').append(year).toString();
+            text = result;
+        }
+        return result;
     }
 
+    /**
+     * Today's date together with the time at which it stops being today.
+     *
+     * @param date   today's date
+     * @param endsAt the next midnight in epoch milliseconds
+     */
+    private record Today(Date date, long endsAt) {
+    }
 }
 
 /*
@@ -0,0 +1,319 @@
+package model.project1;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Represents a List of distinct objects with a hash index over their positions.
+ * Objects keep their insertion order, while contains and remove run in O(1)
+ * and indexOf runs in amortized O(1).
+ * Removing an object only clears its slot; the cleared slots are compacted in a
+ * single pass the next time the list is read by position or iterated.
+ * Objects must override hashCode consistently with equals and must not change
+ * their equality while in the list, except through update.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public class IndexedList<E> extends List<E> {
+    private final HashMap<E, Integer> positions;
+    private int removed; // Number of cleared slots waiting for compaction
+
+    /**
+     * Constructs an empty IndexedList.
+     */
+    public IndexedList() {
+        super();
+        positions = new HashMap<>();
+    }
+
+    /**
+     * Constructs an empty IndexedList with the specified initial capacity.
+     * @param initialCapacity The number of objects the list can hold before it grows.
+     */
+    public IndexedList(int initialCapacity) {
+        super(initialCapacity);
+        positions = new HashMap<>(Math.max(16, (int) (initialCapacity / 0.75f) + 1));
+    }
+
+    /**
+     * Closes the gaps left by removed objects and updates the positions of the objects that moved.
+     */
+    @Override
+    void pack() {
+        if (removed == 0) {
+            return;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            E e = objects[i];
+            if (e != null) {
+                if (kept != i) {
+                    objects[kept] = e;
+                    positions.put(e, kept);
+                }
+                kept++;
+            }
+        }
+        Arrays.fill(objects, kept, size, null); // Avoid memory leak
+        size = kept;
+        removed = 0;
+    }
+
+    /**
+     * Rebuilds the hash index from the backing array.
+     */
+    private void reindex() {
+        positions.clear();
+        for (int i = 0; i < size; i++) {
+            positions.put(objects[i], i);
+        }
+    }
+
+    /**
+     * Checks if the specified object is present in the list.
+     * @param e The object to check for.
+     * @return true if the object is found, false otherwise.
+     */
+    @Override
+    public boolean contains(E e) {
+        return positions.containsKey(e);
+    }
+
+    /**
+     * Adds a new object to the end of the list.
+     * @param e The object to add.
+     * @throws IllegalArgumentException if the object is null or an equal object is already in the list.
+     */
+    @Override
+    public void add(E e) {
+        if (e == null || positions.containsKey(e)) {
+            throw new IllegalArgumentException("Object is null or already in the list: " + e);
+        }
+        super.add(e);
+        positions.put(e, size - 1);
+    }
+
+    /**
+     * Adds all objects of the specified list to the end of this list, keeping their order.
+     * @param other The list whose objects are added.
+     * @throws IllegalArgumentException if an object is null or already in the list.
+     */
+    @Override
+    public void addAll(List<? extends E> other) {
+        ensureCapacity(size + other.size());
+        for (E e : other) {
+            add(e);
+        }
+    }
+
+    /**
+     * Removes the specified object from the list in O(1).
+     * @param e The object to remove.
+     * @return true if the object was removed, false if it was not found.
+     */
+    @Override
+    public boolean remove(E e) {
+        Integer index = positions.remove(e);
+        if (index == null) {
+            return false;
+        }
+        objects[index] = null;
+        removed++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes every object that satisfies the specified condition.
+     * @param filter The condition that selects the objects to remove.
+     * @return true if any object was removed, false otherwise.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        pack();
+        if (!super.removeIf(filter)) {
+            return false;
+        }
+        reindex();
+        return true;
+    }
+
+    /**
+     * Removes all objects from the list.
+     */
+    @Override
+    public void clear() {
+        positions.clear();
+        removed = 0;
+        super.clear();
+    }
+
+    /**
+     * Changes an object in the list without losing its position.
+     * Use this for any change that affects the object's equality, so the hash index stays correct.
+     * If the changed object would equal another object in the list, the change is undone
+     * and the object stays in the list as it was.
+     * @param e The object to change.
+     * @param change The change to apply to the object.
+     * @param undo Reverses the change.
+     * @return true if the object was found and changed, false if it was not found.
+     * @throws IllegalArgumentException if the changed object would equal another object in the list.
+     */
+    public boolean update(E e, Consumer<? super E> change, Consumer<? super E> undo) {
+        Integer index = positions.remove(e);
+        if (index == null) {
+            return false;
+        }
+        E current = objects[index];
+        change.accept(current);
+        if (positions.containsKey(current)) {
+            undo.accept(current);
+            positions.put(current, index);
+            throw new IllegalArgumentException("Object is already in the list: " + current);
+        }
+        positions.put(current, index);
+        return true;
+    }
+
+    /**
+     * Checks if the list is empty.
+     * @return true if the list is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the current number of objects in the list.
+     * @return The current size of the list.
+     */
+    @Override
+    public int size() {
+        return size - removed;
+    }
+
+    /**
+     * Returns the object at the specified index.
+     * @param index The index of the object to retrieve.
+     * @return The object at the specified index, or null if out of bounds.
+     */
+    @Override
+    public E get(int index) {
+        pack();
+        return super.get(index);
+    }
+
+    /**
+     * Sets the object at the specified index.
+     * To reorder objects among the indexes they occupy, use setAll.
+     * @param index The index to set the object at.
+     * @param e The object to set.
+     * @throws IllegalArgumentException if the object is null or an equal object is at another index.
+     */
+    @Override
+    public void set(int index, E e) {
+        pack();
+        if (index < 0 || index >= size) {
+            return;
+        }
+        Integer at = e == null ? null : positions.get(e);
+        if (e == null || at != null && at != index) {
+            throw new IllegalArgumentException("Object is null or already in the list: " + e);
+        }
+        positions.remove(objects[index]);
+        positions.put(e, index);
+        objects[index] = e;
+    }
+
+    /**
+     * Sets the objects at several indexes at once, as when objects are reordered among the indexes they occupy.
+     * The objects set must be distinct from each other and from the objects left at other indexes;
+     * otherwise nothing is changed.
+     * @param indexes The indexes to set.
+     * @param elements Gives the object to set at the i-th of the indexes.
+     * @param count The number of indexes to set.
+     * @throws IllegalArgumentException if an object is null or would be in the list twice.
+     */
+    @Override
+    public void setAll(int[] indexes, IntFunction<? extends E> elements, int count) {
+        pack();
+        for (int i = 0; i < count; i++) {
+            if (indexes[i] < 0 || indexes[i] >= size) {
+                throw new IndexOutOfBoundsException(indexes[i]);
+            }
+            positions.remove(objects[indexes[i]]);
+        }
+        for (int i = 0; i < count; i++) {
+            E e = elements.apply(i);
+            if (e == null || positions.putIfAbsent(e, indexes[i]) != null) {
+                for (int j = 0; j < i; j++) {
+                    positions.remove(elements.apply(j));
+                }
+                for (int j = 0; j < count; j++) {
+                    positions.put(objects[indexes[j]], indexes[j]);
+                }
+                throw new IllegalArgumentException("Object is null or already in the list: " + e);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            objects[indexes[i]] = elements.apply(i);
+        }
+    }
+
+    /**
+     * Returns the index of the specified object.
+     * @param e The object to find.
+     * @return The index of the object, or -1 if not found.
+     */
+    @Override
+    public int indexOf(E e) {
+        pack();
+        Integer index = positions.get(e);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Shrinks the backing array to the current number of objects.
+     */
+    @Override
+    public void trimToSize() {
+        pack();
+        super.trimToSize();
+    }
+
+    /**
+     * Sorts the list in place with the specified comparator and rebuilds the hash index.
+     * @param c The comparator that defines the order.
+     */
+    @Override
+    public void sort(Comparator<? super E> c) {
+        super.sort(c);
+        reindex();
+    }
+
+    /**
+     * Returns an iterator over the elements in the list.
+     * @return An iterator for the list.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        pack();
+        return super.iterator();
+    }
+
+    /**
+     * Returns a spliterator over the elements in the list.
+     * @return A SIZED, SUBSIZED and ORDERED spliterator for the list.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        pack();
+        return super.spliterator();
+    }
+}
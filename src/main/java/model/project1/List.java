@@ -1,27 +1,56 @@
 package model.project1;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a dynamically resizable list that stores elements of type E.
  * This class provides methods for adding, removing, and accessing elements,
  * as well as checking the list's size and whether it is empty.
- * The class implements the Iterable interface to allow for iteration over the elements.
+ * The backing array doubles when it runs out of room, so adding is amortized O(1).
+ * The class implements the Iterable interface to allow for iteration over the elements,
+ * and can be streamed sequentially or in parallel. Iterators and spliterators fail fast
+ * when the list is structurally modified while they are in use.
  *
  * @author Stephen Kwok and Jeongtae Kim
  */
 public class List<E> implements Iterable<E> {
-    private E[] objects;
-    private int size;
+    // Package-private so IndexedList can maintain its hash index over the same storage
+    E[] objects;
+    int size;
+    int modCount; // Number of structural modifications, checked by iterators
 
     private static final int INITIAL_SIZE = 4;
-    private static final int GROWTH_INCREMENT = 4;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
     private static final int NOT_FOUND = -1;
 
     /**
      * Constructs an empty List with an initial capacity of 4.
      */
     public List() {
-        objects = (E[]) new Object[INITIAL_SIZE];
+        this(INITIAL_SIZE);
+    }
+
+    /**
+     * Constructs an empty List with the specified initial capacity.
+     * @param initialCapacity The number of objects the list can hold before it grows.
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    @SuppressWarnings("unchecked")
+    public List(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+        }
+        objects = (E[]) new Object[Math.max(initialCapacity, INITIAL_SIZE)];
         size = 0;
     }
 
@@ -40,16 +69,43 @@ public class List<E> implements Iterable<E> {
     }
 
     /**
-     * Increases the capacity of the objects array by a fixed increment.
+     * Increases the capacity of the objects array so it holds at least minCapacity objects.
+     * The capacity is at least doubled, which keeps the total copying cost of n adds at O(n).
+     * @param minCapacity The number of objects the array must be able to hold.
      */
-    private void grow() {
-        int newSize = objects.length + GROWTH_INCREMENT;
-        @SuppressWarnings("unchecked")
-        E[] newObjects = (E[]) new Object[newSize];
-        for (int i = 0; i < size; i++) {
-            newObjects[i] = objects[i];
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required list capacity is too large: " + minCapacity);
+        }
+        long doubled = (long) objects.length * GROWTH_FACTOR;
+        int newSize = (int) Math.min(Math.max(doubled, minCapacity), MAX_CAPACITY);
+        objects = Arrays.copyOf(objects, newSize);
+    }
+
+    /**
+     * Brings the backing array into its dense form before it is read directly.
+     * A plain List is always dense; subclasses that leave gaps override this.
+     */
+    void pack() {
+    }
+
+    /**
+     * Makes sure the list can hold the specified number of objects without growing again.
+     * @param minCapacity The number of objects the list must be able to hold.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > objects.length) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the backing array to the current number of objects.
+     */
+    public void trimToSize() {
+        if (objects.length > Math.max(size, INITIAL_SIZE)) {
+            objects = Arrays.copyOf(objects, Math.max(size, INITIAL_SIZE));
         }
-        objects = newObjects;
     }
 
     /**
@@ -67,9 +123,59 @@ public class List<E> implements Iterable<E> {
      */
     public void add(E e) {
         if (size == objects.length) {
-            grow();
+            grow(size + 1);
         }
         objects[size++] = e;
+        modCount++;
+    }
+
+    /**
+     * Adds all objects of the specified list to the end of this list, keeping their order.
+     * The backing array grows at most once.
+     * @param other The list whose objects are added.
+     */
+    public void addAll(List<? extends E> other) {
+        other.pack();
+        int count = other.size;
+        if (count == 0) {
+            return;
+        }
+        ensureCapacity(size + count);
+        System.arraycopy(other.objects, 0, objects, size, count);
+        size += count;
+        modCount++;
+    }
+
+    /**
+     * Removes every object that satisfies the specified condition.
+     * The remaining objects keep their order and are compacted in a single pass.
+     * @param filter The condition that selects the objects to remove.
+     * @return true if any object was removed, false otherwise.
+     */
+    public boolean removeIf(Predicate<? super E> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            E e = objects[i];
+            if (!filter.test(e)) {
+                objects[kept++] = e;
+            }
+        }
+        if (kept == size) {
+            return false;
+        }
+        Arrays.fill(objects, kept, size, null); // Avoid memory leak
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes all objects from the list. The capacity is kept for reuse.
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, size, null); // Avoid memory leak
+        size = 0;
+        modCount++;
     }
 
     /**
@@ -80,10 +186,9 @@ public class List<E> implements Iterable<E> {
     public boolean remove(E e) {
         int index = find(e);
         if (index != NOT_FOUND) {
-            for (int i = index; i < size - 1; i++) {
-                objects[i] = objects[i + 1];
-            }
+            System.arraycopy(objects, index + 1, objects, index, size - index - 1);
             objects[--size] = null; // Avoid memory leak
+            modCount++;
             return true;
         }
         return false;
@@ -128,6 +233,18 @@ public class List<E> implements Iterable<E> {
         }
     }
 
+    /**
+     * Sets the objects at several indexes at once, as when objects are reordered among the indexes they occupy.
+     * @param indexes The indexes to set.
+     * @param elements Gives the object to set at the i-th of the indexes.
+     * @param count The number of indexes to set.
+     */
+    public void setAll(int[] indexes, IntFunction<? extends E> elements, int count) {
+        for (int i = 0; i < count; i++) {
+            set(indexes[i], elements.apply(i));
+        }
+    }
+
     /**
      * Returns the index of the specified object.
      * @param e The object to find.
@@ -137,6 +254,18 @@ public class List<E> implements Iterable<E> {
         return find(e);
     }
 
+    /**
+     * Sorts the list in place with the specified comparator.
+     * The sort is a stable TimSort over the backing array: O(n log n), and objects
+     * that compare equal keep their current order.
+     * @param c The comparator that defines the order.
+     */
+    public void sort(Comparator<? super E> c) {
+        pack();
+        Arrays.sort(objects, 0, size, c);
+        modCount++;
+    }
+
     /**
      * Returns an iterator over the elements in the list.
      * @return An iterator for the list.
@@ -146,11 +275,38 @@ public class List<E> implements Iterable<E> {
         return new ListIterator();
     }
 
+    /**
+     * Returns a spliterator over the elements in the list.
+     * The spliterator splits the backing array in halves, so parallel streams divide the work evenly.
+     * @return A SIZED, SUBSIZED and ORDERED spliterator for the list.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new ListSpliterator(0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential stream over the elements in the list.
+     * @return A sequential stream for the list.
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream over the elements in the list, run on the common fork/join pool.
+     * @return A parallel stream for the list.
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     /**
      * Internal class to implement the iterator for List.
      */
     private class ListIterator implements Iterator<E> {
         private int currentIndex = 0;
+        private final int expectedModCount = modCount;
 
         /**
          * Checks if there is a next object in the list.
@@ -164,13 +320,123 @@ public class List<E> implements Iterable<E> {
         /**
          * Returns the next object in the list.
          * @return The next object in the list.
+         * @throws NoSuchElementException if there are no more objects.
+         * @throws ConcurrentModificationException if the list was modified since the iterator was created.
          */
         @Override
         public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
             if (!hasNext()) {
-                return null;
+                throw new NoSuchElementException();
             }
             return objects[currentIndex++];
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Internal class to implement the spliterator for List.
+     * The range is bound to the list's size on first use, so a spliterator created
+     * before the list is filled still sees every object.
+     */
+    private class ListSpliterator implements Spliterator<E> {
+        private int index;
+        private int fence; // -1 until first use
+        private int expectedModCount;
+
+        /**
+         * Constructs a spliterator over the range [origin, fence).
+         * @param origin The first index covered.
+         * @param fence One past the last index covered, or -1 to bind to the list's size on first use.
+         * @param expectedModCount The modification count the range was bound at.
+         */
+        ListSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        /**
+         * Returns the end of the range, binding it on first use.
+         * @return One past the last index covered.
+         */
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        /**
+         * Splits off the lower half of the remaining range.
+         * @return A spliterator over the lower half, or null if the range is too small to split.
+         */
+        @Override
+        public Spliterator<E> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return new ListSpliterator(lo, mid, expectedModCount);
+        }
+
+        /**
+         * Performs the action on the next object, if any.
+         * @param action The action to perform.
+         * @return true if an object was processed, false if the range is exhausted.
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            int hi = getFence();
+            if (index >= hi) {
+                return false;
+            }
+            E e = objects[index++];
+            action.accept(e);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        /**
+         * Performs the action on every remaining object.
+         * @param action The action to perform.
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            int hi = getFence();
+            E[] a = objects;
+            for (int i = index; i < hi; i++) {
+                action.accept(a[i]);
+            }
+            index = hi;
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        /**
+         * Returns the number of objects left in the range.
+         * @return The exact number of remaining objects.
+         */
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        /**
+         * Returns the characteristics of the spliterator.
+         * @return SIZED, SUBSIZED and ORDERED.
+         */
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+}
@@ -2,13 +2,14 @@ package model.project1;
 import model.util.Person;
 
 /**
- * The Patient class extends the Person class and manages a list of visits.
- * It includes methods to add visits, compute charges, and manage patient information.
+ * The Patient class extends the Person class and exposes the patient's visit history.
+ * It includes methods to read visits and manage patient information.
  *
  * @author Stephen Kwok and Jeongtae Kim
  */
 public class Patient extends Person{
-    private Visit visit; //a linked list of visits (completed appt.)
+    private VisitHistory history; // Store of the patient's completed appt., set when a visit of this object is archived
+    private VisitHistory.Visits visits; // View of the patient's visits, created on first use
 
     /**
      * Constructor for the Patient class.
@@ -17,7 +18,38 @@ public class Patient extends Person{
      */
     public Patient(Profile profile) {
         super(profile);  // Call the superclass constructor
-        this.visit = null;  // Initialize visits as null (no visits initially)
+        this.history = null;  // No visits initially
+        this.visits = null;
+    }
+
+    /**
+     * Gets the patient's visit history.
+     * The view is created on first use and reads the history store directly,
+     * so it reflects visits archived later.
+     *
+     * @return the patient's visits in date order, empty if the patient has no visits
+     */
+    public VisitHistory.Visits getVisits() {
+        if (visits == null) {
+            if (history == null) {
+                return VisitHistory.NO_VISITS;
+            }
+            visits = history.visitsOf(profile);
+        }
+        return visits;
+    }
+
+    /**
+     * Sets the store that holds the patient's visits.
+     * The view of the visits is kept if the store is the same.
+     *
+     * @param history the visit history store
+     */
+    void setVisitHistory(VisitHistory history) {
+        if (this.history != history) {
+            this.history = history;
+            this.visits = null;
+        }
     }
 
     /**
@@ -48,6 +80,16 @@ public class Patient extends Person{
         return this.profile.equals(that.profile);
     }
 
+    /**
+     * Returns a hash code for the patient, consistent with equals.
+     *
+     * @return the hash code of the patient's profile
+     */
+    @Override
+    public int hashCode() {
+        return profile.hashCode();
+    }
+
     /**
      * Compares this patient to another patient.
      * Patients are compared by their profiles.
@@ -69,6 +69,17 @@ public class Profile implements Comparable<Profile> {
                 dob.equals(profile.dob);
     }
 
+    /**
+     * Returns a hash code for the profile, consistent with equals.
+     * @return The hash code of the profile.
+     */
+    @Override
+    public int hashCode() {
+        int result = fname.hashCode();
+        result = 31 * result + lname.hashCode();
+        return 31 * result + dob.hashCode();
+    }
+
     /**
      * Compares this profile with another profile for order.
      * @param other The other profile to compare to.
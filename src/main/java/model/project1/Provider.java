@@ -8,8 +8,13 @@ import model.util.Person;
  * @author Stephen Kwok and Jeongtae Kim
  */
 public abstract class Provider extends Person {
-    private Location location;  // Provider's practice location
+    /**
+     * Id of a provider that has not been registered.
+     */
+    public static final int NO_ID = -1;
 
+    private Location location;  // Provider's practice location
+    private int id = NO_ID;  // Dense index among the loaded providers
 
 
     /**
@@ -40,6 +45,24 @@ public abstract class Provider extends Person {
         return location;
     }
 
+    /**
+     * Gets the provider's dense id, assigned when the provider list is loaded.
+     *
+     * @return The id, from 0 to the number of providers - 1, or NO_ID if not registered.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the provider's dense id.
+     *
+     * @param id The id, from 0 to the number of providers - 1.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Returns the specialty billing amount for the provider.
      * Must be implemented by subclasses.
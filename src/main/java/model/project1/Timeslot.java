@@ -1,15 +1,21 @@
 package model.project1;
 
+import java.util.HashMap;
+
 /**
  * Represents a timeslot with a specific hour and minute.
  * Provides methods to get the hour and minute of each timeslot,
  * check if the timeslot is in the morning, and compare timeslots.
+ * There are exactly twelve timeslots, kept in a fixed table; every Timeslot is one of
+ * those shared instances, so timeslots compare by identity or by ordinal.
  *
  * @author Stephen Kwok and Jeongtae Kim
  */
 public class Timeslot implements Comparable<Timeslot> {
-    private int hour;
-    private int minute;
+    private final int hour;
+    private final int minute;
+    private final byte ordinal; // Zero-based slot number, usable as an array or bitmask index
+    private final String label;
 
     public static final int BASE_HOUR_MORNING = 9;  // 9:00 AM
     public static final int BASE_HOUR_AFTERNOON = 14;  // 2:00 PM
@@ -23,15 +29,83 @@ public class Timeslot implements Comparable<Timeslot> {
     public static final int MAX_SLOT_INDEX = 12;
     public static final int ZERO_INDEX = 0;
 
+    private static final Timeslot[] SLOTS = new Timeslot[MAX_SLOT_INDEX];
+    private static final HashMap<String, Timeslot> SLOTS_BY_LABEL = new HashMap<>();
+
+    static {
+        for (int slotIndex = MIN_SLOT_INDEX; slotIndex <= MAX_SLOT_INDEX; slotIndex++) {
+            Timeslot slot = new Timeslot(slotIndex);
+            SLOTS[slot.ordinal] = slot;
+            SLOTS_BY_LABEL.put(slot.label, slot);
+        }
+    }
+
+    /**
+     * Constructs the timeslot with the specified slot index.
+     * Slot 1 is 9:00 AM, slot 6 is 11:30 AM, slot 7 is 2:00 PM and slot 12 is 4:30 PM.
+     *
+     * @param slotIndex the slot index, from 1 to 12
+     */
+    private Timeslot(int slotIndex) {
+        int baseHour;
+        int totalMinutes;
+        if (slotIndex <= MORNING_SLOTS_COUNT) {
+            baseHour = BASE_HOUR_MORNING;
+            totalMinutes = (slotIndex - MIN_SLOT_INDEX) * SLOT_DURATION_MINUTES;
+        } else {
+            baseHour = BASE_HOUR_AFTERNOON;
+            totalMinutes = (slotIndex - AFTERNOON_SLOT_START_INDEX) * SLOT_DURATION_MINUTES;
+        }
+        this.hour = baseHour + totalMinutes / MINUTES_PER_HOUR;
+        this.minute = totalMinutes % MINUTES_PER_HOUR;
+        this.ordinal = (byte) (slotIndex - MIN_SLOT_INDEX);
+
+        int displayHour = hour % TWELVE_HOUR_CLOCK;
+        if (displayHour == ZERO_INDEX) {
+            displayHour = TWELVE_HOUR_CLOCK;
+        }
+        String amPm = isMorning() ? "AM" : "PM";
+        this.label = String.format("%d:%02d %s", displayHour, minute, amPm);
+    }
+
     /**
-     * Constructs a Timeslot with the specified hour and minute.
+     * Gets the timeslot with the specified slot index.
      *
-     * @param hour the hour of the timeslot
-     * @param minute the minute of the timeslot
+     * @param slotIndex the slot index, from 1 to 12
+     * @return the shared timeslot instance
+     * @throws IllegalArgumentException if the index is out of range
      */
-    public Timeslot(int hour, int minute) {
-        this.hour = hour;
-        this.minute = minute;
+    public static Timeslot of(int slotIndex) {
+        if (slotIndex < MIN_SLOT_INDEX || slotIndex > MAX_SLOT_INDEX) {
+            throw new IllegalArgumentException("Invalid timeslot: " + slotIndex);
+        }
+        return SLOTS[slotIndex - MIN_SLOT_INDEX];
+    }
+
+    /**
+     * Gets the timeslot with the specified zero-based ordinal.
+     *
+     * @param ordinal the ordinal, from 0 to 11
+     * @return the shared timeslot instance
+     * @throws IllegalArgumentException if the ordinal is out of range
+     */
+    public static Timeslot ofOrdinal(int ordinal) {
+        return of(ordinal + MIN_SLOT_INDEX);
+    }
+
+    /**
+     * Gets the timeslot displayed with the specified label, such as "9:30 AM".
+     *
+     * @param label the display label of the timeslot
+     * @return the shared timeslot instance
+     * @throws IllegalArgumentException if no timeslot has the label
+     */
+    public static Timeslot fromLabel(String label) {
+        Timeslot slot = SLOTS_BY_LABEL.get(label);
+        if (slot == null) {
+            throw new IllegalArgumentException("Invalid timeslot: " + label);
+        }
+        return slot;
     }
 
     /**
@@ -40,14 +114,16 @@ public class Timeslot implements Comparable<Timeslot> {
      * @return the slot index corresponding to the current timeslot
      */
     public int getSlotIndex() {
-        if (hour >= BASE_HOUR_MORNING && hour < MORNING_END_HOUR) {
-            int totalMinutes = (hour - BASE_HOUR_MORNING) * MINUTES_PER_HOUR + minute;
-            return totalMinutes / SLOT_DURATION_MINUTES + MIN_SLOT_INDEX;
-        } else if (hour >= BASE_HOUR_AFTERNOON) {
-            int totalMinutes = (hour - BASE_HOUR_AFTERNOON) * MINUTES_PER_HOUR + minute;
-            return totalMinutes / SLOT_DURATION_MINUTES + AFTERNOON_SLOT_START_INDEX;
-        }
-        throw new IllegalArgumentException("Invalid time: " + this.toString());
+        return ordinal + MIN_SLOT_INDEX;
+    }
+
+    /**
+     * Gets the zero-based position of this timeslot in the day.
+     *
+     * @return the ordinal, from 0 to 11
+     */
+    public byte getOrdinal() {
+        return ordinal;
     }
 
     /**
@@ -56,38 +132,20 @@ public class Timeslot implements Comparable<Timeslot> {
      * @return true if the timeslot is in the morning, false otherwise
      */
     public boolean isMorning() {
-        return hour < 12;
+        return hour < MORNING_END_HOUR;
     }
 
     /**
      * Converts a string to a timeslot.
      * The string should correspond to a slot from "1" to "12",
-     * where "1" represents 9:00 AM and "12" represents 5:00 PM.
+     * where "1" represents 9:00 AM and "12" represents 4:30 PM.
      *
      * @param slotStr the string representation of the timeslot
      * @return the corresponding timeslot
      * @throws IllegalArgumentException if the string does not match any timeslot
      */
     public static Timeslot fromString(String slotStr) {
-        int slotIndex = Integer.parseInt(slotStr);
-
-        if (slotIndex < MIN_SLOT_INDEX || slotIndex > MAX_SLOT_INDEX) {
-            throw new IllegalArgumentException("Invalid timeslot: " + slotStr);
-        }
-
-        if (slotIndex <= MORNING_SLOTS_COUNT) {
-            int baseHour = BASE_HOUR_MORNING;
-            int totalMinutes = (slotIndex - MIN_SLOT_INDEX) * SLOT_DURATION_MINUTES;
-            int hour = baseHour + totalMinutes / MINUTES_PER_HOUR;
-            int minute = totalMinutes % MINUTES_PER_HOUR;
-            return new Timeslot(hour, minute);
-        } else {
-            int baseHour = BASE_HOUR_AFTERNOON;
-            int totalMinutes = (slotIndex - AFTERNOON_SLOT_START_INDEX) * SLOT_DURATION_MINUTES;
-            int hour = baseHour + totalMinutes / MINUTES_PER_HOUR;
-            int minute = totalMinutes % MINUTES_PER_HOUR;
-            return new Timeslot(hour, minute);
-        }
+        return of(Integer.parseInt(slotStr));
     }
 
     /**
@@ -99,28 +157,29 @@ public class Timeslot implements Comparable<Timeslot> {
      */
     @Override
     public int compareTo(Timeslot other) {
-        if (this.hour != other.hour) {
-            return Integer.compare(this.hour, other.hour);
-        }
-        return Integer.compare(this.minute, other.minute);
+        return Integer.compare(this.ordinal, other.ordinal);
     }
 
     /**
-     * Checks if two timeslots are equal based on their hour and minute.
+     * Checks if two timeslots are equal.
+     * Every timeslot is a shared instance, so equal timeslots are the same object.
      *
      * @param obj the object to compare with
      * @return true if the timeslots are equal, false otherwise
      */
     @Override
     public boolean equals(Object obj) {
-        if (this == obj) {
-            return true;
-        }
-        if (obj == null || getClass() != obj.getClass()) {
-            return false;
-        }
-        Timeslot timeslot = (Timeslot) obj;
-        return hour == timeslot.hour && minute == timeslot.minute;
+        return this == obj;
+    }
+
+    /**
+     * Returns a hash code for the timeslot, consistent with equals.
+     *
+     * @return the ordinal of the timeslot
+     */
+    @Override
+    public int hashCode() {
+        return ordinal;
     }
 
     /**
@@ -130,11 +189,6 @@ public class Timeslot implements Comparable<Timeslot> {
      */
     @Override
     public String toString() {
-        int displayHour = hour % TWELVE_HOUR_CLOCK;
-        if (displayHour == ZERO_INDEX) {
-            displayHour = TWELVE_HOUR_CLOCK;
-        }
-        String amPm = isMorning() ? "AM" : "PM";
-        return String.format("%d:%02d %s", displayHour, minute, amPm);
+        return label;
     }
 }
\ No newline at end of file
@@ -0,0 +1,347 @@
+package model.project1;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Stores the completed appointments of every patient.
+ * Appointments are appended to fixed-size chunks of one shared array store, so archiving
+ * never copies earlier visits and costs no object per visit. Each patient has an index of
+ * positions into the store, kept in date order, with a running billed total; a patient's
+ * visits, the visits in a date range and the lifetime billed amount are read without
+ * scanning other patients' visits.
+ * Visits are never changed once archived, so a view of the visits archived so far can be
+ * read by another thread, such as a snapshot writer, while more are archived.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public class VisitHistory {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS; // Visits per chunk
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_CHUNKS = 4;
+    private static final int INITIAL_VISITS = 4; // Per patient
+
+    /**
+     * The visits of a patient without archived visits.
+     */
+    static final Visits NO_VISITS = new Visits(null, null);
+
+    private Appointment[][] chunks;
+    private long[][] chargeChunks; // Amount billed for each visit, in cents, parallel to chunks
+    private int size;
+    private final HashMap<Profile, PatientIndex> patients;
+
+    /**
+     * The index of one patient's visits.
+     */
+    private static final class PatientIndex {
+        private final Patient patient;
+        private int[] positions = new int[INITIAL_VISITS]; // Store positions, in date order
+        private int[] days = new int[INITIAL_VISITS]; // Epoch day of each position
+        private int count;
+        private long billedCents;
+
+        /**
+         * Constructs an empty index for the patient.
+         * @param patient The patient record.
+         */
+        private PatientIndex(Patient patient) {
+            this.patient = patient;
+        }
+
+        /**
+         * Inserts a visit in date order, after any visits on the same day.
+         * Visits mostly arrive in date order, so this is usually an append.
+         * @param position The visit's position in the store.
+         * @param day The visit's epoch day.
+         */
+        private void insert(int position, int day) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+                days = Arrays.copyOf(days, count * 2);
+            }
+            int i = count;
+            while (i > 0 && days[i - 1] > day) {
+                i--;
+            }
+            System.arraycopy(positions, i, positions, i + 1, count - i);
+            System.arraycopy(days, i, days, i + 1, count - i);
+            positions[i] = position;
+            days[i] = day;
+            count++;
+        }
+
+        /**
+         * Finds the first visit on or after the specified day.
+         * @param day The epoch day.
+         * @return The index of the first such visit, or count if there is none.
+         */
+        private int lowerBound(int day) {
+            int lo = 0;
+            int hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (days[mid] < day) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Constructs an empty visit history.
+     */
+    public VisitHistory() {
+        chunks = new Appointment[INITIAL_CHUNKS][];
+        chargeChunks = new long[INITIAL_CHUNKS][];
+        size = 0;
+        patients = new HashMap<>();
+    }
+
+    /**
+     * Archives a completed appointment into its patient's history.
+     * The first archived appointment of a profile makes its patient the profile's record,
+     * and every patient object archived for the profile reads the profile's visits.
+     * @param appointment The completed appointment.
+     * @param chargeCents The amount billed for the appointment, in cents.
+     * @return The patient record the visit was archived under.
+     */
+    public Patient archive(Appointment appointment, long chargeCents) {
+        int chunk = size >>> CHUNK_BITS;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk * 2); // Copies chunk references only
+            chargeChunks = Arrays.copyOf(chargeChunks, chunk * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new Appointment[CHUNK_SIZE];
+            chargeChunks[chunk] = new long[CHUNK_SIZE];
+        }
+        chunks[chunk][size & CHUNK_MASK] = appointment;
+        chargeChunks[chunk][size & CHUNK_MASK] = chargeCents;
+
+        Profile profile = appointment.getPatient().getProfile();
+        PatientIndex index = patients.get(profile);
+        Patient patient = (Patient) appointment.getPatient();
+        if (index == null) {
+            index = new PatientIndex(patient);
+            patients.put(profile, index);
+        }
+        patient.setVisitHistory(this);
+        index.insert(size, appointment.getDate().getEpochDay());
+        index.billedCents += chargeCents;
+        size++;
+        return index.patient;
+    }
+
+    /**
+     * Returns the number of archived visits.
+     * @return The number of visits of every patient.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of patients with archived visits.
+     * @return The number of patient records.
+     */
+    public int patientCount() {
+        return patients.size();
+    }
+
+    /**
+     * Returns the patient record of a profile.
+     * @param profile The patient's profile.
+     * @return The patient record, or null if the profile has no archived visits.
+     */
+    public Patient getPatient(Profile profile) {
+        PatientIndex index = patients.get(profile);
+        return index == null ? null : index.patient;
+    }
+
+    /**
+     * Returns the patient to book under a profile: the profile's record if it has archived visits,
+     * so the booking reads the patient's history, or a new patient otherwise.
+     * @param profile The patient's profile.
+     * @return The patient record, or a new patient.
+     */
+    public Patient patientOf(Profile profile) {
+        Patient patient = getPatient(profile);
+        return patient == null ? new Patient(profile) : patient;
+    }
+
+    /**
+     * Returns the visits of a profile.
+     * @param profile The patient's profile.
+     * @return A view of the patient's visits, empty if the profile has no archived visits.
+     */
+    public Visits visitsOf(Profile profile) {
+        return new Visits(this, patients.get(profile));
+    }
+
+    /**
+     * Returns a view of the visits archived so far, in archive order.
+     * The view does not change as more visits are archived.
+     * @return The archived visits.
+     */
+    public Archived archived() {
+        return new Archived(chunks, chargeChunks, size);
+    }
+
+    /**
+     * Returns the archived appointment at the specified store position.
+     * @param position The position in the store.
+     * @return The appointment.
+     */
+    private Appointment at(int position) {
+        return chunks[position >>> CHUNK_BITS][position & CHUNK_MASK];
+    }
+
+    /**
+     * A read-only view of the visits archived up to a point, in archive order.
+     */
+    public static final class Archived {
+        private final Appointment[][] chunks;
+        private final long[][] chargeChunks;
+        private final int size;
+
+        /**
+         * Constructs a view of the first visits of the store.
+         * @param chunks The store's chunks when the view was taken.
+         * @param chargeChunks The store's charge chunks when the view was taken.
+         * @param size The number of visits in the view.
+         */
+        private Archived(Appointment[][] chunks, long[][] chargeChunks, int size) {
+            this.chunks = chunks;
+            this.chargeChunks = chargeChunks;
+            this.size = size;
+        }
+
+        /**
+         * Returns the number of visits in the view.
+         * @return The number of visits.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns a visit.
+         * @param i The visit's position in archive order, from 0 to size - 1.
+         * @return The archived appointment.
+         */
+        public Appointment get(int i) {
+            return chunks[i >>> CHUNK_BITS][i & CHUNK_MASK];
+        }
+
+        /**
+         * Returns the amount billed for a visit.
+         * @param i The visit's position in archive order, from 0 to size - 1.
+         * @return The amount, in cents.
+         */
+        public long chargeCents(int i) {
+            return chargeChunks[i >>> CHUNK_BITS][i & CHUNK_MASK];
+        }
+    }
+
+    /**
+     * A read-only view of one patient's visits, in date order.
+     */
+    public static final class Visits implements Iterable<Appointment> {
+        private final VisitHistory store;
+        private final PatientIndex index;
+
+        /**
+         * Constructs a view over a patient's index.
+         * @param store The visit store.
+         * @param index The patient's index, or null for a patient without visits.
+         */
+        private Visits(VisitHistory store, PatientIndex index) {
+            this.store = store;
+            this.index = index;
+        }
+
+        /**
+         * Returns the number of visits.
+         * @return The number of visits.
+         */
+        public int size() {
+            return index == null ? 0 : index.count;
+        }
+
+        /**
+         * Checks if the patient has no visits.
+         * @return true if there are no visits, false otherwise.
+         */
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        /**
+         * Returns the visit at the specified index, in date order.
+         * @param i The index of the visit.
+         * @return The visit's appointment, or null if out of bounds.
+         */
+        public Appointment get(int i) {
+            if (i < 0 || i >= size()) {
+                return null;
+            }
+            return store.at(index.positions[i]);
+        }
+
+        /**
+         * Returns the amount billed for every visit.
+         * @return The lifetime billed amount, in cents.
+         */
+        public long billedCents() {
+            return index == null ? 0 : index.billedCents;
+        }
+
+        /**
+         * Returns the visits from one date to another, inclusive, in O(log k + m) for k visits and m matches.
+         * @param from The first date.
+         * @param to The last date.
+         * @return The visits in the range, in date order.
+         */
+        public List<Appointment> between(Date from, Date to) {
+            List<Appointment> visits = new List<>();
+            if (index == null) {
+                return visits;
+            }
+            int last = to.getEpochDay();
+            for (int i = index.lowerBound(from.getEpochDay()); i < index.count && index.days[i] <= last; i++) {
+                visits.add(store.at(index.positions[i]));
+            }
+            return visits;
+        }
+
+        /**
+         * Returns an iterator over the visits, in date order.
+         * @return An iterator for the visits.
+         */
+        @Override
+        public Iterator<Appointment> iterator() {
+            return new Iterator<>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size();
+                }
+
+                @Override
+                public Appointment next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(next++);
+                }
+            };
+        }
+    }
+}
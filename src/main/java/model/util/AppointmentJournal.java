@@ -0,0 +1,1027 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.Date;
+import model.project1.List;
+import model.project1.Patient;
+import model.project1.Profile;
+import model.project1.Provider;
+import model.project1.Timeslot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The AppointmentJournal class is an append-only log of every change to the appointment book.
+ * Each booking, cancellation, reschedule and billing-cycle close is appended as a 16-byte record
+ * holding the epoch day, the timeslot ordinal, a patient key, a provider key and the room.
+ * The first record that uses a patient or provider is preceded by a record defining its key
+ * from its profile, so the journal does not depend on the provider ids of one roster.
+ * <p>
+ * Records are encoded into an in-memory buffer by the caller and written by a writer thread,
+ * which swaps the buffer out, writes it and forces it to disk once for everything appended
+ * while the previous force was running. Appending never waits for the disk; it returns the
+ * journal position just past the record, and a change is durable once the future whenDurable
+ * returns for that position completes. The writer completes the futures of every position a
+ * force covers, so this is group commit, and a thread that must not block, such as the UI
+ * thread, can go on appending while its earlier changes are forced. A change whose future has
+ * not completed can be lost in a crash.
+ * <p>
+ * On open, the journal is read into memory through the channel and replayed. A record cut short
+ * by a crash ends the replay and is truncated, so new records follow the last complete one.
+ * The file is never memory-mapped, since a mapped file cannot be truncated or replaced on
+ * Windows until the mapping is garbage collected.
+ * <p>
+ * The journal can be cut where a snapshot of the appointment book is taken. A cut appends a
+ * record that resets the keys, so the records after it stand on their own, and once the
+ * snapshot is on disk the journal is compacted: the writer thread copies the records after the
+ * cut into a new file of the next generation and renames it over the journal, between two
+ * batches. A journal is then replayed after the snapshot from the cut if it is still of the
+ * snapshot's generation, or from its header if it has already been compacted. A compacted journal
+ * is never opened without its snapshot, since its records alone are not the whole history.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class AppointmentJournal implements AutoCloseable {
+    private static final int MAGIC = 0x434D4A31; // "CMJ1"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16; // Magic, version, generation
+
+    private static final byte PATIENT = 1;
+    private static final byte PROVIDER = 2;
+    private static final byte BOOK = 3;
+    private static final byte CANCEL = 4;
+    private static final byte MOVE = 5;
+    private static final byte CLOSE_CYCLE = 6;
+    private static final byte RESET = 7;
+
+    private static final int APPOINTMENT_BYTES = 16;
+    private static final byte NO_ROOM = -1;
+    private static final byte NO_SLOT = -1;
+    private static final byte DOCTOR = 0;
+    private static final byte TECHNICIAN = 1;
+    private static final int INITIAL_BUFFER_BYTES = 1 << 16;
+    private static final Radiology[] ROOMS = Radiology.values();
+
+    /**
+     * Applies the journalled changes to the appointment book while it is replayed.
+     * Each method returns false if the change no longer applies, which is counted as skipped.
+     */
+    public interface Replay {
+        /**
+         * Books an appointment.
+         *
+         * @param appointment the appointment, with its patient and provider resolved
+         * @return true if the appointment was booked
+         */
+        boolean book(Appointment appointment);
+
+        /**
+         * Cancels the patient's appointment at a date and timeslot.
+         *
+         * @param date     the date
+         * @param timeslot the timeslot
+         * @param patient  the patient's profile
+         * @return true if the appointment was cancelled
+         */
+        boolean cancel(Date date, Timeslot timeslot, Profile patient);
+
+        /**
+         * Moves the patient's appointment at a date and timeslot to another timeslot.
+         *
+         * @param date     the date
+         * @param timeslot the current timeslot
+         * @param patient  the patient's profile
+         * @param newSlot  the new timeslot
+         * @return true if the appointment was moved
+         */
+        boolean move(Date date, Timeslot timeslot, Profile patient, Timeslot newSlot);
+
+        /**
+         * Closes the billing cycle.
+         *
+         * @return true if the cycle was closed
+         */
+        boolean closeCycle();
+
+        /**
+         * Gets the patient to book under a profile read back from the journal.
+         *
+         * @param profile the patient's profile
+         * @return the patient
+         */
+        default Patient patient(Profile profile) {
+            return new Patient(profile);
+        }
+    }
+
+    /**
+     * A point in the journal where a snapshot was taken.
+     *
+     * @param generation the generation of the journal when it was cut
+     * @param offset     the offset of the cut in that generation's file
+     */
+    public record Cut(long generation, long offset) {
+    }
+
+    /**
+     * What a replay did.
+     *
+     * @param records the number of change records replayed
+     * @param skipped the number of records that no longer applied
+     * @param bytes   the length of the journal
+     * @param nanos   the time taken by the replay
+     */
+    public record Stats(int records, int skipped, long bytes, long nanos) {
+        /**
+         * Returns a one-line summary of the replay with its time and record throughput.
+         *
+         * @return the summary text
+         */
+        @Override
+        public String toString() {
+            double seconds = nanos / 1e9;
+            return String.format("Replayed %d journal record(s) in %.1f ms (%,.0f records/s), %d skipped.",
+                    records, nanos / 1e6, seconds > 0 ? records / seconds : 0.0, skipped);
+        }
+    }
+
+    private final Path path;
+    private FileChannel channel; // Replaced by the writer thread when it compacts the journal
+    private final Stats replayed;
+    private final HashMap<Profile, Integer> patientKeys;
+    private final HashMap<Profile, Integer> doctorKeys;
+    private final HashMap<Profile, Integer> technicianKeys;
+    private final Object lock = new Object();
+    private final Thread writer;
+    private ByteBuffer pending; // Appended but not yet written, guarded by lock
+    private ByteBuffer writing; // Being written, owned by the writer thread
+    private long appended; // Bytes appended since open, guarded by lock
+    private long durable; // Bytes forced to disk since open, guarded by lock
+    private long generation; // Guarded by lock
+    private long base; // File offset of the first byte appended since open, guarded by lock
+    private long tail; // File offset of the last cut, or of the first record, guarded by lock
+    private Cut compaction; // Requested compaction, guarded by lock
+    private IOException compactionFailure; // Guarded by lock
+    private boolean closed; // Guarded by lock
+    private IOException failure; // Guarded by lock
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+            Comparator.comparingLong(Waiter::position).thenComparingLong(Waiter::sequence)); // Guarded by lock
+    private long waited; // Number of waiters ever added, guarded by lock
+
+    /**
+     * Constructs a journal positioned after its last complete record.
+     *
+     * @param path           the journal file
+     * @param channel        the journal file, open for reading and writing
+     * @param generation     the generation of the journal file
+     * @param start          the offset the replay started from
+     * @param replayed       what the replay did
+     * @param patientKeys    the patient keys defined in the journal
+     * @param doctorKeys     the doctor keys defined in the journal
+     * @param technicianKeys the technician keys defined in the journal
+     */
+    private AppointmentJournal(Path path, FileChannel channel, long generation, long start, Stats replayed,
+                               HashMap<Profile, Integer> patientKeys, HashMap<Profile, Integer> doctorKeys,
+                               HashMap<Profile, Integer> technicianKeys) {
+        this.path = path;
+        this.channel = channel;
+        this.generation = generation;
+        this.base = replayed.bytes();
+        this.tail = start;
+        this.replayed = replayed;
+        this.patientKeys = patientKeys;
+        this.doctorKeys = doctorKeys;
+        this.technicianKeys = technicianKeys;
+        this.pending = ByteBuffer.allocateDirect(INITIAL_BUFFER_BYTES);
+        this.writing = ByteBuffer.allocateDirect(INITIAL_BUFFER_BYTES);
+        this.writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens the journal, creating it if it does not exist, and replays all of it.
+     *
+     * @param path     the journal file
+     * @param registry the providers the journalled appointments are resolved against
+     * @param replay   where the journalled changes are applied
+     * @return the journal, ready for appending
+     * @throws IOException if the file cannot be read or written, is not a journal, or has been compacted
+     */
+    public static AppointmentJournal open(Path path, ProviderRegistry registry, Replay replay) throws IOException {
+        return open(path, registry, replay, null);
+    }
+
+    /**
+     * Opens the journal, creating it if it does not exist, and replays the records after a snapshot.
+     *
+     * @param path     the journal file
+     * @param registry the providers the journalled appointments are resolved against
+     * @param replay   where the journalled changes are applied
+     * @param after    the cut the snapshot was taken at, or null to replay the whole journal
+     * @return the journal, ready for appending
+     * @throws IOException if the file cannot be read or written, is not a journal, or does not
+     *                     continue from the cut; with no cut, if the journal has been compacted
+     */
+    public static AppointmentJournal open(Path path, ProviderRegistry registry, Replay replay, Cut after)
+            throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long started = System.nanoTime();
+            HashMap<Profile, Integer> patientKeys = new HashMap<>();
+            HashMap<Profile, Integer> doctorKeys = new HashMap<>();
+            HashMap<Profile, Integer> technicianKeys = new HashMap<>();
+            long size = channel.size();
+            int[] counts = new int[2];
+            long generation;
+            long start = HEADER_BYTES;
+            long end;
+            if (size < HEADER_BYTES) {
+                generation = after == null ? 0 : after.generation() + 1;
+                channel.truncate(0);
+                channel.write(header(generation), 0);
+                channel.force(true);
+                end = HEADER_BYTES;
+            } else {
+                ByteBuffer buffer = read(channel, path, size);
+                if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                    throw new IOException("Not an appointment journal: " + path);
+                }
+                generation = buffer.getLong();
+                start = replayStart(generation, size, after);
+                if (start < 0 && after == null) {
+                    throw new IOException("Journal " + path + " of generation " + generation
+                            + " has been compacted and cannot be replayed without its snapshot");
+                } else if (start < 0) {
+                    throw new IOException("Journal " + path + " of generation " + generation
+                            + " does not continue from the snapshot's cut at generation " + after.generation()
+                            + ", offset " + after.offset());
+                }
+                buffer.position((int) start);
+                end = replay(buffer, registry, replay, patientKeys, doctorKeys, technicianKeys, counts);
+                if (end < size) {
+                    channel.truncate(end);
+                }
+            }
+            channel.position(end);
+            Stats stats = new Stats(counts[0], counts[1], end, System.nanoTime() - started);
+            return new AppointmentJournal(path, channel, generation, start, stats,
+                    patientKeys, doctorKeys, technicianKeys);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks, without opening it, whether a journal can be replayed after a snapshot taken at a cut.
+     * A journal that does not exist yet, or has no header, can follow any snapshot.
+     *
+     * @param path the journal file
+     * @param cut  the cut the snapshot was taken at
+     * @return true if open would replay the journal after the snapshot, false if it would refuse
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    public static boolean follows(Path path, Cut cut) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return true;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // Read the whole header
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not an appointment journal: " + path);
+            }
+            return replayStart(header.getLong(), size, cut) >= 0;
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Finds where the replay of a journal starts. With a snapshot, a journal of the snapshot's
+     * generation is replayed from the cut and one compacted at the cut from its header; without
+     * one, only a journal that was never compacted holds the whole history.
+     *
+     * @param generation the generation of the journal
+     * @param size       the length of the journal
+     * @param after      the cut the snapshot was taken at, or null if there is no snapshot
+     * @return the offset of the first record to replay, or -1 if the journal cannot be replayed after the cut
+     */
+    private static long replayStart(long generation, long size, Cut after) {
+        if (after == null) {
+            return generation == 0 ? HEADER_BYTES : -1;
+        }
+        if (generation == after.generation()) {
+            return after.offset() >= HEADER_BYTES && after.offset() <= size ? after.offset() : -1;
+        }
+        return generation == after.generation() + 1 ? HEADER_BYTES : -1;
+    }
+
+    /**
+     * Gets what the replay on open did.
+     *
+     * @return the replay statistics
+     */
+    public Stats replayed() {
+        return replayed;
+    }
+
+    /**
+     * Appends a booking.
+     *
+     * @param appointment the appointment being booked
+     * @return the journal position just past the record, for awaitDurable
+     * @throws UncheckedIOException if the journal can no longer be written
+     */
+    public long book(Appointment appointment) {
+        return append(BOOK, appointment, NO_SLOT);
+    }
+
+    /**
+     * Appends a cancellation.
+     *
+     * @param appointment the appointment being cancelled
+     * @return the journal position just past the record, for awaitDurable
+     * @throws UncheckedIOException if the journal can no longer be written
+     */
+    public long cancel(Appointment appointment) {
+        return append(CANCEL, appointment, NO_SLOT);
+    }
+
+    /**
+     * Appends a reschedule.
+     *
+     * @param appointment the appointment being moved, still at its current timeslot
+     * @param newSlot     the new timeslot
+     * @return the journal position just past the record, for awaitDurable
+     * @throws UncheckedIOException if the journal can no longer be written
+     */
+    public long move(Appointment appointment, Timeslot newSlot) {
+        return append(MOVE, appointment, newSlot.getOrdinal());
+    }
+
+    /**
+     * Appends the close of a billing cycle.
+     *
+     * @return the journal position just past the record, for awaitDurable
+     * @throws UncheckedIOException if the journal can no longer be written
+     */
+    public long closeCycle() {
+        synchronized (lock) {
+            checkWritable();
+            reserve(APPOINTMENT_BYTES);
+            pending.put(CLOSE_CYCLE).putInt(0).put(NO_SLOT).putInt(-1).putInt(-1).put(NO_ROOM).put(NO_SLOT);
+            committed(APPOINTMENT_BYTES);
+            return appended;
+        }
+    }
+
+    /**
+     * Cuts the journal where a snapshot of the appointment book is being taken.
+     * The caller must take the snapshot without letting a change be appended in between,
+     * so the records after the cut are exactly the changes made after the snapshot.
+     *
+     * @return the cut, to be stored with the snapshot and passed to compact
+     * @throws UncheckedIOException if the journal can no longer be written
+     */
+    public Cut cut() {
+        synchronized (lock) {
+            checkWritable();
+            Cut cut = new Cut(generation, base + appended);
+            reserve(APPOINTMENT_BYTES);
+            pending.put(RESET).putInt(0).put(NO_SLOT).putInt(-1).putInt(-1).put(NO_ROOM).put(NO_SLOT);
+            committed(APPOINTMENT_BYTES);
+            patientKeys.clear();
+            doctorKeys.clear();
+            technicianKeys.clear();
+            tail = cut.offset();
+            return cut;
+        }
+    }
+
+    /**
+     * Gets the number of bytes appended since the last cut, or since the start of the journal.
+     *
+     * @return the length of the journal's tail
+     */
+    public long tailBytes() {
+        synchronized (lock) {
+            return base + appended - tail;
+        }
+    }
+
+    /**
+     * Drops the records before a cut whose snapshot is on disk, and waits until they are dropped.
+     * The writer thread does the work between two batches, so appending goes on meanwhile.
+     * Nothing is done if the journal has been compacted since the cut.
+     *
+     * @param cut the cut
+     * @throws IOException if the journal cannot be compacted; it is then left as it was
+     */
+    public void compact(Cut cut) throws IOException {
+        synchronized (lock) {
+            if (cut.generation() != generation) {
+                return;
+            }
+            compaction = cut;
+            compactionFailure = null;
+            lock.notifyAll();
+            while (compaction != null && failure == null && !closed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while compacting the journal", e);
+                }
+            }
+            if (compactionFailure != null) {
+                throw compactionFailure;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Waits until everything appended so far is on disk.
+     *
+     * @throws IOException if the journal could not be written
+     */
+    public void sync() throws IOException {
+        long target;
+        synchronized (lock) {
+            target = appended;
+        }
+        awaitDurable(target);
+    }
+
+    /**
+     * Gets a future that completes once everything appended so far is on disk.
+     *
+     * @return the future, completed by the writer thread, or exceptionally with the IOException
+     *         if the journal could not be written
+     */
+    public CompletableFuture<Void> whenSynced() {
+        synchronized (lock) {
+            return whenDurable(appended);
+        }
+    }
+
+    /**
+     * Gets a future that completes once the records up to a journal position are on disk, without
+     * waiting. The writer forces one batch at a time and completes the future of every position
+     * in it; completing runs the future's dependent actions on the writer thread, so they should
+     * hand any work back to their own thread.
+     *
+     * @param position a position returned by an append
+     * @return the future, completed by the writer thread, or exceptionally with the IOException
+     *         if the journal could not be written
+     */
+    public CompletableFuture<Void> whenDurable(long position) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        IOException failed;
+        synchronized (lock) {
+            if (durable < position && failure == null && !closed) {
+                waiters.add(new Waiter(position, waited++, future));
+                return future;
+            }
+            failed = durable >= position ? null : failure != null ? failure : new IOException("Journal is closed");
+        }
+        if (failed == null) {
+            future.complete(null);
+        } else {
+            future.completeExceptionally(failed);
+        }
+        return future;
+    }
+
+    /**
+     * Waits until the records up to a journal position are on disk. The writer forces one batch
+     * at a time, so every caller waiting on a position in the same batch is released by one force.
+     * A thread that must not block uses whenDurable instead.
+     *
+     * @param position a position returned by an append
+     * @throws IOException if the journal could not be written
+     */
+    public void awaitDurable(long position) throws IOException {
+        synchronized (lock) {
+            while (durable < position && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while syncing the journal", e);
+                }
+            }
+            if (durable < position) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Writes and forces everything appended, then closes the file.
+     *
+     * @throws IOException if the journal could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        ArrayDeque<Waiter> unwritten;
+        synchronized (lock) {
+            unwritten = released();
+        }
+        complete(unwritten, new IOException("Journal was closed before the change was written"));
+        synchronized (lock) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Encodes an appointment record, defining its patient and provider keys first if they are new.
+     *
+     * @param type        the record type
+     * @param appointment the appointment
+     * @param newSlot     the new timeslot ordinal of a reschedule, or NO_SLOT
+     * @return the journal position just past the record
+     */
+    private long append(byte type, Appointment appointment, byte newSlot) {
+        Provider provider = (Provider) appointment.getProvider();
+        byte room = appointment instanceof Imaging imaging ? (byte) imaging.getRoom().ordinal() : NO_ROOM;
+        synchronized (lock) {
+            checkWritable();
+            int patient = patientKey(appointment.getPatient().getProfile());
+            int providerKey = providerKey(provider);
+            reserve(APPOINTMENT_BYTES);
+            pending.put(type).putInt(appointment.getDate().getEpochDay()).put(appointment.getTimeslot().getOrdinal())
+                    .putInt(patient).putInt(providerKey).put(room).put(newSlot);
+            committed(APPOINTMENT_BYTES);
+            return appended;
+        }
+    }
+
+    /**
+     * Gets the key of a patient, appending its definition if it is new. Called with the lock held.
+     *
+     * @param profile the patient's profile
+     * @return the key
+     */
+    private int patientKey(Profile profile) {
+        Integer key = patientKeys.get(profile);
+        if (key == null) {
+            key = patientKeys.size();
+            patientKeys.put(profile, key);
+            define(PATIENT, key, NO_SLOT, profile);
+        }
+        return key;
+    }
+
+    /**
+     * Gets the key of a provider, appending its definition if it is new. Called with the lock held.
+     *
+     * @param provider the provider
+     * @return the key
+     */
+    private int providerKey(Provider provider) {
+        boolean doctor = provider instanceof Doctor;
+        HashMap<Profile, Integer> keys = doctor ? doctorKeys : technicianKeys;
+        Integer key = keys.get(provider.getProfile());
+        if (key == null) {
+            key = doctorKeys.size() + technicianKeys.size();
+            keys.put(provider.getProfile(), key);
+            define(PROVIDER, key, doctor ? DOCTOR : TECHNICIAN, provider.getProfile());
+        }
+        return key;
+    }
+
+    /**
+     * Appends a key definition. Called with the lock held.
+     *
+     * @param type    PATIENT or PROVIDER
+     * @param key     the key
+     * @param kind    the provider kind, or NO_SLOT for a patient
+     * @param profile the profile the key stands for
+     */
+    private void define(byte type, int key, byte kind, Profile profile) {
+        byte[] first = profile.getFname().getBytes(StandardCharsets.UTF_8);
+        byte[] last = profile.getLname().getBytes(StandardCharsets.UTF_8);
+        int length = 1 + Integer.BYTES + 1 + Short.BYTES + first.length + Short.BYTES + last.length + Integer.BYTES;
+        reserve(length);
+        pending.put(type).putInt(key).put(kind)
+                .putShort((short) first.length).put(first)
+                .putShort((short) last.length).put(last)
+                .putInt(profile.getDob().getEpochDay());
+        committed(length);
+    }
+
+    /**
+     * Makes room for a record in the pending buffer. Called with the lock held.
+     *
+     * @param bytes the length of the record
+     */
+    private void reserve(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+    }
+
+    /**
+     * Counts an encoded record and wakes the writer. Called with the lock held.
+     *
+     * @param bytes the length of the record
+     */
+    private void committed(int bytes) {
+        appended += bytes;
+        lock.notifyAll();
+    }
+
+    /**
+     * Checks that records can still be appended. Called with the lock held.
+     *
+     * @throws UncheckedIOException  if the writer failed
+     * @throws IllegalStateException if the journal is closed
+     */
+    private void checkWritable() {
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    /**
+     * Writes the pending records in batches, forcing each batch to disk, until the journal is closed.
+     */
+    private void writeLoop() {
+        while (true) {
+            long target;
+            Cut cut;
+            synchronized (lock) {
+                while (pending.position() == 0 && compaction == null && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0 && closed) {
+                    return; // Closed and drained
+                }
+                ByteBuffer batch = pending;
+                pending = writing;
+                writing = batch;
+                target = appended;
+                cut = compaction;
+            }
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                if (target != durable) {
+                    channel.force(false);
+                }
+                writing.clear();
+            } catch (IOException e) {
+                ArrayDeque<Waiter> failed;
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                    failed = released();
+                }
+                complete(failed, e);
+                return;
+            }
+            ArrayDeque<Waiter> forced;
+            synchronized (lock) {
+                durable = target;
+                lock.notifyAll();
+                forced = released();
+            }
+            complete(forced, null);
+            if (cut != null) {
+                compactTo(cut);
+            }
+        }
+    }
+
+    /**
+     * Takes the waiters whose positions are on disk, or every waiter once the journal has failed
+     * or been closed. Called with the lock held.
+     *
+     * @return the waiters to complete, in position order and then in the order they were added
+     */
+    private ArrayDeque<Waiter> released() {
+        ArrayDeque<Waiter> released = new ArrayDeque<>();
+        while (!waiters.isEmpty() && (waiters.peek().position() <= durable || failure != null || closed)) {
+            released.add(waiters.poll());
+        }
+        return released;
+    }
+
+    /**
+     * Completes the futures of released waiters. Called without the lock, since completing runs
+     * the futures' dependent actions.
+     *
+     * @param released the waiters
+     * @param failure  the IOException to complete the waiters not yet on disk with
+     */
+    private void complete(ArrayDeque<Waiter> released, IOException failure) {
+        long forced;
+        synchronized (lock) {
+            forced = durable;
+        }
+        for (Waiter waiter : released) {
+            if (waiter.position() <= forced) {
+                waiter.future().complete(null);
+            } else {
+                waiter.future().completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * A caller waiting for a journal position to be on disk.
+     *
+     * @param position the position
+     * @param sequence the order the waiter was added in, so waiters on one position complete in that order
+     * @param future   the future completed once the position is on disk
+     */
+    private record Waiter(long position, long sequence, CompletableFuture<Void> future) {
+    }
+
+    /**
+     * Rewrites the journal as the next generation, holding only the records after a cut.
+     * Called on the writer thread once everything up to the cut is on disk. The new file is
+     * complete and forced before it replaces the journal, so a crash leaves either journal whole.
+     *
+     * @param cut the cut
+     */
+    private void compactTo(Cut cut) {
+        long end;
+        synchronized (lock) {
+            end = base + durable;
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel copy = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            copy.write(header(cut.generation() + 1));
+            for (long position = cut.offset(); position < end; ) {
+                position += channel.transferTo(position, end - position, copy);
+            }
+            copy.force(true);
+        } catch (IOException e) {
+            compacted(e);
+            return;
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // Overwritten by the next compaction
+            }
+            compacted(e);
+            return;
+        }
+        try {
+            channel.close();
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        } catch (IOException e) {
+            synchronized (lock) {
+                failure = e;
+                compaction = null;
+                lock.notifyAll();
+            }
+            return;
+        }
+        synchronized (lock) {
+            generation = cut.generation() + 1;
+            base += HEADER_BYTES - cut.offset();
+            tail += HEADER_BYTES - cut.offset();
+        }
+        compacted(null);
+    }
+
+    /**
+     * Ends a compaction and wakes the thread waiting for it.
+     *
+     * @param e why the compaction failed, or null if it succeeded
+     */
+    private void compacted(IOException e) {
+        synchronized (lock) {
+            compaction = null;
+            compactionFailure = e;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Encodes the header of a journal file.
+     *
+     * @param generation the generation of the file
+     * @return the header, ready to be written
+     */
+    private static ByteBuffer header(long generation) {
+        return ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putLong(generation).flip();
+    }
+
+    /**
+     * Reads the whole journal into a heap buffer.
+     *
+     * @param channel the journal's channel
+     * @param path    the journal file
+     * @param size    the length of the journal
+     * @return the journal, positioned at its start
+     * @throws IOException if the journal cannot be read or is too large
+     */
+    private static ByteBuffer read(FileChannel channel, Path path, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal " + path + " is too large to replay: " + size + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IOException("Journal " + path + " shrank while it was read");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Replays the records from the buffer's position.
+     *
+     * @param buffer         the journal, positioned at the first record to replay
+     * @param registry       the providers to resolve provider keys against
+     * @param replay         where the changes are applied
+     * @param patientKeys    filled with the patient keys defined in the journal
+     * @param doctorKeys     filled with the doctor keys defined in the journal
+     * @param technicianKeys filled with the technician keys defined in the journal
+     * @param counts         set to the number of change records and of skipped records
+     * @return the offset just past the last complete record
+     */
+    private static long replay(ByteBuffer buffer, ProviderRegistry registry, Replay replay,
+                               HashMap<Profile, Integer> patientKeys, HashMap<Profile, Integer> doctorKeys,
+                               HashMap<Profile, Integer> technicianKeys, int[] counts) {
+        List<Patient> patients = new List<>();
+        List<Provider> providers = new List<>();
+        int records = 0;
+        int skipped = 0;
+        int end = buffer.position();
+        try {
+            while (buffer.hasRemaining()) {
+                byte type = buffer.get();
+                if (type == PATIENT || type == PROVIDER) {
+                    int key = buffer.getInt();
+                    byte kind = buffer.get();
+                    Profile profile = readProfile(buffer);
+                    if (type == PATIENT) {
+                        if (key != patients.size()) {
+                            break;
+                        }
+                        patients.add(replay.patient(profile));
+                        patientKeys.put(profile, key);
+                    } else {
+                        if (key != providers.size()) {
+                            break;
+                        }
+                        providers.add(registry.resolve(kind == DOCTOR
+                                ? ProviderRegistry.Type.DOCTOR : ProviderRegistry.Type.TECHNICIAN, profile));
+                        (kind == DOCTOR ? doctorKeys : technicianKeys).put(profile, key);
+                    }
+                } else if (type == RESET) {
+                    buffer.getInt();
+                    buffer.get();
+                    buffer.getLong(); // Unused patient and provider keys
+                    buffer.getShort(); // Unused room and new timeslot
+                    patients.clear();
+                    providers.clear();
+                    patientKeys.clear();
+                    doctorKeys.clear();
+                    technicianKeys.clear();
+                } else if (type >= BOOK && type <= CLOSE_CYCLE) {
+                    int day = buffer.getInt();
+                    byte slot = buffer.get();
+                    int patient = buffer.getInt();
+                    int provider = buffer.getInt();
+                    byte room = buffer.get();
+                    byte newSlot = buffer.get();
+                    records++;
+                    if (!apply(replay, type, day, slot, patient, provider, room, newSlot, patients, providers)) {
+                        skipped++;
+                    }
+                } else {
+                    break;
+                }
+                end = buffer.position();
+            }
+        } catch (BufferUnderflowException e) {
+            // A record cut short by a crash; replay stops at the last complete one
+        }
+        counts[0] = records;
+        counts[1] = skipped;
+        return end;
+    }
+
+    /**
+     * Applies one change record.
+     *
+     * @param replay    where the change is applied
+     * @param type      the record type
+     * @param day       the epoch day
+     * @param slot      the timeslot ordinal
+     * @param patient   the patient key
+     * @param provider  the provider key
+     * @param room      the room ordinal, or NO_ROOM
+     * @param newSlot   the new timeslot ordinal of a reschedule
+     * @param patients  the patients by key
+     * @param providers the resolved providers by key, null where the roster has none
+     * @return true if the change was applied, false if it no longer applies
+     */
+    private static boolean apply(Replay replay, byte type, int day, byte slot, int patient, int provider,
+                                 byte room, byte newSlot, List<Patient> patients, List<Provider> providers) {
+        try {
+            if (type == CLOSE_CYCLE) {
+                return replay.closeCycle();
+            }
+            if (patient < 0 || patient >= patients.size()) {
+                return false;
+            }
+            Date date = Date.ofEpochDay(day);
+            Timeslot timeslot = Timeslot.ofOrdinal(slot);
+            Patient person = patients.get(patient);
+            if (type == CANCEL) {
+                return replay.cancel(date, timeslot, person.getProfile());
+            }
+            if (type == MOVE) {
+                return replay.move(date, timeslot, person.getProfile(), Timeslot.ofOrdinal(newSlot));
+            }
+            Provider resolved = provider >= 0 && provider < providers.size() ? providers.get(provider) : null;
+            if (resolved == null) {
+                return false;
+            }
+            Appointment appointment = room == NO_ROOM ? new Appointment(date, timeslot, person, resolved)
+                    : new Imaging(date, timeslot, person, (Technician) resolved, ROOMS[room]);
+            return replay.book(appointment);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a profile encoded by define.
+     *
+     * @param buffer the journal, positioned at the profile
+     * @return the profile
+     */
+    static Profile readProfile(ByteBuffer buffer) {
+        byte[] first = new byte[buffer.getShort()];
+        buffer.get(first);
+        byte[] last = new byte[buffer.getShort()];
+        buffer.get(last);
+        Date dob = Date.ofEpochDay(buffer.getInt());
+        return new Profile(new String(first, StandardCharsets.UTF_8), new String(last, StandardCharsets.UTF_8), dob);
+    }
+}
@@ -0,0 +1,473 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.Date;
+import model.project1.IndexedList;
+import model.project1.Patient;
+import model.project1.Profile;
+import model.project1.Provider;
+import model.project1.Timeslot;
+import model.project1.VisitHistory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+ * The AppointmentSnapshot class is a point-in-time copy of the appointment store: the archived
+ * visits with their charges, the booked appointments in booking order and the technician the
+ * rotation will try next. Together with the journal cut it was taken at, it lets startup load
+ * the snapshot and replay only the journal's tail.
+ * <p>
+ * Taking a snapshot is split so it does not hold up bookings. capture runs on the thread that
+ * owns the appointment book and only copies the book's references and the fields a later change
+ * could overwrite; the visit history is append-only, so a view of its current length is enough.
+ * write then encodes the copy on any thread into a compact binary file, with patients and
+ * providers stored once by profile and referenced by key, and a CRC32 of the body in the header.
+ * The file is written beside the snapshot, forced, and renamed over it, so a crash leaves the
+ * previous snapshot whole. The snapshot it replaces is kept as the previous snapshot: until the
+ * journal is compacted at the new cut, the previous snapshot still fits the journal and can be
+ * loaded in its place if the new one is lost or damaged.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class AppointmentSnapshot {
+    private static final int MAGIC = 0x434D5331; // "CMS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32; // Magic, version, generation, offset, length, CRC32
+
+    private static final int NONE = -1;
+    private static final byte NO_ROOM = -1;
+    private static final byte DOCTOR = 0;
+    private static final byte TECHNICIAN = 1;
+    private static final int APPOINTMENT_BYTES = Integer.BYTES + 1 + Integer.BYTES + Integer.BYTES + 1;
+    private static final int VISIT_BYTES = APPOINTMENT_BYTES + Long.BYTES;
+    private static final Radiology[] ROOMS = Radiology.values();
+
+    /**
+     * Restores the snapshot into the appointment store. The bookings are applied through the
+     * journal's Replay, so they are checked like replayed ones.
+     */
+    public interface Restore extends AppointmentJournal.Replay {
+        /**
+         * Archives a visit of an earlier billing cycle.
+         *
+         * @param appointment the visit, with its patient and provider resolved
+         * @param chargeCents the amount billed for the visit, in cents
+         * @return true if the visit was archived
+         */
+        boolean archive(Appointment appointment, long chargeCents);
+
+        /**
+         * Moves the technician rotation to the technician it will try next.
+         *
+         * @param technician the technician, resolved against the current roster
+         */
+        void rotateTo(Technician technician);
+    }
+
+    /**
+     * What a snapshot load did.
+     *
+     * @param cut          the journal cut the snapshot was taken at
+     * @param appointments the number of booked appointments restored
+     * @param visits       the number of archived visits restored
+     * @param skipped      the number of appointments and visits that no longer applied
+     * @param bytes        the length of the snapshot
+     * @param nanos        the time taken by the load
+     */
+    public record Stats(AppointmentJournal.Cut cut, int appointments, int visits, int skipped,
+                        long bytes, long nanos) {
+        /**
+         * Returns a one-line summary of the load.
+         *
+         * @return the summary text
+         */
+        @Override
+        public String toString() {
+            return String.format("Loaded snapshot of %d appointment(s) and %d archived visit(s) (%,d bytes) "
+                    + "in %.1f ms, %d skipped.", appointments, visits, bytes, nanos / 1e6, skipped);
+        }
+    }
+
+    private final Appointment[] book;
+    private final Date[] dates;
+    private final Timeslot[] timeslots;
+    private final Provider[] providers;
+    private final VisitHistory.Archived visits;
+    private final Technician next;
+
+    /**
+     * Constructs a snapshot from its captured parts.
+     *
+     * @param book      the booked appointments, in booking order
+     * @param dates     the date of each booked appointment
+     * @param timeslots the timeslot of each booked appointment
+     * @param providers the provider of each booked appointment
+     * @param visits    the archived visits
+     * @param next      the technician the rotation will try next, or null
+     */
+    private AppointmentSnapshot(Appointment[] book, Date[] dates, Timeslot[] timeslots, Provider[] providers,
+                                VisitHistory.Archived visits, Technician next) {
+        this.book = book;
+        this.dates = dates;
+        this.timeslots = timeslots;
+        this.providers = providers;
+        this.visits = visits;
+        this.next = next;
+    }
+
+    /**
+     * Captures the appointment store. Must be called on the thread that changes the store,
+     * at the same point as the journal is cut.
+     *
+     * @param book    the booked appointments
+     * @param history the visit history
+     * @param next    the technician the rotation will try next, or null if there is none
+     * @return the snapshot, ready to be written on any thread
+     */
+    public static AppointmentSnapshot capture(IndexedList<Appointment> book, VisitHistory history, Technician next) {
+        int size = book.size();
+        Appointment[] appointments = new Appointment[size];
+        Date[] dates = new Date[size];
+        Timeslot[] timeslots = new Timeslot[size];
+        Provider[] providers = new Provider[size];
+        int i = 0;
+        for (Appointment appointment : book) {
+            appointments[i] = appointment;
+            dates[i] = appointment.getDate();
+            timeslots[i] = appointment.getTimeslot();
+            providers[i] = (Provider) appointment.getProvider();
+            i++;
+        }
+        return new AppointmentSnapshot(appointments, dates, timeslots, providers, history.archived(), next);
+    }
+
+    /**
+     * Gets the number of booked appointments in the snapshot.
+     *
+     * @return the number of appointments
+     */
+    public int appointments() {
+        return book.length;
+    }
+
+    /**
+     * Gets the number of archived visits in the snapshot.
+     *
+     * @return the number of visits
+     */
+    public int visits() {
+        return visits.size();
+    }
+
+    /**
+     * Writes the snapshot, replacing the previous one only once it is on disk.
+     *
+     * @param path the snapshot file
+     * @param cut  the journal cut taken with the snapshot
+     * @return the length of the snapshot file
+     * @throws IOException if the snapshot cannot be written
+     */
+    public long write(Path path, AppointmentJournal.Cut cut) throws IOException {
+        Keys keys = new Keys();
+        for (int i = 0; i < visits.size(); i++) {
+            Appointment visit = visits.get(i);
+            keys.patient(visit.getPatient().getProfile());
+            keys.provider((Provider) visit.getProvider());
+        }
+        for (int i = 0; i < book.length; i++) {
+            keys.patient(book[i].getPatient().getProfile());
+            keys.provider(providers[i]);
+        }
+        if (next != null) {
+            keys.provider(next);
+        }
+
+        long length = keys.bytes + Integer.BYTES + Integer.BYTES + (long) visits.size() * VISIT_BYTES
+                + Integer.BYTES + (long) book.length * APPOINTMENT_BYTES;
+        if (length > Integer.MAX_VALUE - HEADER_BYTES) {
+            throw new IOException("Appointment store too large to snapshot");
+        }
+        ByteBuffer body = ByteBuffer.allocate((int) length);
+        body.putInt(keys.patients.size());
+        for (Profile profile : keys.patients) {
+            putProfile(body, profile);
+        }
+        body.putInt(keys.providers.size());
+        for (Provider provider : keys.providers) {
+            body.put(provider instanceof Doctor ? DOCTOR : TECHNICIAN);
+            putProfile(body, provider.getProfile());
+        }
+        body.putInt(next == null ? NONE : keys.provider(next));
+        body.putInt(visits.size());
+        for (int i = 0; i < visits.size(); i++) {
+            Appointment visit = visits.get(i);
+            putAppointment(body, keys, visit, visit.getDate(), visit.getTimeslot(), (Provider) visit.getProvider());
+            body.putLong(visits.chargeCents(i));
+        }
+        body.putInt(book.length);
+        for (int i = 0; i < book.length; i++) {
+            putAppointment(body, keys, book[i], dates[i], timeslots[i], providers[i]);
+        }
+        body.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION)
+                .putLong(cut.generation()).putLong(cut.offset())
+                .putInt(body.remaining()).putInt((int) crc.getValue()).flip();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] file = {header, body};
+            while (body.hasRemaining()) {
+                channel.write(file);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(path, previousOf(path), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (NoSuchFileException e) {
+            // The first snapshot
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return HEADER_BYTES + length;
+    }
+
+    /**
+     * Gets the file the previous snapshot is kept in when a new one is written.
+     *
+     * @param path the snapshot file
+     * @return the previous snapshot's file
+     */
+    public static Path previousOf(Path path) {
+        return path.resolveSibling(path.getFileName() + ".prev");
+    }
+
+    /**
+     * Reads the journal cut a snapshot was taken at, without checking or loading the snapshot.
+     *
+     * @param path the snapshot file
+     * @return the cut, or null if there is no snapshot
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static AppointmentJournal.Cut cutOf(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not an appointment snapshot: " + path);
+            }
+            return new AppointmentJournal.Cut(header.getLong(), header.getLong());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads a snapshot into the appointment store. The snapshot is checked against its
+     * checksum and decoded whole before anything is restored, so a damaged snapshot restores nothing.
+     *
+     * @param path     the snapshot file
+     * @param registry the providers the appointments are resolved against
+     * @param restore  where the snapshot is restored
+     * @return what the load did, or null if there is no snapshot
+     * @throws IOException if the file cannot be read or is not a whole snapshot
+     */
+    public static Stats load(Path path, ProviderRegistry registry, Restore restore) throws IOException {
+        long started = System.nanoTime();
+        ByteBuffer file;
+        try {
+            file = ByteBuffer.wrap(Files.readAllBytes(path)); // Not mapped, so the file can be replaced
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (file.remaining() < HEADER_BYTES || file.getInt() != MAGIC || file.getInt() != VERSION) {
+            throw new IOException("Not an appointment snapshot: " + path);
+        }
+        AppointmentJournal.Cut cut = new AppointmentJournal.Cut(file.getLong(), file.getLong());
+        int length = file.getInt();
+        int checksum = file.getInt();
+        if (length != file.remaining()) {
+            throw new IOException("Appointment snapshot " + path + " is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(file.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Appointment snapshot " + path + " fails its checksum");
+        }
+
+        try {
+            Patient[] patients = new Patient[file.getInt()];
+            for (int i = 0; i < patients.length; i++) {
+                patients[i] = restore.patient(AppointmentJournal.readProfile(file));
+            }
+            Provider[] providers = new Provider[file.getInt()];
+            for (int i = 0; i < providers.length; i++) {
+                ProviderRegistry.Type type = file.get() == DOCTOR
+                        ? ProviderRegistry.Type.DOCTOR : ProviderRegistry.Type.TECHNICIAN;
+                providers[i] = registry.resolve(type, AppointmentJournal.readProfile(file));
+            }
+            int next = file.getInt();
+            Provider nextTechnician = next == NONE ? null : providers[next];
+            Appointment[] visits = new Appointment[file.getInt()];
+            long[] charges = new long[visits.length];
+            for (int i = 0; i < visits.length; i++) {
+                visits[i] = readAppointment(file, patients, providers);
+                charges[i] = file.getLong();
+            }
+            Appointment[] appointments = new Appointment[file.getInt()];
+            for (int i = 0; i < appointments.length; i++) {
+                appointments[i] = readAppointment(file, patients, providers);
+            }
+
+            // Decoded whole, so a malformed snapshot fails before anything is restored
+            int archived = 0;
+            for (int i = 0; i < visits.length; i++) {
+                if (visits[i] != null && restore.archive(visits[i], charges[i])) {
+                    archived++;
+                }
+            }
+            int booked = 0;
+            for (Appointment appointment : appointments) {
+                if (appointment != null && restore.book(appointment)) {
+                    booked++;
+                }
+            }
+            if (nextTechnician instanceof Technician technician) {
+                restore.rotateTo(technician);
+            }
+            return new Stats(cut, booked, archived, visits.length - archived + appointments.length - booked,
+                    HEADER_BYTES + length, System.nanoTime() - started);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Appointment snapshot " + path + " is malformed", e);
+        }
+    }
+
+    /**
+     * Encodes an appointment.
+     *
+     * @param body        the snapshot body
+     * @param keys        the patient and provider keys
+     * @param appointment the appointment
+     * @param date        its captured date
+     * @param timeslot    its captured timeslot
+     * @param provider    its captured provider
+     */
+    private static void putAppointment(ByteBuffer body, Keys keys, Appointment appointment, Date date,
+                                       Timeslot timeslot, Provider provider) {
+        body.putInt(date.getEpochDay()).put(timeslot.getOrdinal())
+                .putInt(keys.patient(appointment.getPatient().getProfile())).putInt(keys.provider(provider))
+                .put(appointment instanceof Imaging imaging ? (byte) imaging.getRoom().ordinal() : NO_ROOM);
+    }
+
+    /**
+     * Decodes an appointment.
+     *
+     * @param file      the snapshot, positioned at the appointment
+     * @param patients  the patients by key
+     * @param providers the resolved providers by key, null where the roster has none
+     * @return the appointment, or null if its provider is not in the roster
+     */
+    private static Appointment readAppointment(ByteBuffer file, Patient[] patients, Provider[] providers) {
+        Date date = Date.ofEpochDay(file.getInt());
+        Timeslot timeslot = Timeslot.ofOrdinal(file.get());
+        Patient patient = patients[file.getInt()];
+        Provider provider = providers[file.getInt()];
+        byte room = file.get();
+        if (provider == null) {
+            return null;
+        }
+        if (room == NO_ROOM) {
+            return new Appointment(date, timeslot, patient, provider);
+        }
+        return provider instanceof Technician technician
+                ? new Imaging(date, timeslot, patient, technician, ROOMS[room]) : null;
+    }
+
+    /**
+     * Encodes a profile the way the journal does.
+     *
+     * @param body    the snapshot body
+     * @param profile the profile
+     */
+    private static void putProfile(ByteBuffer body, Profile profile) {
+        byte[] first = profile.getFname().getBytes(StandardCharsets.UTF_8);
+        byte[] last = profile.getLname().getBytes(StandardCharsets.UTF_8);
+        body.putShort((short) first.length).put(first)
+                .putShort((short) last.length).put(last)
+                .putInt(profile.getDob().getEpochDay());
+    }
+
+    /**
+     * Gets the encoded length of a profile.
+     *
+     * @param profile the profile
+     * @return the length in bytes
+     */
+    private static int profileBytes(Profile profile) {
+        return Short.BYTES + profile.getFname().getBytes(StandardCharsets.UTF_8).length
+                + Short.BYTES + profile.getLname().getBytes(StandardCharsets.UTF_8).length + Integer.BYTES;
+    }
+
+    /**
+     * The patient and provider keys of a snapshot being written, in order of first use.
+     */
+    private static final class Keys {
+        private final ArrayList<Profile> patients = new ArrayList<>();
+        private final ArrayList<Provider> providers = new ArrayList<>();
+        private final HashMap<Profile, Integer> patientKeys = new HashMap<>();
+        private final HashMap<Profile, Integer> doctorKeys = new HashMap<>();
+        private final HashMap<Profile, Integer> technicianKeys = new HashMap<>();
+        private long bytes = Integer.BYTES + Integer.BYTES; // The two dictionary counts
+
+        /**
+         * Gets the key of a patient, adding it if it is new.
+         *
+         * @param profile the patient's profile
+         * @return the key
+         */
+        private int patient(Profile profile) {
+            Integer key = patientKeys.get(profile);
+            if (key == null) {
+                key = patients.size();
+                patientKeys.put(profile, key);
+                patients.add(profile);
+                bytes += profileBytes(profile);
+            }
+            return key;
+        }
+
+        /**
+         * Gets the key of a provider, adding it if it is new.
+         *
+         * @param provider the provider
+         * @return the key
+         */
+        private int provider(Provider provider) {
+            HashMap<Profile, Integer> keys = provider instanceof Doctor ? doctorKeys : technicianKeys;
+            Integer key = keys.get(provider.getProfile());
+            if (key == null) {
+                key = providers.size();
+                keys.put(provider.getProfile(), key);
+                providers.add(provider);
+                bytes += 1 + profileBytes(provider.getProfile());
+            }
+            return key;
+        }
+    }
+}
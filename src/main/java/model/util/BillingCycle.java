@@ -0,0 +1,65 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.Profile;
+import model.project1.VisitHistory;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.util.HashSet;
+
+/**
+ * The BillingCycle class closes a billing cycle by archiving the booked appointments
+ * into the visit history store. Every appointment is visited once, so closing
+ * a cycle is O(n); the caller then starts the next cycle with a new, empty book.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class BillingCycle {
+    private BillingCycle() {
+    }
+
+    /**
+     * What a billing-cycle close archived.
+     *
+     * @param appointments the number of appointments archived
+     * @param patients     the number of distinct patients billed
+     * @param billedCents  the total amount billed, in cents
+     */
+    public record Summary(int appointments, int patients, long billedCents) {
+        /**
+         * Returns a one-line description of the close.
+         *
+         * @return the summary text
+         */
+        @Override
+        public String toString() {
+            DecimalFormat df = new DecimalFormat("#,##0.00");
+            return String.format("Billing cycle closed: %d appointment(s) archived for %d patient(s) [billed: $%s]",
+                    appointments, patients, df.format(BigDecimal.valueOf(billedCents, 2)));
+        }
+    }
+
+    /**
+     * Archives every appointment into the visit history, with its charge.
+     * The store keeps one record per profile, so the visits of every cycle collect in
+     * one history per patient.
+     *
+     * @param appointments the appointments of the cycle
+     * @param history      the visit history store
+     * @return what was archived
+     */
+    public static Summary close(Iterable<Appointment> appointments, VisitHistory history) {
+        HashSet<Profile> billed = new HashSet<>();
+        int archived = 0;
+        long billedCents = 0;
+        for (Appointment appointment : appointments) {
+            long chargeCents = BillingLedger.chargeCents(appointment);
+            history.archive(appointment, chargeCents);
+            billed.add(appointment.getPatient().getProfile());
+            billedCents += chargeCents;
+            archived++;
+        }
+        return new Summary(archived, billed.size(), billedCents);
+    }
+}
@@ -0,0 +1,191 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.Profile;
+import model.project1.Provider;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TreeMap;
+
+/**
+ * The BillingLedger class keeps running billing totals for the appointment book.
+ * Each booking adds the provider's specialty billing to the patient's amount due and to the
+ * provider's credit; each cancellation takes it back off. Amounts are kept in integer cents,
+ * so totals are exact however many appointments are booked and cancelled.
+ * Patients are looked up by profile in O(1) and kept in patient order, and provider credits
+ * are indexed by provider id, so both billing reports are a walk over the accounts.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public class BillingLedger {
+    /**
+     * Number of cents in one dollar of specialty billing.
+     */
+    public static final long CENTS_PER_DOLLAR = 100;
+
+    private static final int INITIAL_PROVIDERS = 16;
+
+    private final HashMap<Profile, Account> accounts = new HashMap<>();
+    private final TreeMap<Profile, Account> accountsByPatient = new TreeMap<>();
+    private Provider[] providers = new Provider[INITIAL_PROVIDERS];
+    private long[] creditCents = new long[INITIAL_PROVIDERS];
+    private int[] providerAppointments = new int[INITIAL_PROVIDERS];
+
+    /**
+     * A patient's running amount due.
+     */
+    private static final class Account {
+        private long dueCents;
+        private int appointments;
+    }
+
+    /**
+     * Gets the amount billed for an appointment.
+     *
+     * @param appointment the appointment
+     * @return the provider's specialty billing, in cents
+     */
+    public static long chargeCents(Appointment appointment) {
+        return ((Provider) appointment.getProvider()).getSpecialtyBilling() * CENTS_PER_DOLLAR;
+    }
+
+    /**
+     * Records a booked appointment.
+     *
+     * @param appointment the appointment that was booked
+     * @throws IllegalStateException if the appointment's provider has no id
+     */
+    public void book(Appointment appointment) {
+        Profile patient = appointment.getPatient().getProfile();
+        long charge = chargeCents(appointment);
+        Account account = accounts.get(patient);
+        if (account == null) {
+            account = new Account();
+            accounts.put(patient, account);
+            accountsByPatient.put(patient, account);
+        }
+        account.dueCents += charge;
+        account.appointments++;
+
+        int id = idOf((Provider) appointment.getProvider());
+        creditCents[id] += charge;
+        providerAppointments[id]++;
+    }
+
+    /**
+     * Reverses a booked appointment that was cancelled.
+     *
+     * @param appointment the appointment that was cancelled
+     * @return true if the appointment's patient had an account, false otherwise
+     */
+    public boolean cancel(Appointment appointment) {
+        Profile patient = appointment.getPatient().getProfile();
+        Account account = accounts.get(patient);
+        if (account == null) {
+            return false;
+        }
+        long charge = chargeCents(appointment);
+        account.dueCents -= charge;
+        if (--account.appointments == 0) {
+            accounts.remove(patient);
+            accountsByPatient.remove(patient);
+        }
+
+        int id = idOf((Provider) appointment.getProvider());
+        creditCents[id] -= charge;
+        providerAppointments[id]--;
+        return true;
+    }
+
+    /**
+     * Removes every account and credit.
+     */
+    public void clear() {
+        accounts.clear();
+        accountsByPatient.clear();
+        Arrays.fill(providers, null);
+        Arrays.fill(creditCents, 0);
+        Arrays.fill(providerAppointments, 0);
+    }
+
+    /**
+     * Checks if the ledger has no booked appointments.
+     *
+     * @return true if no patient has an account, false otherwise
+     */
+    public boolean isEmpty() {
+        return accounts.isEmpty();
+    }
+
+    /**
+     * Gets the patients with booked appointments, in patient order.
+     *
+     * @return the patients' profiles, ordered by last name, first name and date of birth
+     */
+    public Iterable<Profile> patients() {
+        return accountsByPatient.keySet();
+    }
+
+    /**
+     * Gets a patient's amount due.
+     *
+     * @param patient the patient's profile
+     * @return the amount due in cents, or 0 if the patient has no account
+     */
+    public long dueCents(Profile patient) {
+        Account account = accounts.get(patient);
+        return account == null ? 0 : account.dueCents;
+    }
+
+    /**
+     * Gets one past the largest provider id recorded in the ledger.
+     *
+     * @return the bound for iterating provider ids
+     */
+    public int providerIdBound() {
+        return providers.length;
+    }
+
+    /**
+     * Gets the provider with the given id, if it has booked appointments.
+     *
+     * @param id the provider id
+     * @return the provider, or null if it has no booked appointments
+     */
+    public Provider provider(int id) {
+        return providerAppointments[id] > 0 ? providers[id] : null;
+    }
+
+    /**
+     * Gets a provider's credit.
+     *
+     * @param id the provider id
+     * @return the credit in cents
+     */
+    public long creditCents(int id) {
+        return creditCents[id];
+    }
+
+    /**
+     * Gets the id of a provider, making room for it in the credit arrays.
+     *
+     * @param provider the provider
+     * @return the provider's id
+     * @throws IllegalStateException if the provider has no id
+     */
+    private int idOf(Provider provider) {
+        int id = provider.getId();
+        if (id == Provider.NO_ID) {
+            throw new IllegalStateException("Provider is not registered: " + provider.getProfile());
+        }
+        if (id >= providers.length) {
+            int length = Math.max(id + 1, providers.length * 2);
+            providers = Arrays.copyOf(providers, length);
+            creditCents = Arrays.copyOf(creditCents, length);
+            providerAppointments = Arrays.copyOf(providerAppointments, length);
+        }
+        providers[id] = provider;
+        return id;
+    }
+}
@@ -0,0 +1,90 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.Date;
+import model.project1.Provider;
+import model.project1.Timeslot;
+
+/**
+ * The OccupancyIndex class records which timeslots each provider has booked on each day.
+ * Every (provider id, epoch day) pair maps to a 12-bit mask with one bit per timeslot
+ * ordinal, so checking whether a provider is free is a hash probe and a bit test no
+ * matter how many appointments are booked.
+ * A provider holds a slot at most once; the index does not count double bookings.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class OccupancyIndex {
+    private final SlotMasks masks;
+
+    /**
+     * Constructs an empty index.
+     */
+    public OccupancyIndex() {
+        masks = new SlotMasks();
+    }
+
+    /**
+     * Checks if the provider has an appointment at the date and timeslot.
+     *
+     * @param provider the provider
+     * @param date     the date
+     * @param timeslot the timeslot
+     * @return true if the slot is booked, false otherwise
+     */
+    public boolean isOccupied(Provider provider, Date date, Timeslot timeslot) {
+        return (slotMask(provider, date) & 1 << timeslot.getOrdinal()) != 0;
+    }
+
+    /**
+     * Gets the timeslots the provider has booked on the date.
+     *
+     * @param provider the provider
+     * @param date     the date
+     * @return a mask with bit i set if the timeslot with ordinal i is booked
+     */
+    public int slotMask(Provider provider, Date date) {
+        if (provider.getId() == Provider.NO_ID) {
+            return 0; // Never booked
+        }
+        return masks.get(SlotMasks.key(provider.getId(), date.getEpochDay()));
+    }
+
+    /**
+     * Marks the appointment's slot as booked for its provider.
+     *
+     * @param appointment the appointment being booked
+     * @throws IllegalArgumentException if the provider already has that slot booked
+     * @throws IllegalStateException    if the provider has no id
+     */
+    public void book(Appointment appointment) {
+        if (!masks.add(key(appointment), 1 << appointment.getTimeslot().getOrdinal())) {
+            throw new IllegalArgumentException("Slot already booked: " + appointment);
+        }
+    }
+
+    /**
+     * Frees the appointment's slot for its provider.
+     *
+     * @param appointment the appointment being cancelled
+     * @throws IllegalStateException if the provider has no id
+     */
+    public void cancel(Appointment appointment) {
+        masks.remove(key(appointment), 1 << appointment.getTimeslot().getOrdinal());
+    }
+
+    /**
+     * Packs the appointment's provider id and epoch day into a key.
+     *
+     * @param appointment the appointment
+     * @return the key
+     * @throws IllegalStateException if the provider has no id
+     */
+    private static long key(Appointment appointment) {
+        Provider provider = (Provider) appointment.getProvider();
+        if (provider.getId() == Provider.NO_ID) {
+            throw new IllegalStateException("Provider has no id: " + provider.getProfile());
+        }
+        return SlotMasks.key(provider.getId(), appointment.getDate().getEpochDay());
+    }
+}
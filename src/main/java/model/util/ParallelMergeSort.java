@@ -0,0 +1,207 @@
+package model.util;
+
+import model.project1.List;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The ParallelMergeSort class sorts large arrays on the common ForkJoinPool.
+ * The range is split in halves until it is no longer than the sequential cutoff; each
+ * piece is sorted with the stable sequential sort and the halves are merged back, taking
+ * from the left half on ties. The result is therefore the same ordering the sequential
+ * sort produces. Ranges at or below the cutoff, or a common pool without parallelism,
+ * are sorted sequentially. List.sort itself stays sequential; the reports sort their lists
+ * through sort(List, Comparator).
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class ParallelMergeSort {
+    /**
+     * The default number of elements at or below which a range is sorted sequentially.
+     */
+    public static final int DEFAULT_CUTOFF = 8192;
+
+    private static final int MIN_CUTOFF = 2;
+
+    private static volatile int cutoff = Math.max(MIN_CUTOFF,
+            Integer.getInteger("clinic.sort.parallelCutoff", DEFAULT_CUTOFF));
+
+    private ParallelMergeSort() {
+    }
+
+    /**
+     * Gets the sequential cutoff.
+     *
+     * @return the number of elements at or below which a range is sorted sequentially
+     */
+    public static int getCutoff() {
+        return cutoff;
+    }
+
+    /**
+     * Sets the sequential cutoff. Integer.MAX_VALUE turns parallel sorting off.
+     * The initial value comes from the clinic.sort.parallelCutoff system property, or DEFAULT_CUTOFF.
+     *
+     * @param newCutoff the number of elements at or below which a range is sorted sequentially
+     * @throws IllegalArgumentException if the cutoff is less than 2
+     */
+    public static void setCutoff(int newCutoff) {
+        if (newCutoff < MIN_CUTOFF) {
+            throw new IllegalArgumentException("Invalid cutoff: " + newCutoff);
+        }
+        cutoff = newCutoff;
+    }
+
+    /**
+     * Sorts the range [from, to) of the array with the comparator.
+     * The sort is stable and runs in parallel when the range is longer than the cutoff.
+     *
+     * @param a    the array to sort
+     * @param from the first index of the range
+     * @param to   one past the last index of the range
+     * @param c    the comparator that defines the order
+     * @param <T>  the type of the elements
+     */
+    public static <T> void sort(T[] a, int from, int to, Comparator<? super T> c) {
+        int threshold = cutoff;
+        if (!isParallel(to - from, threshold)) {
+            Arrays.sort(a, from, to, c);
+            return;
+        }
+        T[] buffer = Arrays.copyOfRange(a, from, to); // Only its length and type matter
+        ForkJoinPool.commonPool().invoke(new MergeSortTask<>(a, buffer, from, from, to, c, threshold));
+    }
+
+    /**
+     * Sorts a list with the comparator. The sort is stable and runs in parallel when the list is
+     * longer than the cutoff: the list is copied to an array, sorted, and written back in one pass,
+     * which also keeps the hash index of an IndexedList in step. Shorter lists are sorted with List.sort.
+     *
+     * @param list the list to sort
+     * @param c    the comparator that defines the order
+     * @param <T>  the type of the elements
+     */
+    public static <T> void sort(List<T> list, Comparator<? super T> c) {
+        int size = list.size();
+        if (!isParallel(size, cutoff)) {
+            list.sort(c);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        T[] sorted = (T[]) new Object[size];
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = list.get(i);
+            indexes[i] = i;
+        }
+        sort(sorted, 0, size, c);
+        list.setAll(indexes, i -> sorted[i], size);
+    }
+
+    /**
+     * Sorts the range [from, to) of the array of keys in ascending order.
+     * The sort runs in parallel when the range is longer than the cutoff.
+     *
+     * @param keys the keys to sort
+     * @param from the first index of the range
+     * @param to   one past the last index of the range
+     */
+    public static void sort(long[] keys, int from, int to) {
+        if (isParallel(to - from, cutoff)) {
+            Arrays.parallelSort(keys, from, to);
+        } else {
+            Arrays.sort(keys, from, to);
+        }
+    }
+
+    /**
+     * Checks whether a range is worth sorting in parallel.
+     *
+     * @param length    the number of elements in the range
+     * @param threshold the sequential cutoff
+     * @return true if the range is longer than the cutoff and the common pool can run tasks in parallel
+     */
+    private static boolean isParallel(int length, int threshold) {
+        return length > threshold && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Sorts one range of the array, forking a task for each half while the range is longer than the cutoff.
+     * ForkJoinTask is Serializable, but these tasks are never serialized; the array and comparator
+     * fields are transient.
+     *
+     * @param <T> the type of the elements
+     */
+    private static final class MergeSortTask<T> extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient T[] a;
+        private final transient T[] buffer;
+        private final int offset;
+        private final int from;
+        private final int to;
+        private final transient Comparator<? super T> c;
+        private final int threshold;
+
+        /**
+         * Constructs a task for the range [from, to).
+         *
+         * @param a         the array to sort
+         * @param buffer    scratch space for the whole range being sorted
+         * @param offset    the index of the array that buffer index 0 stands for
+         * @param from      the first index of the range
+         * @param to        one past the last index of the range
+         * @param c         the comparator that defines the order
+         * @param threshold the sequential cutoff
+         */
+        MergeSortTask(T[] a, T[] buffer, int offset, int from, int to, Comparator<? super T> c, int threshold) {
+            this.a = a;
+            this.buffer = buffer;
+            this.offset = offset;
+            this.from = from;
+            this.to = to;
+            this.c = c;
+            this.threshold = threshold;
+        }
+
+        /**
+         * Sorts the range sequentially if it is short enough, otherwise sorts both halves in parallel and merges them.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                Arrays.sort(a, from, to, c);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MergeSortTask<>(a, buffer, offset, from, mid, c, threshold),
+                    new MergeSortTask<>(a, buffer, offset, mid, to, c, threshold));
+            merge(mid);
+        }
+
+        /**
+         * Merges the sorted halves [from, mid) and [mid, to), taking from the left half on ties.
+         *
+         * @param mid the first index of the right half
+         */
+        private void merge(int mid) {
+            if (c.compare(a[mid - 1], a[mid]) <= 0) {
+                return; // Already in order
+            }
+            System.arraycopy(a, from, buffer, from - offset, mid - from);
+            int left = from - offset;
+            int leftEnd = mid - offset;
+            int right = mid;
+            int out = from;
+            while (left < leftEnd && right < to) {
+                a[out++] = c.compare(buffer[left], a[right]) <= 0 ? buffer[left++] : a[right++];
+            }
+            System.arraycopy(buffer, left, a, out, leftEnd - left);
+        }
+    }
+}
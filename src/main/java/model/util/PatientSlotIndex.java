@@ -0,0 +1,165 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.Date;
+import model.project1.Profile;
+import model.project1.Timeslot;
+
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * The PatientSlotIndex class finds a patient's appointment at a date and timeslot by hashing.
+ * Keys are normalized the way the controller compares patients: names are case-folded and
+ * the dates are reduced to epoch days, so a lookup is a single hash probe instead of a scan
+ * with string comparisons. A patient can hold an office and an imaging appointment in the
+ * same slot, so each key keeps its appointments in booking order.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class PatientSlotIndex {
+    private final HashMap<Key, Entry> entries;
+
+    /**
+     * The normalized patient, date and timeslot of an appointment.
+     *
+     * @param lastName  the case-folded last name
+     * @param firstName the case-folded first name
+     * @param dob       the epoch day of the date of birth
+     * @param day       the epoch day of the appointment
+     * @param slot      the timeslot ordinal
+     */
+    private record Key(String lastName, String firstName, int dob, int day, int slot) {
+        /**
+         * Creates the key of a patient at a date and timeslot.
+         *
+         * @param firstName the first name, in any case
+         * @param lastName  the last name, in any case
+         * @param dob       the date of birth
+         * @param date      the appointment date
+         * @param timeslot  the timeslot
+         * @return the key
+         */
+        private static Key of(String firstName, String lastName, Date dob, Date date, Timeslot timeslot) {
+            return new Key(lastName.toLowerCase(Locale.ROOT), firstName.toLowerCase(Locale.ROOT),
+                    dob.getEpochDay(), date.getEpochDay(), timeslot.getOrdinal());
+        }
+
+        /**
+         * Creates the key of an appointment.
+         *
+         * @param appointment the appointment
+         * @return the key
+         */
+        private static Key of(Appointment appointment) {
+            Profile profile = appointment.getPatient().getProfile();
+            return of(profile.getFname(), profile.getLname(), profile.getDob(),
+                    appointment.getDate(), appointment.getTimeslot());
+        }
+    }
+
+    /**
+     * An appointment under a key, linked to the next appointment under the same key.
+     */
+    private static final class Entry {
+        private final Appointment appointment;
+        private Entry next;
+
+        /**
+         * Constructs an entry.
+         *
+         * @param appointment the appointment
+         */
+        private Entry(Appointment appointment) {
+            this.appointment = appointment;
+        }
+    }
+
+    /**
+     * Constructs an empty index.
+     */
+    public PatientSlotIndex() {
+        entries = new HashMap<>();
+    }
+
+    /**
+     * Adds the appointment under its patient, date and timeslot.
+     *
+     * @param appointment the appointment being booked
+     */
+    public void book(Appointment appointment) {
+        Entry added = new Entry(appointment);
+        Entry head = entries.putIfAbsent(Key.of(appointment), added);
+        if (head != null) {
+            while (head.next != null) {
+                head = head.next;
+            }
+            head.next = added;
+        }
+    }
+
+    /**
+     * Removes the appointment from under its patient, date and timeslot.
+     * Call it before the appointment's date or timeslot changes.
+     *
+     * @param appointment the appointment being cancelled
+     */
+    public void cancel(Appointment appointment) {
+        Key key = Key.of(appointment);
+        Entry head = entries.get(key);
+        if (head == null) {
+            return;
+        }
+        if (head.appointment == appointment) {
+            if (head.next == null) {
+                entries.remove(key);
+            } else {
+                entries.put(key, head.next);
+            }
+            return;
+        }
+        for (Entry entry = head; entry.next != null; entry = entry.next) {
+            if (entry.next.appointment == appointment) {
+                entry.next = entry.next.next;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds the patient's appointment at the date and timeslot.
+     * Names match ignoring case.
+     *
+     * @param firstName the patient's first name
+     * @param lastName  the patient's last name
+     * @param dob       the patient's date of birth
+     * @param date      the appointment date
+     * @param timeslot  the timeslot
+     * @return the earliest booked such appointment, or null if there is none
+     */
+    public Appointment find(String firstName, String lastName, Date dob, Date date, Timeslot timeslot) {
+        Entry head = entries.get(Key.of(firstName, lastName, dob, date, timeslot));
+        return head == null ? null : head.appointment;
+    }
+
+    /**
+     * Finds the patient's imaging appointment at the date and timeslot.
+     * Names match ignoring case.
+     *
+     * @param firstName the patient's first name
+     * @param lastName  the patient's last name
+     * @param dob       the patient's date of birth
+     * @param date      the appointment date
+     * @param timeslot  the timeslot
+     * @return the imaging appointment, or null if there is none
+     */
+    public Imaging findImaging(String firstName, String lastName, Date dob, Date date, Timeslot timeslot) {
+        for (Entry entry = entries.get(Key.of(firstName, lastName, dob, date, timeslot));
+             entry != null; entry = entry.next) {
+            if (entry.appointment instanceof Imaging imaging) {
+                return imaging;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,239 @@
+package model.util;
+
+import model.project1.List;
+import model.project1.Location;
+import model.project1.Profile;
+import model.project1.Provider;
+import model.project1.Specialty;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * The ProviderRegistry class holds the loaded providers with every index the controller looks them up by.
+ * It is built once from the roster and not modified afterwards: doctors are hashed by
+ * their NPI, parsed to an int once, and by their case-folded full name; providers are
+ * grouped by location, specialty and type in EnumMaps; and the last-name order used by
+ * the reports is computed once, with each provider's id set to its position in it.
+ * Building a registry changes no shared state: the reports rank the names of the registry
+ * installed with Sort.setProviders(byLastName()), which the owner calls once it uses the registry.
+ * The lists the registry returns are shared and must not be modified. A changed roster is
+ * loaded into a new registry and swapped in whole; resolve maps the old providers to the new ones.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class ProviderRegistry {
+    /**
+     * The kinds of provider.
+     */
+    public enum Type {
+        DOCTOR,
+        TECHNICIAN
+    }
+
+    private final List<Provider> providers; // Roster order
+    private final List<Provider> byLastName; // Index i holds the provider with id i
+    private final List<Provider> firstAtEachLocation; // Roster order
+    private final HashMap<Integer, Doctor> doctorsByNpi;
+    private final HashMap<String, Doctor> doctorsByName;
+    private final EnumMap<Location, List<Provider>> byLocation;
+    private final EnumMap<Specialty, List<Doctor>> bySpecialty;
+    private final EnumMap<Type, List<Provider>> byType;
+    private final EnumMap<Type, HashMap<Profile, Provider>> byProfile;
+
+    /**
+     * Builds the registry of the roster and assigns every provider its id.
+     * When two doctors share an NPI or a full name, the first one in the roster is indexed.
+     *
+     * @param roster the providers, in roster order
+     */
+    public ProviderRegistry(List<Provider> roster) {
+        providers = new List<>(roster.size());
+        firstAtEachLocation = new List<>();
+        doctorsByNpi = new HashMap<>();
+        doctorsByName = new HashMap<>();
+        byLocation = new EnumMap<>(Location.class);
+        bySpecialty = new EnumMap<>(Specialty.class);
+        byType = new EnumMap<>(Type.class);
+        byProfile = new EnumMap<>(Type.class);
+        for (Location location : Location.values()) {
+            byLocation.put(location, new List<>());
+        }
+        for (Specialty specialty : Specialty.values()) {
+            bySpecialty.put(specialty, new List<>());
+        }
+        for (Type type : Type.values()) {
+            byType.put(type, new List<>());
+            byProfile.put(type, new HashMap<>());
+        }
+        for (Provider provider : roster) {
+            add(provider);
+        }
+        byLastName = new List<>(providers.size());
+        for (Provider provider : providers) {
+            byLastName.add(provider);
+        }
+        Sort.provider(byLastName);
+        for (int i = 0; i < byLastName.size(); i++) {
+            byLastName.get(i).setId(i);
+        }
+    }
+
+    /**
+     * Indexes one provider.
+     *
+     * @param provider the provider
+     */
+    private void add(Provider provider) {
+        providers.add(provider);
+        List<Provider> atLocation = byLocation.get(provider.getLocation());
+        if (atLocation.isEmpty()) {
+            firstAtEachLocation.add(provider);
+        }
+        atLocation.add(provider);
+        if (provider instanceof Doctor doctor) {
+            byType.get(Type.DOCTOR).add(doctor);
+            byProfile.get(Type.DOCTOR).putIfAbsent(doctor.getProfile(), doctor);
+            bySpecialty.get(doctor.getSpecialty()).add(doctor);
+            doctorsByName.putIfAbsent(normalize(doctor.getProfile().getFname(), doctor.getProfile().getLname()), doctor);
+            try {
+                doctorsByNpi.putIfAbsent(Integer.parseInt(doctor.getNpi()), doctor);
+            } catch (NumberFormatException e) {
+                // Not reachable by NPI, as before
+            }
+        } else if (provider instanceof Technician) {
+            byType.get(Type.TECHNICIAN).add(provider);
+            byProfile.get(Type.TECHNICIAN).putIfAbsent(provider.getProfile(), provider);
+        }
+    }
+
+    /**
+     * Gets the number of providers.
+     *
+     * @return the number of providers
+     */
+    public int size() {
+        return providers.size();
+    }
+
+    /**
+     * Gets every provider in roster order.
+     *
+     * @return the providers
+     */
+    public List<Provider> providers() {
+        return providers;
+    }
+
+    /**
+     * Gets every provider in last-name order, which is also id order.
+     *
+     * @return the providers sorted by last name
+     */
+    public List<Provider> byLastName() {
+        return byLastName;
+    }
+
+    /**
+     * Gets the provider with the id.
+     *
+     * @param id the provider id
+     * @return the provider, or null if no provider has the id
+     */
+    public Provider byId(int id) {
+        return id >= 0 && id < byLastName.size() ? byLastName.get(id) : null;
+    }
+
+    /**
+     * Gets the first provider of each location, in roster order.
+     *
+     * @return one provider per location with providers
+     */
+    public List<Provider> firstAtEachLocation() {
+        return firstAtEachLocation;
+    }
+
+    /**
+     * Gets the providers at a location, in roster order.
+     *
+     * @param location the location
+     * @return the providers at the location
+     */
+    public List<Provider> atLocation(Location location) {
+        return byLocation.get(location);
+    }
+
+    /**
+     * Gets the doctors of a specialty, in roster order.
+     *
+     * @param specialty the specialty
+     * @return the doctors of the specialty
+     */
+    public List<Doctor> withSpecialty(Specialty specialty) {
+        return bySpecialty.get(specialty);
+    }
+
+    /**
+     * Gets the providers of a type, in roster order.
+     *
+     * @param type the type
+     * @return the providers of the type
+     */
+    public List<Provider> ofType(Type type) {
+        return byType.get(type);
+    }
+
+    /**
+     * Finds a doctor by NPI.
+     *
+     * @param npi the NPI
+     * @return the doctor, or null if no doctor has the NPI
+     */
+    public Doctor doctorByNpi(int npi) {
+        return doctorsByNpi.get(npi);
+    }
+
+    /**
+     * Finds a doctor by full name, ignoring case.
+     *
+     * @param fullName the first and last name, separated by a space
+     * @return the doctor, or null if no doctor has the name
+     */
+    public Doctor doctorByName(String fullName) {
+        return doctorsByName.get(fullName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Finds the provider in this registry that stands for a provider of another registry,
+     * that is, the provider of the same type with the same profile.
+     *
+     * @param provider a provider, possibly from an earlier roster
+     * @return the matching provider, or null if this roster has none
+     */
+    public Provider resolve(Provider provider) {
+        return resolve(provider instanceof Doctor ? Type.DOCTOR : Type.TECHNICIAN, provider.getProfile());
+    }
+
+    /**
+     * Finds the provider of a type with a profile.
+     *
+     * @param type    the type
+     * @param profile the profile
+     * @return the provider, or null if this roster has none
+     */
+    public Provider resolve(Type type, Profile profile) {
+        return byProfile.get(type).get(profile);
+    }
+
+    /**
+     * Normalizes a full name for lookup.
+     *
+     * @param firstName the first name
+     * @param lastName  the last name
+     * @return the case-folded full name
+     */
+    private static String normalize(String firstName, String lastName) {
+        return (firstName + " " + lastName).toLowerCase(Locale.ROOT);
+    }
+}
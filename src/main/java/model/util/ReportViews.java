@@ -0,0 +1,230 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.List;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * The ReportViews class keeps the appointments in report order as they are booked.
+ * There is one ordered view per report key: A (date/time/provider), P (patient),
+ * L (county), O (office appointments only) and I (imaging appointments only).
+ * Booking, cancelling or rescheduling updates every view in O(log n), so a report is
+ * a plain in-order walk of its view and the master appointment list is never reordered.
+ * Appointments that tie on the report order stay in booking order.
+ * A whole book, such as one replayed from the journal, is loaded with of, which sorts each
+ * view by packed keys and builds its tree from the sorted run in linear time.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public class ReportViews {
+    private final IdentityHashMap<Appointment, Long> bookingOrder = new IdentityHashMap<>();
+    private long nextBooking;
+
+    private final TreeSet<Appointment> byDateTimeProvider = new TreeSet<>(inBookingOrder(Sort.BY_DATE_TIME_PROVIDER));
+    private final TreeSet<Appointment> byPatient = new TreeSet<>(inBookingOrder(Sort.BY_PATIENT));
+    private final TreeSet<Appointment> byCounty = new TreeSet<>(inBookingOrder(Sort.BY_COUNTY_DATE_TIME));
+    private final TreeSet<Appointment> officeByCounty = new TreeSet<>(inBookingOrder(Sort.BY_COUNTY_DATE_TIME));
+    private final TreeSet<Appointment> imagingByCounty =
+            new TreeSet<>(inBookingOrder(Sort.BY_COUNTY_DATE_TIME_TECHNICIAN));
+
+    /**
+     * Breaks the ties of a report order by booking order, so each view is a total order.
+     *
+     * @param order the report order
+     * @return the report order followed by booking order
+     */
+    private Comparator<Appointment> inBookingOrder(Comparator<Appointment> order) {
+        return order.thenComparingLong(bookingOrder::get);
+    }
+
+    /**
+     * Builds the views of a book of appointments all at once.
+     *
+     * @param appointments the appointments, in booking order
+     * @return the views
+     * @throws IllegalArgumentException if an appointment appears twice
+     */
+    public static ReportViews of(Iterable<Appointment> appointments) {
+        ReportViews views = new ReportViews();
+        List<Appointment> all = new List<>();
+        List<Appointment> office = new List<>();
+        List<Appointment> imaging = new List<>();
+        for (Appointment appointment : appointments) {
+            if (views.bookingOrder.put(appointment, views.nextBooking++) != null) {
+                throw new IllegalArgumentException("Appointment is already in the views: " + appointment);
+            }
+            all.add(appointment);
+            if (!(appointment.getProvider() instanceof Technician)) {
+                office.add(appointment);
+            }
+            if (appointment instanceof Imaging) {
+                imaging.add(appointment);
+            }
+        }
+        fill(views.byDateTimeProvider, copyOf(all), SortKeys.Order.DATE_TIME_PROVIDER);
+        fill(views.byPatient, copyOf(all), SortKeys.Order.PATIENT_DATE);
+        fill(views.byCounty, all, SortKeys.Order.COUNTY_DATE_TIME);
+        fill(views.officeByCounty, office, SortKeys.Order.COUNTY_DATE_TIME);
+        fill(views.imagingByCounty, imaging, SortKeys.Order.COUNTY_DATE_TIME_TECHNICIAN);
+        return views;
+    }
+
+    /**
+     * Sorts the appointments of an empty view and builds the view from them.
+     * The packed keys break ties by position, which is booking order, like the view's comparator.
+     *
+     * @param view         the empty view
+     * @param appointments the appointments of the view, in booking order; sorted in place
+     * @param order        the packed-key order matching the view's comparator
+     */
+    private static void fill(TreeSet<Appointment> view, List<Appointment> appointments, SortKeys.Order order) {
+        if (!SortKeys.sort(appointments, null, order)) {
+            ParallelMergeSort.sort(appointments, view.comparator());
+        }
+        view.addAll(new SortedRun<>(appointments, view.comparator()));
+    }
+
+    /**
+     * Copies a list.
+     *
+     * @param appointments the list
+     * @return a new list with the same appointments in the same order
+     */
+    private static List<Appointment> copyOf(List<Appointment> appointments) {
+        List<Appointment> copy = new List<>(appointments.size());
+        copy.addAll(appointments);
+        return copy;
+    }
+
+    /**
+     * Adds a newly booked appointment to every view it belongs to.
+     *
+     * @param appointment the appointment to add
+     * @throws IllegalArgumentException if the appointment is already in the views
+     */
+    public void add(Appointment appointment) {
+        if (bookingOrder.containsKey(appointment)) {
+            throw new IllegalArgumentException("Appointment is already in the views: " + appointment);
+        }
+        bookingOrder.put(appointment, nextBooking++);
+        insert(appointment);
+    }
+
+    /**
+     * Removes a cancelled appointment from every view.
+     *
+     * @param appointment the appointment to remove
+     * @return true if the appointment was removed, false if it was not in the views
+     */
+    public boolean remove(Appointment appointment) {
+        if (!bookingOrder.containsKey(appointment)) {
+            return false;
+        }
+        delete(appointment);
+        bookingOrder.remove(appointment);
+        return true;
+    }
+
+    /**
+     * Changes an appointment in the views without losing its booking order.
+     * Use this for any change that affects a report order, such as a new timeslot.
+     * If the change throws, the appointment is put back in the views as the change left it.
+     *
+     * @param appointment the appointment to change
+     * @param change      the change to apply to the appointment
+     * @return true if the appointment was found and changed, false if it was not in the views
+     */
+    public boolean update(Appointment appointment, Consumer<? super Appointment> change) {
+        if (!bookingOrder.containsKey(appointment)) {
+            return false;
+        }
+        delete(appointment);
+        try {
+            change.accept(appointment);
+        } finally {
+            insert(appointment);
+        }
+        return true;
+    }
+
+    /**
+     * Removes every appointment from the views.
+     */
+    public void clear() {
+        byDateTimeProvider.clear();
+        byPatient.clear();
+        byCounty.clear();
+        officeByCounty.clear();
+        imagingByCounty.clear();
+        bookingOrder.clear();
+    }
+
+    /**
+     * Gets the number of appointments in the views.
+     *
+     * @return the number of appointments
+     */
+    public int size() {
+        return bookingOrder.size();
+    }
+
+    /**
+     * Gets the ordered view for a report key.
+     *
+     * @param key the report key (A, P, L, O or I)
+     * @return a read-only view of the appointments in report order
+     * @throws IllegalArgumentException if the key has no view
+     */
+    public Set<Appointment> view(char key) {
+        switch (key) {
+            case 'A':
+                return Collections.unmodifiableSet(byDateTimeProvider);
+            case 'P':
+                return Collections.unmodifiableSet(byPatient);
+            case 'L':
+                return Collections.unmodifiableSet(byCounty);
+            case 'O':
+                return Collections.unmodifiableSet(officeByCounty);
+            case 'I':
+                return Collections.unmodifiableSet(imagingByCounty);
+            default:
+                throw new IllegalArgumentException("No view for key: " + key);
+        }
+    }
+
+    /**
+     * Inserts an appointment into every view it belongs to.
+     *
+     * @param appointment the appointment to insert
+     */
+    private void insert(Appointment appointment) {
+        byDateTimeProvider.add(appointment);
+        byPatient.add(appointment);
+        byCounty.add(appointment);
+        if (!(appointment.getProvider() instanceof Technician)) {
+            officeByCounty.add(appointment);
+        }
+        if (appointment instanceof Imaging) {
+            imagingByCounty.add(appointment);
+        }
+    }
+
+    /**
+     * Deletes an appointment from every view it belongs to.
+     *
+     * @param appointment the appointment to delete
+     */
+    private void delete(Appointment appointment) {
+        byDateTimeProvider.remove(appointment);
+        byPatient.remove(appointment);
+        byCounty.remove(appointment);
+        officeByCounty.remove(appointment);
+        imagingByCounty.remove(appointment);
+    }
+}
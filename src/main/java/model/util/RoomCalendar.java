@@ -0,0 +1,135 @@
+package model.util;
+
+import model.project1.Date;
+import model.project1.Location;
+import model.project1.Provider;
+import model.project1.Timeslot;
+
+/**
+ * The RoomCalendar class records which timeslots each radiology room is booked on each day.
+ * Every location has one room of each Radiology type; a (Location, Radiology, epoch day)
+ * triple maps to a 12-bit mask with one bit per timeslot ordinal, using the enum ordinals
+ * as dense indexes. Checking a room is a hash probe and a bit test, and the free rooms of
+ * a location, or the locations where a room is free, come back as masks over ordinals.
+ * An imaging appointment occupies the room of its technician's location.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class RoomCalendar {
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Radiology[] ROOMS = Radiology.values();
+
+    private final SlotMasks masks;
+
+    /**
+     * Constructs an empty calendar.
+     */
+    public RoomCalendar() {
+        masks = new SlotMasks();
+    }
+
+    /**
+     * Checks if the room at the location is free at the date and timeslot.
+     *
+     * @param location the location
+     * @param room     the radiology room
+     * @param date     the date
+     * @param timeslot the timeslot
+     * @return true if the room is free, false otherwise
+     */
+    public boolean isAvailable(Location location, Radiology room, Date date, Timeslot timeslot) {
+        return (slotMask(location, room, date) & 1 << timeslot.getOrdinal()) == 0;
+    }
+
+    /**
+     * Gets the timeslots the room at the location is booked on the date.
+     *
+     * @param location the location
+     * @param room     the radiology room
+     * @param date     the date
+     * @return a mask with bit i set if the timeslot with ordinal i is booked
+     */
+    public int slotMask(Location location, Radiology room, Date date) {
+        return masks.get(key(location, room, date));
+    }
+
+    /**
+     * Gets the rooms at the location that are free at the date and timeslot.
+     *
+     * @param location the location
+     * @param date     the date
+     * @param timeslot the timeslot
+     * @return a mask with bit i set if the room with Radiology ordinal i is free
+     */
+    public int freeRooms(Location location, Date date, Timeslot timeslot) {
+        int free = 0;
+        for (Radiology room : ROOMS) {
+            if (isAvailable(location, room, date, timeslot)) {
+                free |= 1 << room.ordinal();
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Gets the locations whose room is free at the date and timeslot.
+     *
+     * @param room     the radiology room
+     * @param date     the date
+     * @param timeslot the timeslot
+     * @return a mask with bit i set if the room is free at the location with ordinal i
+     */
+    public int freeLocations(Radiology room, Date date, Timeslot timeslot) {
+        int free = 0;
+        for (Location location : LOCATIONS) {
+            if (isAvailable(location, room, date, timeslot)) {
+                free |= 1 << location.ordinal();
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Marks the room of the imaging appointment as booked at its date and timeslot.
+     *
+     * @param imaging the imaging appointment being booked
+     * @throws IllegalArgumentException if the room is already booked at that slot
+     */
+    public void book(Imaging imaging) {
+        if (!masks.add(key(imaging), 1 << imaging.getTimeslot().getOrdinal())) {
+            throw new IllegalArgumentException("Room already booked: " + imaging);
+        }
+    }
+
+    /**
+     * Frees the room of the imaging appointment at its date and timeslot.
+     *
+     * @param imaging the imaging appointment being cancelled
+     */
+    public void cancel(Imaging imaging) {
+        masks.remove(key(imaging), 1 << imaging.getTimeslot().getOrdinal());
+    }
+
+    /**
+     * Gets the key of the imaging appointment's room and date.
+     *
+     * @param imaging the imaging appointment
+     * @return the key
+     */
+    private static long key(Imaging imaging) {
+        Location location = ((Provider) imaging.getProvider()).getLocation();
+        return key(location, imaging.getRoom(), imaging.getDate());
+    }
+
+    /**
+     * Packs a room's dense index and a date into a key.
+     *
+     * @param location the location
+     * @param room     the radiology room
+     * @param date     the date
+     * @return the key
+     */
+    private static long key(Location location, Radiology room, Date date) {
+        return SlotMasks.key(location.ordinal() * ROOMS.length + room.ordinal(), date.getEpochDay());
+    }
+}
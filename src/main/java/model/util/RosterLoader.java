@@ -0,0 +1,315 @@
+package model.util;
+
+import model.project1.Date;
+import model.project1.List;
+import model.project1.Location;
+import model.project1.Profile;
+import model.project1.Provider;
+import model.project1.Specialty;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * The RosterLoader class reads a providers.txt roster into a ProviderRegistry.
+ * The file is read into memory in one call and cut into chunks at newline boundaries; the chunks are
+ * parsed in parallel on the common ForkJoinPool and their providers joined in file order,
+ * so the registry is the same as a sequential read would build. A malformed line is
+ * recorded as an error with its line number and skipped; the rest of the roster still loads.
+ * The file is not memory-mapped: a mapping stays open until it is garbage collected, and on
+ * Windows that keeps the roster from being rewritten while the application is running.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class RosterLoader {
+    /**
+     * The smallest chunk worth parsing as a separate task, in bytes.
+     */
+    private static final int MIN_CHUNK_BYTES = 1 << 16;
+
+    /**
+     * Chunks per worker thread, so uneven chunks still balance.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final int DOCTOR_TOKENS = 7;
+    private static final int TECHNICIAN_TOKENS = 6;
+
+    private RosterLoader() {
+    }
+
+    /**
+     * A roster line that could not be parsed.
+     *
+     * @param line    the line number, starting at 1
+     * @param text    the line
+     * @param message why the line was rejected
+     */
+    public record LineError(int line, String text, String message) {
+        /**
+         * Returns a one-line description of the error.
+         *
+         * @return the error text
+         */
+        @Override
+        public String toString() {
+            return String.format("Line %d skipped: %s [%s]", line, message, text);
+        }
+    }
+
+    /**
+     * The outcome of loading a roster.
+     *
+     * @param registry the registry of the providers that parsed
+     * @param errors   the lines that did not parse, in file order
+     * @param lines    the number of non-blank lines read
+     * @param nanos    the time taken to read, parse and index the roster
+     */
+    public record Result(ProviderRegistry registry, List<LineError> errors, int lines, long nanos) {
+        /**
+         * Returns a one-line summary of the load with its time and line throughput.
+         *
+         * @return the summary text
+         */
+        @Override
+        public String toString() {
+            double seconds = nanos / 1e9;
+            return String.format("Loaded %d provider(s) from %d line(s) in %.1f ms (%,.0f lines/s), %d error(s).",
+                    registry.size(), lines, nanos / 1e6, seconds > 0 ? lines / seconds : 0.0, errors.size());
+        }
+    }
+
+    /**
+     * Loads the roster file.
+     *
+     * @param path the roster file
+     * @return the registry, the rejected lines and the load statistics
+     * @throws IOException if the file cannot be read
+     */
+    public static Result load(Path path) throws IOException {
+        long start = System.nanoTime();
+        long size = Files.size(path);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Roster too large: " + size + " bytes");
+        }
+        byte[] roster = Files.readAllBytes(path);
+        int[] bounds = chunkBounds(roster);
+        Chunk[] chunks = new Chunk[bounds.length - 1];
+        if (chunks.length > 1 && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            IntStream.range(0, chunks.length).parallel()
+                    .forEach(i -> chunks[i] = parse(roster, bounds[i], bounds[i + 1]));
+        } else {
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = parse(roster, bounds[i], bounds[i + 1]);
+            }
+        }
+
+        List<Provider> providers = new List<>();
+        List<LineError> errors = new List<>();
+        int lineOffset = 0;
+        int lines = 0;
+        for (Chunk chunk : chunks) {
+            for (Provider provider : chunk.providers) {
+                providers.add(provider);
+            }
+            for (LineError error : chunk.errors) {
+                errors.add(new LineError(lineOffset + error.line(), error.text(), error.message()));
+            }
+            lineOffset += chunk.lineCount;
+            lines += chunk.nonBlankLines;
+        }
+        ProviderRegistry registry = new ProviderRegistry(providers);
+        return new Result(registry, errors, lines, System.nanoTime() - start);
+    }
+
+    /**
+     * Parses one roster line.
+     *
+     * @param line the line, trimmed
+     * @return the provider
+     * @throws IllegalArgumentException if the line is not a valid doctor or technician
+     */
+    public static Provider parseLine(String line) {
+        String[] tokens = tokens(line);
+        if (tokens.length < TECHNICIAN_TOKENS) {
+            throw new IllegalArgumentException("Missing fields");
+        }
+        String providerType = tokens[0].toUpperCase();
+        Profile profile = new Profile(tokens[1], tokens[2], parseDate(tokens[3]));
+        Location location = valueOf(Location.class, tokens[4], "location");
+        if (providerType.equals("D")) {
+            if (tokens.length < DOCTOR_TOKENS) {
+                throw new IllegalArgumentException("Missing NPI");
+            }
+            return new Doctor(profile, location, valueOf(Specialty.class, tokens[5], "specialty"), tokens[6]);
+        } else if (providerType.equals("T")) {
+            return new Technician(profile, location, Integer.parseInt(tokens[5]));
+        }
+        throw new IllegalArgumentException("Unknown provider type: " + tokens[0]);
+    }
+
+    /**
+     * The providers and errors of one chunk, with line numbers relative to the chunk.
+     */
+    private static final class Chunk {
+        private final List<Provider> providers = new List<>();
+        private final List<LineError> errors = new List<>();
+        private int lineCount;
+        private int nonBlankLines;
+    }
+
+    /**
+     * Splits the roster into chunks that each end just after a newline, or at the end of the roster.
+     *
+     * @param roster the bytes of the roster file
+     * @return the chunk boundaries: chunk i spans [bounds[i], bounds[i + 1])
+     */
+    private static int[] chunkBounds(byte[] roster) {
+        int size = roster.length;
+        int targetChunks = ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD;
+        int chunkBytes = Math.max(MIN_CHUNK_BYTES, size / Math.max(1, targetChunks));
+        List<Integer> bounds = new List<>();
+        bounds.add(0);
+        int start = 0;
+        while (start < size) {
+            int end = (int) Math.min(size, (long) start + chunkBytes);
+            while (end < size && roster[end - 1] != '\n') {
+                end++;
+            }
+            bounds.add(end);
+            start = end;
+        }
+        if (size == 0) {
+            bounds.add(0);
+        }
+        int[] result = new int[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Parses the lines in one chunk of the roster.
+     *
+     * @param roster the bytes of the roster file
+     * @param from   the first byte of the chunk
+     * @param to     one past the last byte of the chunk
+     * @return the chunk's providers and errors
+     */
+    private static Chunk parse(byte[] roster, int from, int to) {
+        Chunk chunk = new Chunk();
+        int lineStart = from;
+        while (lineStart < to) {
+            int lineEnd = lineStart;
+            while (lineEnd < to && roster[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            chunk.lineCount++;
+            String line = new String(roster, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8).trim();
+            if (!line.isEmpty()) {
+                chunk.nonBlankLines++;
+                try {
+                    chunk.providers.add(parseLine(line));
+                } catch (RuntimeException e) {
+                    chunk.errors.add(new LineError(chunk.lineCount, line, describe(e)));
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * Splits a line at runs of whitespace.
+     *
+     * @param line the line, trimmed
+     * @return the tokens
+     */
+    private static String[] tokens(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); ) {
+            while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            if (i < line.length()) {
+                count++;
+            }
+            while (i < line.length() && !Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+        }
+        String[] tokens = new String[count];
+        int t = 0;
+        for (int i = 0; i < line.length(); ) {
+            while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < line.length() && !Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                tokens[t++] = line.substring(start, i);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Parses a date in mm/dd/yyyy form.
+     *
+     * @param text the date
+     * @return the date
+     * @throws IllegalArgumentException if the date is malformed or not a calendar date
+     */
+    private static Date parseDate(String text) {
+        int first = text.indexOf('/');
+        int second = text.indexOf('/', first + 1);
+        if (first < 0 || second < 0) {
+            throw new IllegalArgumentException("Invalid date: " + text);
+        }
+        Date date = Date.of(Integer.parseInt(text.substring(second + 1)),
+                Integer.parseInt(text.substring(0, first)),
+                Integer.parseInt(text.substring(first + 1, second)));
+        if (!date.isValid()) {
+            throw new IllegalArgumentException("Invalid date: " + text);
+        }
+        return date;
+    }
+
+    /**
+     * Looks up an enum constant by name, ignoring case.
+     *
+     * @param type  the enum class
+     * @param name  the name from the roster
+     * @param field the field being parsed, for the error message
+     * @param <E>   the enum type
+     * @return the constant
+     * @throws IllegalArgumentException if no constant has the name
+     */
+    private static <E extends Enum<E>> E valueOf(Class<E> type, String name, String field) {
+        try {
+            return Enum.valueOf(type, name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + name);
+        }
+    }
+
+    /**
+     * Describes why a line was rejected.
+     *
+     * @param e the exception raised while parsing the line
+     * @return the message
+     */
+    private static String describe(RuntimeException e) {
+        if (e instanceof NumberFormatException) {
+            return "Invalid number: " + e.getMessage();
+        }
+        return e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+    }
+}
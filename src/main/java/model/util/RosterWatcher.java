@@ -0,0 +1,110 @@
+package model.util;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The RosterWatcher class reloads the provider roster whenever its file changes.
+ * A daemon thread watches the file's directory with a WatchService. When the file is
+ * created or modified it waits for the writes to settle, then loads the file with
+ * RosterLoader on the same thread and hands the result to a callback. The callback
+ * therefore runs off the UI thread and must hand the new registry over to it. A roster that
+ * cannot be read, or a callback that throws, is reported and the file is still watched.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class RosterWatcher implements AutoCloseable {
+    /**
+     * How long the file must go without events before it is loaded, in milliseconds.
+     * Editors often save a file in several writes.
+     */
+    private static final long SETTLE_MILLIS = 250;
+
+    private final Path file;
+    private final WatchService watchService;
+    private final Consumer<RosterLoader.Result> onLoad;
+    private final Consumer<Exception> onError;
+    private final Thread thread;
+
+    /**
+     * Constructs a watcher for the roster file and starts watching it.
+     *
+     * @param file    the roster file
+     * @param onLoad  called on the watcher thread with each roster loaded
+     * @param onError called on the watcher thread when a changed roster cannot be read or onLoad throws
+     * @throws IOException if the file's directory cannot be watched
+     */
+    public RosterWatcher(Path file, Consumer<RosterLoader.Result> onLoad, Consumer<Exception> onError)
+            throws IOException {
+        this.file = file.toAbsolutePath();
+        this.onLoad = onLoad;
+        this.onError = onError;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "roster-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the file.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * Waits for changes to the roster file and loads it after each one, until the watcher is closed.
+     */
+    private void run() {
+        try {
+            while (true) {
+                if (!drain(watchService.take())) {
+                    continue;
+                }
+                WatchKey key;
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    drain(key);
+                }
+                try {
+                    onLoad.accept(RosterLoader.load(file));
+                } catch (IOException | RuntimeException e) {
+                    onError.accept(e); // Keep watching; the next change may load
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Closed; stop watching
+        }
+    }
+
+    /**
+     * Consumes the events of a key and resets it.
+     *
+     * @param key the signalled key
+     * @return true if one of the events was for the roster file, false otherwise
+     */
+    private boolean drain(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() != StandardWatchEventKinds.OVERFLOW) {
+                changed |= file.getFileName().equals(event.context());
+            } else {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
@@ -0,0 +1,123 @@
+package model.util;
+
+import java.util.Arrays;
+
+/**
+ * The SlotMasks class maps non-negative long keys to 12-bit timeslot masks.
+ * It is an open-addressing table of primitive keys and masks with linear probing, so
+ * lookups are a hash probe and updates do not allocate once the table has grown.
+ * Keys whose mask becomes empty keep their entry until the table is discarded.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+final class SlotMasks {
+    private static final int INITIAL_CAPACITY = 64; // Must be a power of two
+    private static final long EMPTY = -1L; // Keys are never negative
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private short[] masks;
+    private int size;
+
+    /**
+     * Constructs an empty table.
+     */
+    SlotMasks() {
+        keys = new long[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+        masks = new short[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Packs an index and an epoch day into a non-negative key.
+     *
+     * @param index the dense index, at least 0
+     * @param day   the epoch day
+     * @return the key
+     */
+    static long key(int index, int day) {
+        return (long) index << Integer.SIZE | (day & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the mask of the key.
+     *
+     * @param key the key
+     * @return the mask, or 0 if the key has no entry
+     */
+    int get(long key) {
+        int i = find(key);
+        return keys[i] == EMPTY ? 0 : masks[i];
+    }
+
+    /**
+     * Sets one bit of the key's mask.
+     *
+     * @param key the key
+     * @param bit the bit to set
+     * @return true if the bit was set, false if it was already set
+     */
+    boolean add(long key, int bit) {
+        int i = find(key);
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            masks[i] = (short) bit;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            return true;
+        }
+        if ((masks[i] & bit) != 0) {
+            return false;
+        }
+        masks[i] |= (short) bit;
+        return true;
+    }
+
+    /**
+     * Clears one bit of the key's mask.
+     *
+     * @param key the key
+     * @param bit the bit to clear
+     */
+    void remove(long key, int bit) {
+        int i = find(key);
+        if (keys[i] != EMPTY) {
+            masks[i] &= (short) ~bit;
+        }
+    }
+
+    /**
+     * Finds the table index of the key, or the empty index where it would be inserted.
+     *
+     * @param key the key
+     * @return the index
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int i = (int) ((key * HASH_MULTIPLIER) >>> (Long.SIZE - Integer.numberOfTrailingZeros(keys.length))) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Doubles the table and reinserts every entry.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        short[] oldMasks = masks;
+        keys = new long[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        masks = new short[oldMasks.length * 2];
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                int i = find(oldKeys[j]);
+                keys[i] = oldKeys[j];
+                masks[i] = oldMasks[j];
+            }
+        }
+    }
+}
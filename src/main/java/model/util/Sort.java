@@ -3,18 +3,93 @@ package model.util;
 import javafx.fxml.FXML;
 import model.project1.Appointment;
 import model.project1.List;
+import model.project1.Profile;
 import model.project1.Provider;
 import com.example.demo.ClinicManagerController;
+import java.math.BigDecimal;
 import java.text.DecimalFormat;
+import java.util.Comparator;
+import java.util.function.Predicate;
 
 /**
  * The Sort class provides methods for sorting appointments and providers
  * based on various criteria. It includes functionality to sort appointments
  * by date, patient details, county, and billing amounts.
+ * Every sort is a stable O(n log n) sort driven by the comparators below, which can be
+ * composed further with thenComparing. The A, P, L, O and I reports sort by packed
+ * primitive keys instead (see SortKeys) and use the comparators only when the keys do not fit.
  *
  * @author Stephen Kwok and Jeongtae Kim
  */
 public class Sort {
+    /**
+     * Orders appointments by date.
+     */
+    public static final Comparator<Appointment> BY_DATE = Comparator.comparing(Appointment::getDate);
+
+    /**
+     * Orders appointments by timeslot.
+     */
+    public static final Comparator<Appointment> BY_TIMESLOT = Comparator.comparing(Appointment::getTimeslot);
+
+    /**
+     * Orders appointments by date, then timeslot.
+     */
+    public static final Comparator<Appointment> BY_DATE_TIME = BY_DATE.thenComparing(BY_TIMESLOT);
+
+    /**
+     * Orders appointments by the provider's last name.
+     */
+    public static final Comparator<Appointment> BY_PROVIDER_LAST_NAME =
+            Comparator.comparing(appointment -> appointment.getProvider().getProfile().getLname());
+
+    /**
+     * Orders appointments by the provider's profile (last name, first name, date of birth).
+     */
+    public static final Comparator<Appointment> BY_PROVIDER_PROFILE =
+            Comparator.comparing(appointment -> appointment.getProvider().getProfile());
+
+    /**
+     * Orders appointments by the county of the provider's location.
+     */
+    public static final Comparator<Appointment> BY_COUNTY =
+            Comparator.comparing(appointment -> ((Provider) appointment.getProvider()).getLocation().getCounty());
+
+    /**
+     * Orders appointments by date, timeslot, then the provider's last name.
+     */
+    public static final Comparator<Appointment> BY_DATE_TIME_PROVIDER = BY_DATE_TIME.thenComparing(BY_PROVIDER_LAST_NAME);
+
+    /**
+     * Orders appointments by the patient's profile (last name, first name, date of birth), then date.
+     */
+    public static final Comparator<Appointment> BY_PATIENT =
+            Comparator.<Appointment, Profile>comparing(appointment -> appointment.getPatient().getProfile())
+                    .thenComparing(BY_DATE);
+
+    /**
+     * Orders appointments by county, date, then timeslot.
+     */
+    public static final Comparator<Appointment> BY_COUNTY_DATE_TIME = BY_COUNTY.thenComparing(BY_DATE_TIME);
+
+    /**
+     * Orders imaging appointments by county, date, timeslot, then the technician's first name.
+     */
+    public static final Comparator<Appointment> BY_COUNTY_DATE_TIME_TECHNICIAN =
+            BY_COUNTY_DATE_TIME.thenComparing(appointment -> appointment.getProvider().getFirstName());
+
+    /**
+     * Orders appointments by the provider's specialty billing amount.
+     */
+    public static final Comparator<Appointment> BY_SPECIALTY_BILLING =
+            Comparator.comparingInt(appointment -> ((Provider) appointment.getProvider()).getSpecialtyBilling());
+
+    private static final String DATE_TIME_PROVIDER_HEADER = "List of appointments, ordered by date/time/provider.";
+    private static final String PATIENT_HEADER = "Appointments ordered by patient/date/time";
+    private static final String COUNTY_HEADER = "List of appointments, ordered by county/date/time.";
+    private static final String OFFICE_HEADER = "** List of office appointments, ordered by county/date/time.";
+    private static final String IMAGING_HEADER = "** List of radiology appointments, ordered by county/date/time.";
+
     private static ClinicManagerController controller;
 
     public static void setController(ClinicManagerController controllerInstance) {
@@ -43,31 +118,30 @@ public class Sort {
         switch (key) {
             case 'A':
                 sortAppointmentsByDateTimeProvider(list);
-                printAppointments(list, "List of appointments, ordered by date/time/provider.");
+                printAppointments(list, DATE_TIME_PROVIDER_HEADER);
                 break;
             case 'P':
                 sortAppointmentsByPatient(list);
-                printAppointments(list, "Appointments ordered by patient/date/time");
+                printAppointments(list, PATIENT_HEADER);
                 break;
             case 'L':
                 sortAppointmentsByCountyDateTime(list);
-                printAppointments(list, "List of appointments, ordered by county/date/time.");
+                printAppointments(list, COUNTY_HEADER);
                 break;
             case 'O':
                 sortNonTechnicianAppointmentsByCountyDateTime(list);
-                printNonTechnicianAppointments(list, "** List of office appointments, ordered by county/date/time.");
+                printNonTechnicianAppointments(list, OFFICE_HEADER);
                 appendText("** end of list **");
                 break;
             case 'I':
                 sortImagingAppointmentsByCountyDateTime(list);
-                printImagingAppointments(list, "** List of radiology appointments, ordered by county/date/time.");
+                printImagingAppointments(list, IMAGING_HEADER);
                 appendText("** end of list **");
                 break;
             case 'S':
                 sortAppointmentsByPatientAndPrintBilling(list);
                 break;
             case 'C':
-                sortAppointmentsByLastname(list);
                 printAppointmentsByCredit(list);
                 break;
             default:
@@ -77,136 +151,156 @@ public class Sort {
 
 
     /**
-     * Sorts appointments by patient details and prints a billing statement for each patient.
+     * Prints a report from its incrementally maintained view, without sorting.
      *
-     * @param list the list of appointments to be sorted and processed
+     * @param views the report views of the schedule
+     * @param key   the report key (A, P, L, O or I)
+     * @throws IllegalArgumentException if the key has no view
      */
-    private static void sortAppointmentsByPatientAndPrintBilling(List<Appointment> list) {
-        // First, sort the list by patient details
-        sortAppointmentsByPatient(list);
-        String[] patientNames = new String[list.size()];
-        double[] totalDueAmounts = new double[list.size()];
-        int count = 0;
-
-        // Aggregate bills for each patient
-        for (Appointment appointment : list) {
-            String patientName = appointment.getPatient().getProfile().getLname() + " " +
-                    appointment.getPatient().getProfile().getFname() + " " +
-                    appointment.getPatient().getProfile().getDob();
-            double dueAmount = getDueAmount(appointment); // Assume this method returns the due amount for the appointment
-
-            boolean found = false;
-            for (int j = 0; j < count; j++) {
-                if (patientNames[j].equals(patientName)) {
-                    totalDueAmounts[j] += dueAmount; // Combine the amounts
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
-                patientNames[count] = patientName; // Add new patient
-                totalDueAmounts[count] = dueAmount; // Initialize with due amount
-                count++;
-            }
+    public static void report(ReportViews views, char key) {
+        if (views == null || views.size() == 0) {
+            appendText("Schedule calendar is empty.");
+            return;
         }
-        DecimalFormat df = new DecimalFormat("#,###.00");
+        switch (key) {
+            case 'A':
+                printAppointments(views.view('A'), DATE_TIME_PROVIDER_HEADER);
+                break;
+            case 'P':
+                printAppointments(views.view('P'), PATIENT_HEADER);
+                break;
+            case 'L':
+                printAppointments(views.view('L'), COUNTY_HEADER);
+                break;
+            case 'O':
+                printNonTechnicianAppointments(views.view('O'), OFFICE_HEADER);
+                appendText("** end of list **");
+                break;
+            case 'I':
+                printImagingAppointments(views.view('I'), IMAGING_HEADER);
+                appendText("** end of list **");
+                break;
+            default:
+                throw new IllegalArgumentException("No view for key: " + key);
+        }
+    }
 
-        for (int i = 0; i < count; i++) {
-            String line = String.format("(%d) %s [due: $%s]", (i + 1), patientNames[i], df.format(totalDueAmounts[i]));
-            appendText(line);
+
+    /**
+     * Prints a billing report from the running billing ledger, without reading the appointments.
+     *
+     * @param ledger the billing ledger of the schedule
+     * @param key    the report key (S or C)
+     * @throws IllegalArgumentException if the key is not a billing report
+     */
+    public static void report(BillingLedger ledger, char key) {
+        if (ledger == null || ledger.isEmpty()) {
+            appendText("Schedule calendar is empty.");
+            return;
         }
+        switch (key) {
+            case 'S':
+                printBillingStatements(ledger);
+                break;
+            case 'C':
+                printCredits(ledger);
+                break;
+            default:
+                throw new IllegalArgumentException("Not a billing report: " + key);
+        }
+    }
+
+
+    /**
+     * Prints a billing statement for each patient, ordered by patient, then clears the list.
+     * The amounts are aggregated in a single pass over the list into a billing ledger.
+     *
+     * @param list the list of appointments to be billed
+     */
+    private static void sortAppointmentsByPatientAndPrintBilling(List<Appointment> list) {
+        printBillingStatements(ledgerOf(list));
 
         // Clear the list of appointments after printing
         clearList(list);
     }
 
     /**
-     * Retrieves the due amount for a given appointment based on the provider's specialty billing.
+     * Prints the amount due of each patient in the ledger, ordered by patient.
      *
-     * @param appointment the appointment for which to retrieve the due amount
-     * @return the due amount for the appointment
+     * @param ledger the billing ledger
      */
-    private static double getDueAmount(Appointment appointment) {
-        // Assuming each provider has a billing amount and it's retrievable
-        Provider provider = (Provider) appointment.getProvider();
-        return provider.getSpecialtyBilling(); // Modify this logic based on how you calculate the due amount
+    private static void printBillingStatements(BillingLedger ledger) {
+        DecimalFormat df = new DecimalFormat("#,###.00");
+        int count = 0;
+        for (Profile patient : ledger.patients()) {
+            String patientName = patient.getLname() + " " + patient.getFname() + " " + patient.getDob();
+            String line = String.format("(%d) %s [due: $%s]", ++count, patientName, df.format(dollars(ledger.dueCents(patient))));
+            appendText(line);
+        }
     }
 
     /**
-     * Clears the list of appointments.
+     * Records every appointment of the list in a new billing ledger.
      *
-     * @param list the list of appointments to be cleared
+     * @param list the list of appointments
+     * @return the ledger of the list
      */
-    private static void clearList(List<Appointment> list) {
-        // Clear the list of appointments
-        for (int i = list.size() - 1; i >= 0; i--) {
-            list.remove(list.get(i)); // Safely remove appointments from the end to avoid shifting issues
+    private static BillingLedger ledgerOf(List<Appointment> list) {
+        BillingLedger ledger = new BillingLedger();
+        for (Appointment appointment : list) {
+            if (appointment.getProvider() instanceof Provider) {
+                ledger.book(appointment);
+            }
         }
+        return ledger;
     }
 
     /**
-     * Sorts appointments by provider's last name.
+     * Converts an amount in cents to an exact dollar amount for formatting.
      *
-     * @param list the list of appointments to be sorted
+     * @param cents the amount in cents
+     * @return the amount in dollars
      */
-    private static void sortAppointmentsByLastname(List<Appointment> list) {
-        for (int i = 0; i < list.size() - 1; i++) {
-            for (int j = i + 1; j < list.size(); j++) {
-                Appointment a1 = list.get(i);
-                Appointment a2 = list.get(j);
-
-                Provider provider1 = (Provider) a1.getProvider();
-                Provider provider2 = (Provider) a2.getProvider();
-
-                // Assuming you have a method to get the last name of the provider
-                String lastName1 = provider1.getLastName(); // Replace with actual method to get last name
-                String lastName2 = provider2.getLastName(); // Replace with actual method to get last name
+    private static BigDecimal dollars(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
 
-                if (lastName1.compareTo(lastName2) > 0) {
-                    swap(list, i, j);
-                }
-            }
-        }
+    /**
+     * Clears the list of appointments.
+     *
+     * @param list the list of appointments to be cleared
+     */
+    private static void clearList(List<Appointment> list) {
+        list.clear();
     }
 
     /**
-     * Prints a credit statement for appointments based on provider specialty billing amounts.
+     * Prints the credit amount of each provider with appointments, in provider order.
+     * Credits are aggregated in a single pass over the list into a billing ledger.
      *
      * @param list the list of appointments to process
+     * @throws IllegalStateException if an appointment's provider was not registered with setProviders
      */
     private static void printAppointmentsByCredit(List<Appointment> list) {
-        Appointment[] tempAppointments = new Appointment[list.size()];
-        double[] totalCredits = new double[list.size()];
-        int count = 0;
-
-        for (int i = 0; i < list.size(); i++) {
-            Appointment appointment = list.get(i);
-            if (appointment.getProvider() instanceof Provider) {
-                Provider provider = (Provider) appointment.getProvider();
-                double creditAmount = provider.getSpecialtyBilling();
-
-                boolean found = false;
-                for (int j = 0; j < count; j++) {
-                    if (tempAppointments[j].getProvider().equals(provider)) {
-                        totalCredits[j] += creditAmount;
-                        found = true;
-                        break;
-                    }
-                }
-                if (!found) {
-                    tempAppointments[count] = appointment;
-                    totalCredits[count] = creditAmount;
-                    count++;
-                }
-            }
-        }
+        printCredits(ledgerOf(list));
+    }
 
+    /**
+     * Prints the credit amount of each provider in the ledger, in provider order.
+     * The provider ids already follow the provider order, so nothing is sorted.
+     *
+     * @param ledger the billing ledger
+     */
+    private static void printCredits(BillingLedger ledger) {
         appendText("** Credit amount ordered by provider.");
-        for (int i = 0; i < count; i++) {
-            Provider provider = (Provider) tempAppointments[i].getProvider();
-            double totalCredit = totalCredits[i]; // Use the aggregated total credit
-            String line = String.format("(%d) %s [credit amount: $%.2f]", (i + 1), provider.getProfile(), totalCredit);
-            appendText(line);
+        int count = 0;
+        for (int id = 0; id < ledger.providerIdBound(); id++) {
+            Provider provider = ledger.provider(id);
+            if (provider != null) {
+                String line = String.format("(%d) %s [credit amount: $%.2f]", ++count, provider.getProfile(),
+                        dollars(ledger.creditCents(id)));
+                appendText(line);
+            }
         }
         appendText("** end of list **");
     }
@@ -217,27 +311,19 @@ public class Sort {
      * @param list the list of appointments to be sorted
      */
     private static void sortNonTechnicianAppointmentsByCountyDateTime(List<Appointment> list) {
-        for (int i = 0; i < list.size() - 1; i++) {
-            for (int j = i + 1; j < list.size(); j++) {
-                Appointment a1 = list.get(i);
-                Appointment a2 = list.get(j);
-
-                if (!(a1.getProvider() instanceof Technician) && !(a2.getProvider() instanceof Technician)) {
-                    if (shouldSwapByCountyDateTime(a1, a2)) {
-                        swap(list, i, j);
-                    }
-                }
-            }
+        Predicate<Appointment> office = appointment -> !(appointment.getProvider() instanceof Technician);
+        if (!SortKeys.sort(list, office, SortKeys.Order.COUNTY_DATE_TIME)) {
+            sortMatching(list, office, BY_COUNTY_DATE_TIME);
         }
     }
 
     /**
      * Prints only the non-technician appointments from the list.
      *
-     * @param list  the list of appointments to print
+     * @param list  the appointments to print
      * @param label the label or message to display before printing
      */
-    private static void printNonTechnicianAppointments(List<Appointment> list, String label) {
+    private static void printNonTechnicianAppointments(Iterable<Appointment> list, String label) {
         appendText(label);
         boolean hasNonTechnicianAppointments = false;
 
@@ -259,63 +345,19 @@ public class Sort {
      * @param list the list of appointments to be sorted
      */
     private static void sortImagingAppointmentsByCountyDateTime(List<Appointment> list) {
-        for (int i = 0; i < list.size() - 1; i++) {
-            for (int j = i + 1; j < list.size(); j++) {
-                Appointment a1 = list.get(i);
-                Appointment a2 = list.get(j);
-
-                // Check if both appointments are instances of Imaging
-                if (a1 instanceof Imaging && a2 instanceof Imaging) {
-                    if (shouldSwapImaging(a1, a2)) {
-                        swap(list, i, j);
-                    }
-                }
-            }
+        Predicate<Appointment> imaging = appointment -> appointment instanceof Imaging;
+        if (!SortKeys.sort(list, imaging, SortKeys.Order.COUNTY_DATE_TIME_TECHNICIAN)) {
+            sortMatching(list, imaging, BY_COUNTY_DATE_TIME_TECHNICIAN);
         }
     }
 
-    /**
-     * Determines whether two imaging appointments should be swapped based on county, date, time, and provider's first name.
-     *
-     * @param a1 the first appointment
-     * @param a2 the second appointment
-     * @return true if a1 should be placed after a2; false otherwise
-     */
-    private static boolean shouldSwapImaging(Appointment a1, Appointment a2) {
-        // Cast to Imaging appointments
-        Imaging imaging1 = (Imaging) a1;
-        Imaging imaging2 = (Imaging) a2;
-
-        // Cast provider to Technician (or Provider if necessary)
-        Technician provider1 = (Technician) imaging1.getProvider();
-        Technician provider2 = (Technician) imaging2.getProvider();
-
-        // Compare by county first
-        int countyComparison = provider1.getLocation().getCounty().compareTo(provider2.getLocation().getCounty());
-        if (countyComparison > 0) return true;
-        if (countyComparison < 0) return false;
-
-        // If counties are the same, compare by date
-        int dateComparison = imaging1.getDate().compareTo(imaging2.getDate());
-        if (dateComparison > 0) return true;
-        if (dateComparison < 0) return false;
-
-        // If dates are the same, compare by timeslot
-        int timeslotComparison = imaging1.getTimeslot().compareTo(imaging2.getTimeslot());
-        if (timeslotComparison > 0) return true;
-        if (timeslotComparison < 0) return false;
-
-        // If all the above are the same, compare by provider's first name
-        return provider1.getFirstName().compareTo(provider2.getFirstName()) > 0;
-    }
-
     /**
      * Prints only the imaging appointments from the list.
      *
-     * @param list  the list of appointments to print
+     * @param list  the appointments to print
      * @param label the label or message to display before printing
      */
-    private static void printImagingAppointments(List<Appointment> list, String label) {
+    private static void printImagingAppointments(Iterable<Appointment> list, String label) {
         appendText(label);
         boolean hasImagingAppointments = false;
 
@@ -337,15 +379,8 @@ public class Sort {
      * @param list the list of appointments to be sorted
      */
     private static void sortAppointmentsByDateTimeProvider(List<Appointment> list) {
-        for (int i = 0; i < list.size() - 1; i++) {
-            for (int j = i + 1; j < list.size(); j++) {
-                Appointment a1 = list.get(i);
-                Appointment a2 = list.get(j);
-
-                if (shouldSwapByDateTimeProvider(a1, a2)) {
-                    swap(list, i, j);
-                }
-            }
+        if (!SortKeys.sort(list, null, SortKeys.Order.DATE_TIME_PROVIDER)) {
+            ParallelMergeSort.sort(list, BY_DATE_TIME_PROVIDER);
         }
     }
 
@@ -355,15 +390,8 @@ public class Sort {
      * @param list the list of appointments to be sorted
      */
     private static void sortAppointmentsByPatient(List<Appointment> list) {
-        for (int i = 0; i < list.size() - 1; i++) {
-            for (int j = i + 1; j < list.size(); j++) {
-                Appointment a1 = list.get(i);
-                Appointment a2 = list.get(j);
-
-                if (shouldSwapByPatient(a1, a2)) {
-                    swap(list, i, j);
-                }
-            }
+        if (!SortKeys.sort(list, null, SortKeys.Order.PATIENT_DATE)) {
+            ParallelMergeSort.sort(list, BY_PATIENT);
         }
     }
 
@@ -373,15 +401,8 @@ public class Sort {
      * @param list the list of appointments to be sorted
      */
     private static void sortAppointmentsByCountyDateTime(List<Appointment> list) {
-        for (int i = 0; i < list.size() - 1; i++) {
-            for (int j = i + 1; j < list.size(); j++) {
-                Appointment a1 = list.get(i);
-                Appointment a2 = list.get(j);
-
-                if (shouldSwapByCountyDateTime(a1, a2)) {
-                    swap(list, i, j);
-                }
-            }
+        if (!SortKeys.sort(list, null, SortKeys.Order.COUNTY_DATE_TIME)) {
+            ParallelMergeSort.sort(list, BY_COUNTY_DATE_TIME);
         }
     }
 
@@ -391,19 +412,7 @@ public class Sort {
      * @param list the list of appointments to be sorted
      */
     private static void sortAppointmentsBySpecialtyBilling(List<Appointment> list) {
-        for (int i = 0; i < list.size() - 1; i++) {
-            for (int j = i + 1; j < list.size(); j++) {
-                Appointment a1 = list.get(i);
-                Appointment a2 = list.get(j);
-
-                Provider provider1 = (Provider) a1.getProvider();
-                Provider provider2 = (Provider) a2.getProvider();
-
-                if (provider1.getSpecialtyBilling() > provider2.getSpecialtyBilling()) {
-                    swap(list, i, j);
-                }
-            }
-        }
+        ParallelMergeSort.sort(list, BY_SPECIALTY_BILLING);
     }
 
     /**
@@ -412,90 +421,39 @@ public class Sort {
      * @param list the list of appointments to be sorted
      */
     private static void sortAppointmentsByProviderProfile(List<Appointment> list) {
-        for (int i = 0; i < list.size() - 1; i++) {
-            for (int j = i + 1; j < list.size(); j++) {
-                Appointment a1 = list.get(i);
-                Appointment a2 = list.get(j);
-
-                if (a1.getProvider().getProfile().compareTo(a2.getProvider().getProfile()) > 0) {
-                    swap(list, i, j);
-                }
-            }
-        }
-    }
-
-    /**
-     * Swaps two appointments in the list.
-     *
-     * @param list the list containing the appointments
-     * @param i    the index of the first appointment
-     * @param j    the index of the second appointment
-     */
-    private static void swap(List<Appointment> list, int i, int j) {
-        Appointment temp = list.get(i);
-        list.set(i, list.get(j));
-        list.set(j, temp);
-    }
-
-    /**
-     * Determines whether two appointments should be swapped based on date, time, and provider.
-     *
-     * @param a1 the first appointment
-     * @param a2 the second appointment
-     * @return true if the appointments should be swapped, false otherwise
-     */
-    private static boolean shouldSwapByDateTimeProvider(Appointment a1, Appointment a2) {
-        if (a1.getDate().compareTo(a2.getDate()) > 0) return true;
-        if (a1.getDate().equals(a2.getDate()) && a1.getTimeslot().compareTo(a2.getTimeslot()) > 0) return true;
-        return a1.getDate().equals(a2.getDate()) && a1.getTimeslot().equals(a2.getTimeslot()) &&
-                a1.getProvider().getProfile().getLname().compareTo(a2.getProvider().getProfile().getLname()) > 0;
-    }
-
-    /**
-     * Determines whether two appointments should be swapped based on the patient's details.
-     *
-     * @param a1 the first appointment
-     * @param a2 the second appointment
-     * @return true if the appointments should be swapped, false otherwise
-     */
-    private static boolean shouldSwapByPatient(Appointment a1, Appointment a2) {
-        if (a1.getPatient().getProfile().getLname().compareTo(a2.getPatient().getProfile().getLname()) > 0) return true;
-        if (a1.getPatient().getProfile().getLname().equals(a2.getPatient().getProfile().getLname()) &&
-                a1.getPatient().getProfile().getFname().compareTo(a2.getPatient().getProfile().getFname()) > 0) return true;
-        if (a1.getPatient().getProfile().getLname().equals(a2.getPatient().getProfile().getLname()) &&
-                a1.getPatient().getProfile().getFname().equals(a2.getPatient().getProfile().getFname()) &&
-                a1.getPatient().getProfile().getDob().compareTo(a2.getPatient().getProfile().getDob()) > 0) return true;
-        return a1.getPatient().getProfile().getLname().equals(a2.getPatient().getProfile().getLname()) &&
-                a1.getPatient().getProfile().getFname().equals(a2.getPatient().getProfile().getFname()) &&
-                a1.getPatient().getProfile().getDob().equals(a2.getPatient().getProfile().getDob()) &&
-                a1.getDate().compareTo(a2.getDate()) > 0;
+        ParallelMergeSort.sort(list, BY_PROVIDER_PROFILE);
     }
 
     /**
-     * Determines whether two appointments should be swapped based on county, date, and time.
+     * Sorts only the appointments that match the filter, leaving the others where they are.
+     * The matching appointments are sorted among the positions they already occupy.
      *
-     * @param a1 the first appointment
-     * @param a2 the second appointment
-     * @return true if the appointments should be swapped, false otherwise
-     */
-    private static boolean shouldSwapByCountyDateTime(Appointment a1, Appointment a2) {
-        Provider provider1 = (Provider) a1.getProvider();
-        Provider provider2 = (Provider) a2.getProvider();
-
-        int countyComparison = provider1.getLocation().getCounty().compareTo(provider2.getLocation().getCounty());
-        if (countyComparison > 0) return true;
-        if (countyComparison == 0 && a1.getDate().compareTo(a2.getDate()) > 0) return true;
-        return countyComparison == 0 && a1.getDate().equals(a2.getDate()) &&
-                a1.getTimeslot().compareTo(a2.getTimeslot()) > 0;
+     * @param list       the list of appointments to be sorted
+     * @param filter     selects the appointments to sort
+     * @param comparator the order of the matching appointments
+     */
+    private static void sortMatching(List<Appointment> list, Predicate<Appointment> filter,
+                                     Comparator<Appointment> comparator) {
+        int[] positions = new int[list.size()];
+        List<Appointment> matching = new List<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            Appointment appointment = list.get(i);
+            if (filter.test(appointment)) {
+                positions[matching.size()] = i;
+                matching.add(appointment);
+            }
+        }
+        ParallelMergeSort.sort(matching, comparator);
+        list.setAll(positions, matching::get, matching.size());
     }
 
     /**
      * Prints the sorted list of appointments with a header.
      *
-     * @param list   the list of appointments to print
+     * @param list   the appointments to print
      * @param header the header to display before the appointments
      */
-    private static void printAppointments(List<Appointment> list, String header) {
+    private static void printAppointments(Iterable<Appointment> list, String header) {
         appendText("** " + header);
         for (Appointment appointment : list) {
             appendText(String.valueOf(appointment));
@@ -509,17 +467,21 @@ public class Sort {
      * @param list the list of providers to be sorted
      */
     public static void provider(List<Provider> list) {
-        // Sort providers by last name
-        for (int i = 0; i < list.size() - 1; i++) {
-            for (int j = i + 1; j < list.size(); j++) {
-                Provider p1 = list.get(i);
-                Provider p2 = list.get(j);
-
-                if (p1.getProfile().getLname().compareTo(p2.getProfile().getLname()) > 0) {
-                    list.set(i, p2);
-                    list.set(j, p1);
-                }
-            }
+        list.sort(Comparator.comparing(provider -> provider.getProfile().getLname()));
+    }
+
+    /**
+     * Registers the loaded providers for the credit report.
+     * The providers are sorted by last name and given dense ids in that order, so the
+     * provider order and the provider name ranks are computed once here rather than on every report.
+     *
+     * @param list the list of loaded providers; it is left sorted by last name
+     */
+    public static void setProviders(List<Provider> list) {
+        provider(list);
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i).setId(i);
         }
+        SortKeys.setProviders(list);
     }
 }
\ No newline at end of file
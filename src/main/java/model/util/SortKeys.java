@@ -0,0 +1,400 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.List;
+import model.project1.Location;
+import model.project1.Provider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The SortKeys class sorts appointments for the reports by packed primitive keys.
+ * For each report, the sort fields of every appointment are read once and packed into
+ * a single long: county rank, epoch day, timeslot ordinal and a name rank taken from a
+ * sorted dictionary of the distinct names (first, for the patient report), followed by
+ * the appointment's position. The provider name ranks are computed once, when the roster is
+ * registered, so the A and I reports build no dictionary; only the patient report does.
+ * Sorting the long[] then yields the order as a permutation of positions, with no
+ * getter chains or string comparisons during the sort. Because the position is part
+ * of the key, equal appointments keep their order, exactly like the stable comparator sort.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class SortKeys {
+    /**
+     * The report orders that can be sorted by packed keys.
+     */
+    public enum Order {
+        /**
+         * Date, timeslot, then the provider's last name.
+         */
+        DATE_TIME_PROVIDER(false, true, Name.PROVIDER_LAST_NAME, false),
+
+        /**
+         * Patient profile, then date.
+         */
+        PATIENT_DATE(false, false, Name.PATIENT_PROFILE, true),
+
+        /**
+         * County, date, then timeslot.
+         */
+        COUNTY_DATE_TIME(true, true, Name.NONE, false),
+
+        /**
+         * County, date, timeslot, then the technician's first name.
+         */
+        COUNTY_DATE_TIME_TECHNICIAN(true, true, Name.PROVIDER_FIRST_NAME, false);
+
+        private final boolean byCounty;
+        private final boolean byTimeslot;
+        private final Name name;
+        private final boolean nameFirst;
+
+        Order(boolean byCounty, boolean byTimeslot, Name name, boolean nameFirst) {
+            this.byCounty = byCounty;
+            this.byTimeslot = byTimeslot;
+            this.name = name;
+            this.nameFirst = nameFirst;
+        }
+    }
+
+    /**
+     * The name field of a key, if any. It follows the date and time unless the order sorts by name first.
+     */
+    private enum Name {
+        NONE,
+        PROVIDER_LAST_NAME,
+        PROVIDER_FIRST_NAME,
+        PATIENT_PROFILE
+    }
+
+    private static final int MAX_KEY_BITS = 63; // Keeps every key non-negative
+    private static final int TIMESLOT_BITS = 4; // Twelve timeslot ordinals
+
+    /**
+     * Rank of each location's county in alphabetical order, indexed by Location ordinal.
+     */
+    private static final int[] COUNTY_RANK = countyRanks();
+    private static final int COUNTY_BITS = bitsFor(maxOf(COUNTY_RANK));
+
+    /**
+     * Reusable buffers of the current thread, so repeated reports do not allocate.
+     */
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Name ranks of the registered providers, replaced whole when a roster is registered.
+     */
+    private static volatile ProviderNames providerNames = new ProviderNames(new List<>());
+
+    private SortKeys() {
+    }
+
+    /**
+     * Sorts the appointments that match the filter by packed keys, leaving the others where they are.
+     * The matching appointments are sorted among the positions they already occupy.
+     *
+     * @param list   the list of appointments to be sorted
+     * @param filter selects the appointments to sort, or null to sort all of them
+     * @param order  the report order
+     * @return true if the list was sorted, false if the keys do not fit in a long;
+     *         the list is unchanged in that case and the caller should sort by comparator
+     */
+    public static boolean sort(List<Appointment> list, Predicate<Appointment> filter, Order order) {
+        Buffers buffers = BUFFERS.get();
+        buffers.ensureCapacity(list.size());
+        Appointment[] appointments = buffers.appointments;
+        int[] positions = buffers.positions;
+        int count = 0;
+        for (int i = 0; i < list.size(); i++) {
+            Appointment appointment = list.get(i);
+            if (filter == null || filter.test(appointment)) {
+                appointments[count] = appointment;
+                positions[count] = i;
+                count++;
+            }
+        }
+        try {
+            if (count < 2) {
+                return true;
+            }
+            long[] keys = buffers.keys;
+            if (!buildKeys(appointments, count, order, buffers.names, keys)) {
+                return false;
+            }
+            ParallelMergeSort.sort(keys, 0, count);
+            writeBack(list, appointments, positions, keys, count);
+            return true;
+        } finally {
+            Arrays.fill(appointments, 0, count, null); // Avoid memory leak
+        }
+    }
+
+    /**
+     * Packs the sort fields of each appointment into a key.
+     *
+     * @param appointments the appointments to sort
+     * @param count        the number of appointments
+     * @param order        the report order
+     * @param names        receives the name rank of each appointment
+     * @param keys         receives the packed keys
+     * @return true if the keys fit in a long, false otherwise
+     */
+    private static boolean buildKeys(Appointment[] appointments, int count, Order order, int[] names, long[] keys) {
+        int firstDay = Integer.MAX_VALUE;
+        int lastDay = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int day = appointments[i].getDate().getEpochDay();
+            firstDay = Math.min(firstDay, day);
+            lastDay = Math.max(lastDay, day);
+        }
+        int nameCount = rankNames(appointments, count, order.name, names);
+
+        int countyBits = order.byCounty ? COUNTY_BITS : 0;
+        int dayBits = bitsFor((long) lastDay - firstDay);
+        int timeslotBits = order.byTimeslot ? TIMESLOT_BITS : 0;
+        int nameBits = bitsFor(nameCount - 1L);
+        int trailingNameBits = order.nameFirst ? 0 : nameBits;
+        int positionBits = bitsFor(count - 1L);
+        if (countyBits + dayBits + timeslotBits + nameBits + positionBits > MAX_KEY_BITS) {
+            return false;
+        }
+
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = appointments[i];
+            long key = order.nameFirst ? names[i] : 0;
+            key = key << countyBits | (order.byCounty ? COUNTY_RANK[location(appointment).ordinal()] : 0);
+            key = key << dayBits | (appointment.getDate().getEpochDay() - firstDay);
+            key = key << timeslotBits | (order.byTimeslot ? appointment.getTimeslot().getOrdinal() : 0);
+            key = key << trailingNameBits | (order.nameFirst ? 0 : names[i]);
+            keys[i] = key << positionBits | i;
+        }
+        return true;
+    }
+
+    /**
+     * Replaces each matching position with the appointment the sorted keys assign to it.
+     *
+     * @param list         the list being sorted
+     * @param appointments the matching appointments in their original order
+     * @param positions    the list position of each matching appointment
+     * @param keys         the sorted keys
+     * @param count        the number of matching appointments
+     */
+    private static void writeBack(List<Appointment> list, Appointment[] appointments, int[] positions,
+                                  long[] keys, int count) {
+        long positionMask = (1L << bitsFor(count - 1L)) - 1;
+        list.setAll(positions, i -> appointments[(int) (keys[i] & positionMask)], count);
+    }
+
+    /**
+     * Ranks the name field of each appointment against the sorted dictionary of distinct names.
+     *
+     * @param appointments the appointments to sort
+     * @param count        the number of appointments
+     * @param name         the name field of the order
+     * @param ranks        receives the rank of each appointment's name
+     * @return the number of distinct names
+     */
+    private static int rankNames(Appointment[] appointments, int count, Name name, int[] ranks) {
+        switch (name) {
+            case PROVIDER_LAST_NAME:
+                if (providerNames.rank(appointments, count, ranks, true)) {
+                    return providerNames.lastNames;
+                }
+                return rank(appointments, count, ranks, appointment -> appointment.getProvider().getLastName());
+            case PROVIDER_FIRST_NAME:
+                if (providerNames.rank(appointments, count, ranks, false)) {
+                    return providerNames.firstNames;
+                }
+                return rank(appointments, count, ranks, appointment -> appointment.getProvider().getFirstName());
+            case PATIENT_PROFILE:
+                return rank(appointments, count, ranks, appointment -> appointment.getPatient().getProfile());
+            default:
+                Arrays.fill(ranks, 0, count, 0);
+                return 1;
+        }
+    }
+
+    /**
+     * Registers the providers of a roster, after they have been given their ids, and ranks their names.
+     *
+     * @param providers the providers, each at the index of its id
+     */
+    static void setProviders(List<Provider> providers) {
+        providerNames = new ProviderNames(providers);
+    }
+
+    /**
+     * Ranks a comparable field of each appointment.
+     * Equal values get equal ranks, and ranks follow the natural order of the values.
+     *
+     * @param appointments the appointments to sort
+     * @param count        the number of appointments
+     * @param ranks        receives the rank of each appointment's value
+     * @param field        reads the value from an appointment
+     * @param <T>          the type of the value
+     * @return the number of distinct values
+     */
+    private static <T extends Comparable<? super T>> int rank(Appointment[] appointments, int count, int[] ranks,
+                                                              Function<Appointment, T> field) {
+        HashMap<T, Integer> dictionary = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            dictionary.putIfAbsent(field.apply(appointments[i]), 0);
+        }
+        ArrayList<T> sorted = new ArrayList<>(dictionary.keySet());
+        sorted.sort(null);
+        for (int i = 0; i < sorted.size(); i++) {
+            dictionary.put(sorted.get(i), i);
+        }
+        for (int i = 0; i < count; i++) {
+            ranks[i] = dictionary.get(field.apply(appointments[i]));
+        }
+        return sorted.size();
+    }
+
+    /**
+     * Gets the location of the appointment's provider.
+     *
+     * @param appointment the appointment
+     * @return the provider's location
+     */
+    private static Location location(Appointment appointment) {
+        return ((Provider) appointment.getProvider()).getLocation();
+    }
+
+    /**
+     * Computes the alphabetical rank of each location's county.
+     *
+     * @return the county ranks indexed by Location ordinal
+     */
+    private static int[] countyRanks() {
+        Location[] locations = Location.values();
+        String[] counties = new String[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            counties[i] = locations[i].getCounty();
+        }
+        String[] sorted = Arrays.stream(counties).distinct().sorted().toArray(String[]::new);
+        int[] ranks = new int[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            ranks[i] = Arrays.binarySearch(sorted, counties[i]);
+        }
+        return ranks;
+    }
+
+    /**
+     * Gets the largest value in the array.
+     *
+     * @param values the values
+     * @return the largest value, or 0 if the array is empty
+     */
+    private static int maxOf(int[] values) {
+        int max = 0;
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /**
+     * Gets the number of bits needed to hold values from 0 to the specified maximum.
+     *
+     * @param max the largest value
+     * @return the number of bits
+     */
+    private static int bitsFor(long max) {
+        return max <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(max);
+    }
+
+    /**
+     * The last-name and first-name ranks of the providers of one roster, indexed by provider id.
+     */
+    private static final class ProviderNames {
+        private final Provider[] byId;
+        private final int[] lastNameRanks;
+        private final int[] firstNameRanks;
+        private final int lastNames;
+        private final int firstNames;
+
+        /**
+         * Ranks the names of a roster's providers.
+         *
+         * @param providers the providers, each at the index of its id
+         */
+        private ProviderNames(List<Provider> providers) {
+            byId = new Provider[providers.size()];
+            for (int i = 0; i < byId.length; i++) {
+                byId[i] = providers.get(i);
+            }
+            lastNameRanks = new int[byId.length];
+            firstNameRanks = new int[byId.length];
+            lastNames = rankAll(Provider::getLastName, lastNameRanks);
+            firstNames = rankAll(Provider::getFirstName, firstNameRanks);
+        }
+
+        /**
+         * Ranks one name of every provider.
+         *
+         * @param name  reads the name from a provider
+         * @param ranks receives the rank of each provider's name, by id
+         * @return the number of distinct names
+         */
+        private int rankAll(Function<Provider, String> name, int[] ranks) {
+            String[] sorted = Arrays.stream(byId).map(name).distinct().sorted().toArray(String[]::new);
+            for (int i = 0; i < byId.length; i++) {
+                ranks[i] = Arrays.binarySearch(sorted, name.apply(byId[i]));
+            }
+            return sorted.length;
+        }
+
+        /**
+         * Looks up the name rank of each appointment's provider.
+         *
+         * @param appointments the appointments to sort
+         * @param count        the number of appointments
+         * @param ranks        receives the rank of each appointment's provider name
+         * @param lastName     true for the last name, false for the first name
+         * @return true if every provider is of this roster, false if the ranks must be computed
+         */
+        private boolean rank(Appointment[] appointments, int count, int[] ranks, boolean lastName) {
+            int[] byProvider = lastName ? lastNameRanks : firstNameRanks;
+            for (int i = 0; i < count; i++) {
+                Provider provider = (Provider) appointments[i].getProvider();
+                int id = provider.getId();
+                if (id < 0 || id >= byId.length || byId[id] != provider) {
+                    return false;
+                }
+                ranks[i] = byProvider[id];
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Working arrays for one thread, grown as needed and reused across reports.
+     */
+    private static final class Buffers {
+        private Appointment[] appointments = new Appointment[0];
+        private int[] positions = new int[0];
+        private int[] names = new int[0];
+        private long[] keys = new long[0];
+
+        /**
+         * Makes sure every buffer holds at least the specified number of entries.
+         *
+         * @param capacity the number of entries needed
+         */
+        private void ensureCapacity(int capacity) {
+            if (keys.length < capacity) {
+                appointments = new Appointment[capacity];
+                positions = new int[capacity];
+                names = new int[capacity];
+                keys = new long[capacity];
+            }
+        }
+    }
+}
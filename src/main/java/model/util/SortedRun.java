@@ -0,0 +1,241 @@
+package model.util;
+
+import model.project1.List;
+
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * The SortedRun class is a read-only SortedSet over a list that is already sorted by a comparator
+ * with no ties. It lets a TreeSet be built from a sorted list in linear time: TreeSet.addAll and the
+ * TreeSet(SortedSet) constructor build the tree straight from a SortedSet with the same comparator
+ * instead of inserting each element, which SortedRunTest checks.
+ * Membership and the bounds of range views are found by binary search, and range views share the list,
+ * so the list must not change while the run is in use.
+ *
+ * @param <E> the type of the elements
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+final class SortedRun<E> extends AbstractSet<E> implements SortedSet<E> {
+    private final List<E> elements;
+    private final Comparator<? super E> comparator;
+    private final int from;
+    private final int to;
+    private final E low; // Inclusive lower bound of a range view, or null
+    private final E high; // Exclusive upper bound of a range view, or null
+
+    /**
+     * Constructs a run over a whole list.
+     *
+     * @param elements   the elements, sorted by the comparator with no ties
+     * @param comparator the comparator
+     */
+    SortedRun(List<E> elements, Comparator<? super E> comparator) {
+        this(elements, comparator, 0, elements.size(), null, null);
+    }
+
+    /**
+     * Constructs a run over a range of a list.
+     *
+     * @param elements   the elements, sorted by the comparator with no ties
+     * @param comparator the comparator
+     * @param from       the index of the first element of the range
+     * @param to         one past the index of the last element of the range
+     * @param low        the inclusive lower bound of the range, or null if it has none
+     * @param high       the exclusive upper bound of the range, or null if it has none
+     */
+    private SortedRun(List<E> elements, Comparator<? super E> comparator, int from, int to, E low, E high) {
+        this.elements = elements;
+        this.comparator = comparator;
+        this.from = from;
+        this.to = to;
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Gets an iterator over the run in order.
+     *
+     * @return the iterator
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public E next() {
+                if (next >= to) {
+                    throw new NoSuchElementException();
+                }
+                return elements.get(next++);
+            }
+        };
+    }
+
+    /**
+     * Gets the length of the run.
+     *
+     * @return the number of elements
+     */
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    /**
+     * Checks if the run holds an element, by binary search.
+     *
+     * @param o the element
+     * @return true if an element of the run compares equal to it
+     */
+    @Override
+    public boolean contains(Object o) {
+        @SuppressWarnings("unchecked")
+        E e = (E) o;
+        try {
+            int i = lowerBound(e);
+            return i < to && comparator.compare(elements.get(i), e) == 0;
+        } catch (ClassCastException | NullPointerException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the comparator the run is sorted by.
+     *
+     * @return the comparator
+     */
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Gets the first element of the run.
+     *
+     * @return the first element
+     * @throws NoSuchElementException if the run is empty
+     */
+    @Override
+    public E first() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return elements.get(from);
+    }
+
+    /**
+     * Gets the last element of the run.
+     *
+     * @return the last element
+     * @throws NoSuchElementException if the run is empty
+     */
+    @Override
+    public E last() {
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+        return elements.get(to - 1);
+    }
+
+    /**
+     * Gets a view of the elements from one element, inclusive, to another, exclusive.
+     *
+     * @param fromElement the low end of the view
+     * @param toElement   the high end of the view
+     * @return the view
+     * @throws IllegalArgumentException if fromElement is greater than toElement, or either is outside this run's range
+     */
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        if (comparator.compare(fromElement, toElement) > 0) {
+            throw new IllegalArgumentException("fromElement > toElement");
+        }
+        return view(checkInRange(fromElement, false), checkInRange(toElement, true));
+    }
+
+    /**
+     * Gets a view of the elements below an element.
+     *
+     * @param toElement the high end of the view, exclusive
+     * @return the view
+     * @throws IllegalArgumentException if toElement is outside this run's range
+     */
+    @Override
+    public SortedSet<E> headSet(E toElement) {
+        return view(low, checkInRange(toElement, true));
+    }
+
+    /**
+     * Gets a view of the elements from an element on.
+     *
+     * @param fromElement the low end of the view, inclusive
+     * @return the view
+     * @throws IllegalArgumentException if fromElement is outside this run's range
+     */
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {
+        return view(checkInRange(fromElement, false), high);
+    }
+
+    /**
+     * Creates a view of the run between two bounds within its range.
+     *
+     * @param lowBound  the inclusive lower bound, or null for this run's
+     * @param highBound the exclusive upper bound, or null for this run's
+     * @return the view
+     */
+    private SortedRun<E> view(E lowBound, E highBound) {
+        int start = lowBound == null ? from : lowerBound(lowBound);
+        int end = highBound == null ? to : lowerBound(highBound);
+        return new SortedRun<>(elements, comparator, start, Math.max(start, end), lowBound, highBound);
+    }
+
+    /**
+     * Checks that an element may bound a view of this run, as TreeSet does: a low end must lie within
+     * this run's range, and a high end may also equal this run's upper bound.
+     *
+     * @param e       the element
+     * @param highEnd true if the element is the exclusive high end of the view
+     * @return the element
+     * @throws IllegalArgumentException if the element is outside the range
+     */
+    private E checkInRange(E e, boolean highEnd) {
+        if (low != null && comparator.compare(e, low) < 0) {
+            throw new IllegalArgumentException("Element out of range");
+        }
+        if (high != null && comparator.compare(e, high) >= (highEnd ? 1 : 0)) {
+            throw new IllegalArgumentException("Element out of range");
+        }
+        return e;
+    }
+
+    /**
+     * Finds the first element of the run that is not less than an element.
+     *
+     * @param e the element
+     * @return the index of that element, or to if there is none
+     */
+    private int lowerBound(E e) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(elements.get(mid), e) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
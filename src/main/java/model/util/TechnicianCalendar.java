@@ -0,0 +1,239 @@
+package model.util;
+
+import model.project1.Date;
+import model.project1.List;
+import model.project1.Location;
+import model.project1.Provider;
+import model.project1.Timeslot;
+
+import java.util.Arrays;
+
+/**
+ * The TechnicianCalendar class records which technicians are assigned at each date and timeslot.
+ * Each (epoch day, timeslot) has a bitset over the technicians' positions in the rotation,
+ * stored in a ring of rows that covers a fixed window of days, so memory stays bounded
+ * and every lookup is an array access. The window starts at the first day passed to the
+ * constructor and slides forward when a later day is assigned; the days it leaves behind
+ * are cleared and their rows reused.
+ * The next free technician in the rotation is found a word at a time: the free bitset is
+ * masked to the technicians at eligible locations and searched from the rotation pointer
+ * with numberOfTrailingZeros, wrapping around once.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+public final class TechnicianCalendar {
+    private static final int SLOTS = Timeslot.MAX_SLOT_INDEX;
+
+    private final int technicians;
+    private final int words; // Longs per bitset
+    private final int windowDays;
+    private final int[] positionById; // Rotation position of each provider id, or -1
+    private final long[][] atLocation; // Bitset of the technicians at each location, by Location ordinal
+    private final long[] bits; // One bitset per (day in window, timeslot)
+    private int firstDay; // Epoch day of the start of the window
+
+    /**
+     * Constructs an empty calendar for the technicians of a rotation.
+     *
+     * @param rotation   the technicians, in rotation order, with provider ids assigned
+     * @param windowDays the number of days covered, at least the booking horizon
+     * @param firstDay   the first day of the window
+     * @throws IllegalArgumentException if the window is not positive
+     * @throws IllegalStateException    if a technician has no id
+     */
+    public TechnicianCalendar(List<Technician> rotation, int windowDays, Date firstDay) {
+        if (windowDays < 1) {
+            throw new IllegalArgumentException("Invalid window: " + windowDays);
+        }
+        this.technicians = rotation.size();
+        this.words = Math.max(1, (technicians + Long.SIZE - 1) / Long.SIZE);
+        this.windowDays = windowDays;
+        int idBound = 0;
+        for (Technician technician : rotation) {
+            idBound = Math.max(idBound, id(technician) + 1);
+        }
+        this.positionById = new int[idBound];
+        Arrays.fill(positionById, -1);
+        this.atLocation = new long[Location.values().length][words];
+        for (int i = 0; i < technicians; i++) {
+            Technician technician = rotation.get(i);
+            positionById[id(technician)] = i;
+            atLocation[technician.getLocation().ordinal()][i >>> 6] |= 1L << i;
+        }
+        this.bits = new long[windowDays * SLOTS * words];
+        this.firstDay = firstDay.getEpochDay();
+    }
+
+    /**
+     * Gets the number of technicians in the rotation.
+     *
+     * @return the number of technicians
+     */
+    public int size() {
+        return technicians;
+    }
+
+    /**
+     * Gets the technician's position in the rotation.
+     *
+     * @param technician the technician
+     * @return the position, or -1 if the technician is not in the rotation
+     */
+    public int positionOf(Technician technician) {
+        int id = technician.getId();
+        return id >= 0 && id < positionById.length ? positionById[id] : -1;
+    }
+
+    /**
+     * Checks if the technician at a rotation position is assigned at the date and timeslot.
+     *
+     * @param position the technician's position in the rotation
+     * @param date     the date
+     * @param timeslot the timeslot
+     * @return true if the technician is assigned, false otherwise
+     */
+    public boolean isAssigned(int position, Date date, Timeslot timeslot) {
+        int row = row(date.getEpochDay(), timeslot);
+        return row >= 0 && (bits[row + (position >>> 6)] & 1L << position) != 0;
+    }
+
+    /**
+     * Checks if the technician is assigned at the date and timeslot.
+     *
+     * @param technician the technician
+     * @param date       the date
+     * @param timeslot   the timeslot
+     * @return true if the technician is assigned, false otherwise
+     */
+    public boolean isAssigned(Technician technician, Date date, Timeslot timeslot) {
+        int position = positionOf(technician);
+        return position >= 0 && isAssigned(position, date, timeslot);
+    }
+
+    /**
+     * Finds the first technician in rotation order, starting at a position and wrapping
+     * around, who is free at the date and timeslot and works at one of the locations.
+     *
+     * @param from      the rotation position to start from
+     * @param date      the date
+     * @param timeslot  the timeslot
+     * @param locations a mask with bit i set if the location with ordinal i is eligible
+     * @return the technician's rotation position, or -1 if no technician qualifies
+     */
+    public int nextFree(int from, Date date, Timeslot timeslot, int locations) {
+        if (technicians == 0) {
+            return -1;
+        }
+        int row = row(date.getEpochDay(), timeslot);
+        int first = from >>> 6;
+        for (int i = 0; i <= words; i++) {
+            int w = (first + i) % words;
+            long free = row < 0 ? eligible(w, locations) : eligible(w, locations) & ~bits[row + w];
+            if (i == 0) {
+                free &= -1L << from; // Positions at or after the pointer
+            } else if (i == words) {
+                free &= ~(-1L << from); // Wrapped around to the positions before the pointer
+            }
+            if (free != 0) {
+                return w * Long.SIZE + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets one word of the bitset of the technicians at the locations.
+     *
+     * @param word      the index of the word
+     * @param locations a mask with bit i set if the location with ordinal i is included
+     * @return the technicians at the locations, within the word
+     */
+    private long eligible(int word, int locations) {
+        long mask = 0;
+        for (int rest = locations; rest != 0; rest &= rest - 1) {
+            mask |= atLocation[Integer.numberOfTrailingZeros(rest)][word];
+        }
+        return mask;
+    }
+
+    /**
+     * Assigns the technician of the imaging appointment at its date and timeslot.
+     * A day past the end of the window slides the window forward to it.
+     *
+     * @param imaging the imaging appointment being booked
+     * @throws IllegalArgumentException if the technician is already assigned, is not in the rotation,
+     *                                  or the date is before the window
+     */
+    public void assign(Imaging imaging) {
+        int day = imaging.getDate().getEpochDay();
+        if (day >= firstDay + windowDays) {
+            slideTo(day - windowDays + 1);
+        }
+        int row = row(day, imaging.getTimeslot());
+        int position = positionOf((Technician) imaging.getProvider());
+        if (row < 0 || position < 0) {
+            throw new IllegalArgumentException("Cannot assign: " + imaging);
+        }
+        int word = row + (position >>> 6);
+        long bit = 1L << position;
+        if ((bits[word] & bit) != 0) {
+            throw new IllegalArgumentException("Technician already assigned: " + imaging);
+        }
+        bits[word] |= bit;
+    }
+
+    /**
+     * Releases the technician of the imaging appointment at its date and timeslot.
+     *
+     * @param imaging the imaging appointment being cancelled
+     */
+    public void release(Imaging imaging) {
+        int row = row(imaging.getDate().getEpochDay(), imaging.getTimeslot());
+        int position = positionOf((Technician) imaging.getProvider());
+        if (row >= 0 && position >= 0) {
+            bits[row + (position >>> 6)] &= ~(1L << position);
+        }
+    }
+
+    /**
+     * Gets the index of the first word of the bitset of a day and timeslot.
+     *
+     * @param day      the epoch day
+     * @param timeslot the timeslot
+     * @return the index, or -1 if the day is outside the window
+     */
+    private int row(int day, Timeslot timeslot) {
+        if (day < firstDay || day >= firstDay + windowDays) {
+            return -1;
+        }
+        return (Math.floorMod(day, windowDays) * SLOTS + timeslot.getOrdinal()) * words;
+    }
+
+    /**
+     * Moves the start of the window forward, clearing the days that leave it.
+     *
+     * @param newFirstDay the new first day of the window
+     */
+    private void slideTo(int newFirstDay) {
+        int released = Math.min(newFirstDay - firstDay, windowDays);
+        for (int day = firstDay; day < firstDay + released; day++) {
+            int from = Math.floorMod(day, windowDays) * SLOTS * words;
+            Arrays.fill(bits, from, from + SLOTS * words, 0L);
+        }
+        firstDay = newFirstDay;
+    }
+
+    /**
+     * Gets the provider id of a technician.
+     *
+     * @param technician the technician
+     * @return the id
+     * @throws IllegalStateException if the technician has no id
+     */
+    private static int id(Provider technician) {
+        if (technician.getId() == Provider.NO_ID) {
+            throw new IllegalStateException("Provider has no id: " + technician.getProfile());
+        }
+        return technician.getId();
+    }
+}
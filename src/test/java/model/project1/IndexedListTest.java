@@ -0,0 +1,144 @@
+package model.project1;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that IndexedList keeps its hash index in step with its objects.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+class IndexedListTest {
+    /**
+     * An object whose equality can be changed.
+     */
+    private static final class Key {
+        private int value;
+
+        /**
+         * Constructs a key.
+         *
+         * @param value the value the key is equal by
+         */
+        private Key(int value) {
+            this.value = value;
+        }
+
+        /**
+         * Compares keys by value.
+         *
+         * @param obj the other object
+         * @return true if the other object is a key with the same value
+         */
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key other && other.value == value;
+        }
+
+        /**
+         * Hashes the value.
+         *
+         * @return the hash code
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(value);
+        }
+    }
+
+    /**
+     * Builds a list of keys with the values 0 to n - 1.
+     *
+     * @param n the number of keys
+     * @return the list
+     */
+    private static IndexedList<Key> listOf(int n) {
+        IndexedList<Key> list = new IndexedList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(new Key(i));
+        }
+        return list;
+    }
+
+    /**
+     * An updated object is found by its new equality at its old index.
+     */
+    @Test
+    void updateReindexesTheChangedObject() {
+        IndexedList<Key> list = listOf(3);
+        assertTrue(list.update(new Key(1), key -> key.value = 10, key -> key.value = 1));
+        assertTrue(list.contains(new Key(10)));
+        assertFalse(list.contains(new Key(1)));
+        assertEquals(1, list.indexOf(new Key(10)));
+    }
+
+    /**
+     * An update that would duplicate another object is undone, and the object can still be found and removed.
+     */
+    @Test
+    void updateThatCollidesIsUndone() {
+        IndexedList<Key> list = listOf(3);
+        Key moving = list.get(1);
+        assertThrows(IllegalArgumentException.class,
+                () -> list.update(new Key(1), key -> key.value = 2, key -> key.value = 1));
+        assertEquals(1, moving.value);
+        assertTrue(list.contains(new Key(1)));
+        assertEquals(1, list.indexOf(new Key(1)));
+        assertTrue(list.remove(new Key(1)));
+        assertEquals(2, list.size());
+    }
+
+    /**
+     * Setting an object that is already at another index is rejected.
+     */
+    @Test
+    void setRejectsAnObjectAtAnotherIndex() {
+        IndexedList<Key> list = listOf(3);
+        assertThrows(IllegalArgumentException.class, () -> list.set(0, new Key(2)));
+        assertEquals(0, list.indexOf(new Key(0)));
+        assertEquals(2, list.indexOf(new Key(2)));
+        list.set(0, new Key(5));
+        assertFalse(list.contains(new Key(0)));
+        assertEquals(0, list.indexOf(new Key(5)));
+    }
+
+    /**
+     * Reordering objects among their indexes keeps every object findable at its new index.
+     */
+    @Test
+    void setAllReordersAmongTheSameIndexes() {
+        IndexedList<Key> list = listOf(5);
+        list.remove(new Key(0)); // Leaves a slot to compact
+        int[] indexes = {0, 2, 3};
+        Key[] reordered = {list.get(3), list.get(0), list.get(2)};
+        list.setAll(indexes, i -> reordered[i], indexes.length);
+        int[] expected = {4, 2, 1, 3};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], list.get(i).value);
+            assertEquals(i, list.indexOf(new Key(expected[i])));
+        }
+    }
+
+    /**
+     * A reorder that would put an object in the list twice leaves the list as it was.
+     */
+    @Test
+    void setAllWithADuplicateChangesNothing() {
+        IndexedList<Key> list = listOf(4);
+        Key[] before = {list.get(0), list.get(1), list.get(2), list.get(3)};
+        int[] indexes = {0, 1};
+        Key[] duplicate = {list.get(1), list.get(3)};
+        assertThrows(IllegalArgumentException.class, () -> list.setAll(indexes, i -> duplicate[i], indexes.length));
+        for (int i = 0; i < before.length; i++) {
+            assertSame(before[i], list.get(i));
+            assertEquals(i, list.indexOf(before[i]));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package model.project1;
+
+import model.util.Doctor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that every patient object of a profile reads the same visit history.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+class VisitHistoryTest {
+    private static final Profile PATIENT = new Profile("JOHN", "DOE", new Date(1990, 1, 1));
+    private static final Doctor DOCTOR = new Doctor(new Profile("ANDREW", "PATEL", new Date(1989, 1, 21)),
+            Location.BRIDGEWATER, Specialty.FAMILY, "01");
+
+    /**
+     * Creates an appointment with the doctor.
+     *
+     * @param day     the day of December 2026
+     * @param patient the patient
+     * @return the appointment
+     */
+    private static Appointment visit(int day, Patient patient) {
+        return new Appointment(new Date(2026, 12, day), Timeslot.ofOrdinal(0), patient, DOCTOR);
+    }
+
+    /**
+     * Visits archived under different patient objects of one profile are read from every one of them.
+     */
+    @Test
+    void everyArchivedPatientReadsTheProfilesVisits() {
+        VisitHistory history = new VisitHistory();
+        Patient first = new Patient(PATIENT);
+        Patient second = new Patient(PATIENT);
+        assertTrue(first.getVisits().isEmpty());
+        history.archive(visit(2, first), 100);
+        history.archive(visit(1, second), 200);
+        assertSame(first, history.getPatient(PATIENT));
+        for (Patient patient : new Patient[] {first, second}) {
+            assertEquals(2, patient.getVisits().size());
+            assertEquals(new Date(2026, 12, 1), patient.getVisits().get(0).getDate());
+            assertEquals(300, patient.getVisits().billedCents());
+        }
+        history.archive(visit(3, second), 50);
+        assertEquals(3, first.getVisits().size());
+    }
+
+    /**
+     * A booking made under patientOf reads the history of the profile's earlier visits.
+     */
+    @Test
+    void patientOfGivesTheProfilesRecord() {
+        VisitHistory history = new VisitHistory();
+        assertNull(history.getPatient(PATIENT));
+        Patient fresh = history.patientOf(PATIENT);
+        assertNotSame(fresh, history.patientOf(PATIENT));
+        history.archive(visit(1, fresh), 100);
+        Patient booked = history.patientOf(new Profile("JOHN", "DOE", new Date(1990, 1, 1)));
+        assertSame(fresh, booked);
+        assertEquals(1, booked.getVisits().size());
+    }
+}
@@ -0,0 +1,189 @@
+package model.util;
+
+import model.project1.List;
+import model.project1.Provider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that replaying the journal rebuilds the book it recorded, that a record torn by a crash
+ * is dropped, and that changes are durable once awaitDurable returns or whenDurable completes for them.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+class AppointmentJournalTest {
+    private static final int CHANGES = 2000;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Makes random changes to a book and through its journal.
+     *
+     * @param random    the source of randomness
+     * @param providers the registered providers
+     * @param book      the book
+     * @param journal   the journal
+     * @param changes   the number of changes to try
+     */
+    private static void change(Random random, List<Provider> providers, TestBook book, AppointmentJournal journal,
+                               int changes) {
+        for (int i = 0; i < changes; i++) {
+            book.change(random, providers, journal);
+        }
+    }
+
+    /**
+     * Bookings, cancellations, reschedules and closed billing cycles replay to the same book.
+     *
+     * @throws IOException if the journal cannot be used
+     */
+    @Test
+    void replayRebuildsTheBook() throws IOException {
+        List<Provider> providers = TestData.providers();
+        ProviderRegistry registry = new ProviderRegistry(providers);
+        Path path = directory.resolve("appointments.journal");
+        TestBook live = new TestBook();
+        try (AppointmentJournal journal = AppointmentJournal.open(path, registry, live)) {
+            change(new Random(24), providers, live, journal, CHANGES);
+        }
+
+        TestBook replayed = new TestBook();
+        try (AppointmentJournal journal = AppointmentJournal.open(path, registry, replayed)) {
+            assertEquals(0, journal.replayed().skipped());
+            assertTrue(journal.replayed().records() > 0);
+            assertEquals(Files.size(path), journal.replayed().bytes());
+        }
+        assertEquals(live.describe(), replayed.describe());
+    }
+
+    /**
+     * A record torn by a crash is truncated on open, and the records appended after it replay.
+     *
+     * @throws IOException if the journal cannot be used
+     */
+    @Test
+    void tornTailIsTruncated() throws IOException {
+        List<Provider> providers = TestData.providers();
+        ProviderRegistry registry = new ProviderRegistry(providers);
+        Path path = directory.resolve("appointments.journal");
+        Random random = new Random(7);
+        TestBook live = new TestBook();
+        try (AppointmentJournal journal = AppointmentJournal.open(path, registry, live)) {
+            change(random, providers, live, journal, CHANGES / 4);
+        }
+        long complete = Files.size(path);
+        Files.write(path, new byte[]{3, 0, 0, 0, 0, 0, 0}, StandardOpenOption.APPEND); // Part of a booking
+
+        TestBook replayed = new TestBook();
+        try (AppointmentJournal journal = AppointmentJournal.open(path, registry, replayed)) {
+            assertEquals(complete, journal.replayed().bytes());
+            assertEquals(complete, Files.size(path));
+            assertEquals(live.describe(), replayed.describe());
+            change(random, providers, live, journal, CHANGES / 4);
+        }
+
+        TestBook reopened = new TestBook();
+        try (AppointmentJournal journal = AppointmentJournal.open(path, registry, reopened)) {
+            assertEquals(0, journal.replayed().skipped());
+            assertEquals(Files.size(path), journal.replayed().bytes());
+        }
+        assertEquals(live.describe(), reopened.describe());
+    }
+
+    /**
+     * Positions grow with every change, and once awaitDurable returns for a position, the file
+     * holds every byte up to it.
+     *
+     * @throws IOException if the journal cannot be used
+     */
+    @Test
+    void awaitDurableCoversThePosition() throws IOException {
+        List<Provider> providers = TestData.providers();
+        ProviderRegistry registry = new ProviderRegistry(providers);
+        Path path = directory.resolve("appointments.journal");
+        Random random = new Random(3);
+        TestBook live = new TestBook();
+        try (AppointmentJournal journal = AppointmentJournal.open(path, registry, live)) {
+            long opened = journal.replayed().bytes();
+            long last = 0;
+            for (int i = 0; i < CHANGES / 10; i++) {
+                long position = live.change(random, providers, journal);
+                if (position < 0) {
+                    continue;
+                }
+                assertTrue(position > last);
+                last = position;
+                if (i % 10 == 0) {
+                    journal.awaitDurable(position);
+                    assertTrue(Files.size(path) >= opened + position);
+                }
+            }
+            journal.awaitDurable(last);
+            assertEquals(opened + last, Files.size(path));
+        }
+    }
+
+    /**
+     * The futures of whenDurable complete on the writer thread once the file holds their positions,
+     * without the appending thread waiting, and fail once the journal is closed without them.
+     *
+     * @throws Exception if the journal cannot be used or a future fails
+     */
+    @Test
+    void whenDurableCompletesWithoutWaiting() throws Exception {
+        List<Provider> providers = TestData.providers();
+        ProviderRegistry registry = new ProviderRegistry(providers);
+        Path path = directory.resolve("appointments.journal");
+        Random random = new Random(5);
+        TestBook live = new TestBook();
+        ArrayList<CompletableFuture<Long>> written = new ArrayList<>();
+        AppointmentJournal journal = AppointmentJournal.open(path, registry, live);
+        long opened = journal.replayed().bytes();
+        for (int i = 0; i < CHANGES / 4; i++) {
+            long position = live.change(random, providers, journal);
+            if (position >= 0) {
+                written.add(journal.whenDurable(position).thenApply(durable -> sizeOf(path) - opened - position));
+            }
+        }
+        CompletableFuture<Void> synced = journal.whenSynced();
+        CompletableFuture.allOf(written.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        for (CompletableFuture<Long> future : written) {
+            assertTrue(future.get() >= 0);
+        }
+        synced.get(10, TimeUnit.SECONDS);
+        CompletableFuture<Void> beyond = journal.whenDurable(Long.MAX_VALUE);
+        assertFalse(beyond.isDone());
+        journal.close();
+        assertTrue(beyond.isCompletedExceptionally());
+        assertTrue(journal.whenDurable(Long.MAX_VALUE).isCompletedExceptionally());
+    }
+
+    /**
+     * Gets the length of a file.
+     *
+     * @param path the file
+     * @return the length
+     */
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package model.util;
+
+import model.project1.List;
+import model.project1.Provider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a snapshot and the journal after its cut rebuild the book, before and after the
+ * journal is compacted, and that a compacted journal is never replayed without a snapshot it follows.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+class AppointmentSnapshotTest {
+    private static final int CHANGES = 500;
+
+    @TempDir
+    Path directory;
+
+    private final List<Provider> providers = TestData.providers();
+    private final ProviderRegistry registry = new ProviderRegistry(providers);
+    private final Random random = new Random(25);
+
+    /**
+     * Makes random changes to a book and through its journal.
+     *
+     * @param book    the book
+     * @param journal the journal
+     */
+    private void change(TestBook book, AppointmentJournal journal) {
+        for (int i = 0; i < CHANGES; i++) {
+            book.change(random, providers, journal);
+        }
+    }
+
+    /**
+     * Cuts the journal and writes a snapshot of the book taken at the cut.
+     *
+     * @param book     the book
+     * @param journal  the journal
+     * @param snapshot the snapshot file
+     * @return the cut
+     * @throws IOException if the snapshot cannot be written
+     */
+    private AppointmentJournal.Cut snapshot(TestBook book, AppointmentJournal journal, Path snapshot)
+            throws IOException {
+        book.rotateTo((Technician) providers.get(random.nextInt(5) + 6));
+        AppointmentJournal.Cut cut = journal.cut();
+        book.snapshot().write(snapshot, cut);
+        return cut;
+    }
+
+    /**
+     * Rebuilds a book from a snapshot and the journal after its cut.
+     *
+     * @param snapshot the snapshot file
+     * @param journal  the journal file
+     * @return the book
+     * @throws IOException if the snapshot cannot be loaded or the journal cannot be replayed after it
+     */
+    private TestBook rebuild(Path snapshot, Path journal) throws IOException {
+        TestBook book = new TestBook();
+        AppointmentSnapshot.Stats loaded = AppointmentSnapshot.load(snapshot, registry, book);
+        assertTrue(AppointmentJournal.follows(journal, loaded.cut()));
+        assertEquals(0, loaded.skipped());
+        try (AppointmentJournal reopened = AppointmentJournal.open(journal, registry, book, loaded.cut())) {
+            assertEquals(0, reopened.replayed().skipped());
+        }
+        return book;
+    }
+
+    /**
+     * A snapshot and the records after its cut rebuild the book while the journal still holds
+     * the records before the cut.
+     *
+     * @throws IOException if the files cannot be used
+     */
+    @Test
+    void snapshotAndTailRebuildTheBook() throws IOException {
+        Path journalPath = directory.resolve("appointments.journal");
+        Path snapshotPath = directory.resolve("appointments.snapshot");
+        TestBook live = new TestBook();
+        try (AppointmentJournal journal = AppointmentJournal.open(journalPath, registry, live)) {
+            change(live, journal);
+            AppointmentJournal.Cut cut = snapshot(live, journal, snapshotPath);
+            assertEquals(cut, AppointmentSnapshot.cutOf(snapshotPath));
+            change(live, journal);
+        }
+        assertEquals(live.describe(), rebuild(snapshotPath, journalPath).describe());
+    }
+
+    /**
+     * Compaction drops the records before the cut, and the snapshot and the compacted journal
+     * rebuild the book, before and after more changes are appended to it.
+     *
+     * @throws IOException if the files cannot be used
+     */
+    @Test
+    void compactionRoundTrip() throws IOException {
+        Path journalPath = directory.resolve("appointments.journal");
+        Path snapshotPath = directory.resolve("appointments.snapshot");
+        TestBook live = new TestBook();
+        AppointmentJournal.Cut cut;
+        try (AppointmentJournal journal = AppointmentJournal.open(journalPath, registry, live)) {
+            change(live, journal);
+            cut = snapshot(live, journal, snapshotPath);
+            change(live, journal);
+            journal.sync();
+            long before = Files.size(journalPath);
+            journal.compact(cut);
+            assertTrue(Files.size(journalPath) < before);
+            assertEquals(live.describe(), rebuild(snapshotPath, journalPath).describe());
+            change(live, journal);
+        }
+        assertEquals(live.describe(), rebuild(snapshotPath, journalPath).describe());
+    }
+
+    /**
+     * A compacted journal is not opened without its snapshot, or after a snapshot it does not
+     * follow, and is left as it was.
+     *
+     * @throws IOException if the files cannot be used
+     */
+    @Test
+    void compactedJournalNeedsItsSnapshot() throws IOException {
+        Path journalPath = directory.resolve("appointments.journal");
+        Path snapshotPath = directory.resolve("appointments.snapshot");
+        TestBook live = new TestBook();
+        AppointmentJournal.Cut cut;
+        try (AppointmentJournal journal = AppointmentJournal.open(journalPath, registry, live)) {
+            change(live, journal);
+            cut = snapshot(live, journal, snapshotPath);
+            change(live, journal);
+            journal.compact(cut);
+        }
+        byte[] compacted = Files.readAllBytes(journalPath);
+
+        assertThrows(IOException.class, () -> AppointmentJournal.open(journalPath, registry, new TestBook()));
+        AppointmentJournal.Cut stale = new AppointmentJournal.Cut(cut.generation() - 1, cut.offset());
+        assertFalse(AppointmentJournal.follows(journalPath, stale));
+        assertThrows(IOException.class, () -> AppointmentJournal.open(journalPath, registry, new TestBook(), stale));
+        assertArrayEquals(compacted, Files.readAllBytes(journalPath));
+
+        assertTrue(AppointmentJournal.follows(directory.resolve("missing.journal"), cut));
+        assertNull(AppointmentSnapshot.cutOf(directory.resolve("missing.snapshot")));
+        assertNull(AppointmentSnapshot.load(directory.resolve("missing.snapshot"), registry, new TestBook()));
+    }
+
+    /**
+     * A damaged snapshot restores nothing, and the previous snapshot kept beside it still rebuilds
+     * the book until the journal is compacted at the damaged snapshot's cut.
+     *
+     * @throws IOException if the files cannot be used
+     */
+    @Test
+    void previousSnapshotReplacesADamagedOne() throws IOException {
+        Path journalPath = directory.resolve("appointments.journal");
+        Path snapshotPath = directory.resolve("appointments.snapshot");
+        Path previousPath = AppointmentSnapshot.previousOf(snapshotPath);
+        TestBook live = new TestBook();
+        AppointmentJournal.Cut first;
+        AppointmentJournal.Cut second;
+        try (AppointmentJournal journal = AppointmentJournal.open(journalPath, registry, live)) {
+            change(live, journal);
+            first = snapshot(live, journal, snapshotPath);
+            journal.compact(first);
+            change(live, journal);
+            second = snapshot(live, journal, snapshotPath);
+            change(live, journal);
+        }
+        assertEquals(first, AppointmentSnapshot.cutOf(previousPath));
+        assertEquals(second, AppointmentSnapshot.cutOf(snapshotPath));
+
+        byte[] damaged = Files.readAllBytes(snapshotPath);
+        damaged[damaged.length / 2] ^= 1;
+        Files.write(snapshotPath, damaged);
+        TestBook restored = new TestBook();
+        assertThrows(IOException.class, () -> AppointmentSnapshot.load(snapshotPath, registry, restored));
+        assertEquals(new TestBook().describe(), restored.describe());
+        Files.write(snapshotPath, Arrays.copyOf(damaged, damaged.length / 2));
+        assertThrows(IOException.class, () -> AppointmentSnapshot.load(snapshotPath, registry, new TestBook()));
+
+        assertTrue(AppointmentJournal.follows(journalPath, first));
+        assertEquals(live.describe(), rebuild(previousPath, journalPath).describe());
+
+        TestBook compacting = new TestBook();
+        AppointmentSnapshot.load(previousPath, registry, compacting);
+        try (AppointmentJournal journal = AppointmentJournal.open(journalPath, registry, compacting, first)) {
+            journal.compact(second);
+        }
+        assertFalse(AppointmentJournal.follows(journalPath, first));
+        assertThrows(IOException.class, () -> AppointmentJournal.open(journalPath, registry, new TestBook(), first));
+    }
+}
@@ -0,0 +1,110 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.IndexedList;
+import model.project1.List;
+import model.project1.Profile;
+import model.project1.Provider;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the running billing totals always equal the totals recomputed from the booked appointments.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+class BillingLedgerTest {
+    private static final int OPERATIONS = 5000;
+
+    /**
+     * Checks the ledger against totals recomputed from scratch: the patients in patient order with
+     * their amounts due, and every provider's credit.
+     *
+     * @param ledger    the running ledger
+     * @param book      the booked appointments
+     * @param providers the registered providers
+     */
+    private static void assertMatches(BillingLedger ledger, IndexedList<Appointment> book, List<Provider> providers) {
+        TreeMap<Profile, Long> due = new TreeMap<>();
+        Map<Provider, Long> credit = new HashMap<>();
+        for (Appointment appointment : book) {
+            long charge = ((Provider) appointment.getProvider()).getSpecialtyBilling() * BillingLedger.CENTS_PER_DOLLAR;
+            due.merge(appointment.getPatient().getProfile(), charge, Long::sum);
+            credit.merge((Provider) appointment.getProvider(), charge, Long::sum);
+        }
+        Iterator<Profile> patients = ledger.patients().iterator();
+        for (Map.Entry<Profile, Long> entry : due.entrySet()) {
+            assertTrue(patients.hasNext());
+            Profile patient = patients.next();
+            assertEquals(entry.getKey(), patient);
+            assertEquals(entry.getValue(), ledger.dueCents(patient), patient.toString());
+        }
+        assertFalse(patients.hasNext());
+        assertEquals(book.size() == 0, ledger.isEmpty());
+        for (Provider provider : providers) {
+            int id = provider.getId();
+            long expected = credit.getOrDefault(provider, 0L);
+            assertEquals(expected, id < ledger.providerIdBound() ? ledger.creditCents(id) : 0, provider.toString());
+            if (expected == 0) {
+                assertTrue(id >= ledger.providerIdBound() || ledger.provider(id) == null);
+            } else {
+                assertSame(provider, ledger.provider(id));
+            }
+        }
+    }
+
+    /**
+     * After every one of 5000 random bookings and cancellations, the ledger equals the recomputed totals.
+     */
+    @Test
+    void runningTotalsMatchRecomputedTotals() {
+        List<Provider> providers = TestData.providers();
+        new ProviderRegistry(providers);
+        Random random = new Random(13);
+        BillingLedger ledger = new BillingLedger();
+        IndexedList<Appointment> book = new IndexedList<>();
+        List<Appointment> booked = new List<>();
+        for (int operation = 0; operation < OPERATIONS; operation++) {
+            if (booked.size() > 0 && random.nextInt(5) < 2) {
+                Appointment appointment = booked.get(random.nextInt(booked.size()));
+                booked.remove(appointment);
+                book.remove(appointment);
+                assertTrue(ledger.cancel(appointment));
+            } else {
+                Appointment appointment = TestData.appointment(random, providers, 40, 10);
+                if (book.contains(appointment)) {
+                    continue;
+                }
+                book.add(appointment);
+                booked.add(appointment);
+                ledger.book(appointment);
+            }
+            assertMatches(ledger, book, providers);
+        }
+    }
+
+    /**
+     * Cancelling an appointment whose patient has no account leaves the ledger alone.
+     */
+    @Test
+    void cancelWithoutAccount() {
+        List<Provider> providers = TestData.providers();
+        new ProviderRegistry(providers);
+        BillingLedger ledger = new BillingLedger();
+        Appointment appointment = TestData.appointment(new Random(1), providers, 10, 5);
+        assertFalse(ledger.cancel(appointment));
+        assertTrue(ledger.isEmpty());
+        assertNull(ledger.provider(providers.get(0).getId()));
+    }
+}
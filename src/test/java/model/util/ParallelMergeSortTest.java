@@ -0,0 +1,97 @@
+package model.util;
+
+import model.project1.IndexedList;
+import model.project1.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that the parallel merge sort sorts only its range, stably, like the sequential sort,
+ * and sorts lists the same way.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+class ParallelMergeSortTest {
+    /**
+     * Restores the default cutoff.
+     */
+    @AfterEach
+    void restoreCutoff() {
+        ParallelMergeSort.setCutoff(ParallelMergeSort.DEFAULT_CUTOFF);
+    }
+
+    /**
+     * A range in the middle of the array is sorted stably and the rest is left alone,
+     * whether the range is split into tasks or not.
+     */
+    @Test
+    void sortsOnlyTheRangeStably() {
+        Random random = new Random(9);
+        Integer[] values = new Integer[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(100) * 1000 + i % 1000; // Ties on the thousands, ordered by i % 1000
+        }
+        Comparator<Integer> byThousands = Comparator.comparingInt(value -> value / 1000);
+        for (int cutoff : new int[] {2, 64, ParallelMergeSort.DEFAULT_CUTOFF}) {
+            ParallelMergeSort.setCutoff(cutoff);
+            Integer[] expected = values.clone();
+            Arrays.sort(expected, 3000, 9000, byThousands);
+            Integer[] actual = values.clone();
+            ParallelMergeSort.sort(actual, 3000, 9000, byThousands);
+            assertArrayEquals(expected, actual, "cutoff " + cutoff);
+        }
+    }
+
+    /**
+     * A list longer than the cutoff is sorted stably in parallel, and an IndexedList keeps its
+     * hash index in step with the new order.
+     */
+    @Test
+    void sortsListsAndTheirIndexes() {
+        Random random = new Random(10);
+        List<Integer> list = new List<>();
+        IndexedList<Integer> indexed = new IndexedList<>();
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(100) * 1000 + i % 1000;
+            list.add(value);
+            if (!indexed.contains(value)) {
+                indexed.add(value);
+            }
+        }
+        Comparator<Integer> byThousands = Comparator.comparingInt(value -> value / 1000);
+        ParallelMergeSort.setCutoff(64);
+        Object[] expected = toArray(list);
+        Arrays.sort(expected, 0, expected.length, (a, b) -> byThousands.compare((Integer) a, (Integer) b));
+        ParallelMergeSort.sort(list, byThousands);
+        assertArrayEquals(expected, toArray(list));
+
+        expected = toArray(indexed);
+        Arrays.sort(expected, 0, expected.length, (a, b) -> byThousands.compare((Integer) a, (Integer) b));
+        ParallelMergeSort.sort(indexed, byThousands);
+        assertArrayEquals(expected, toArray(indexed));
+        for (int i = 0; i < indexed.size(); i++) {
+            assertEquals(i, indexed.indexOf(indexed.get(i)));
+        }
+    }
+
+    /**
+     * Copies a list into an array.
+     *
+     * @param list the list
+     * @return the elements, in list order
+     */
+    private static Object[] toArray(List<Integer> list) {
+        Object[] array = new Object[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
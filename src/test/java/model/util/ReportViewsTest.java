@@ -0,0 +1,67 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.IndexedList;
+import model.project1.List;
+import model.project1.Provider;
+import model.project1.Timeslot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that the report views built in bulk from a book are the views built by booking one appointment at a time.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+class ReportViewsTest {
+    private static final char[] KEYS = {'A', 'P', 'L', 'O', 'I'};
+
+    /**
+     * After random bookings, cancellations and reschedules, ReportViews.of over the book gives every
+     * view in the same order as the views kept up to date as the changes were made.
+     */
+    @Test
+    void bulkViewsMatchIncrementalViews() {
+        List<Provider> providers = TestData.providers();
+        new ProviderRegistry(providers);
+        Random random = new Random(24);
+        IndexedList<Appointment> book = new IndexedList<>();
+        List<Appointment> booked = new List<>();
+        ReportViews incremental = new ReportViews();
+        for (int operation = 0; operation < 3000; operation++) {
+            int choice = random.nextInt(10);
+            if (choice < 2 && booked.size() > 0) {
+                Appointment appointment = booked.get(random.nextInt(booked.size()));
+                booked.remove(appointment);
+                book.remove(appointment);
+                incremental.remove(appointment);
+            } else if (choice < 3 && booked.size() > 0) {
+                Appointment appointment = booked.get(random.nextInt(booked.size()));
+                Timeslot oldSlot = appointment.getTimeslot();
+                Timeslot newSlot = Timeslot.ofOrdinal(random.nextInt(Timeslot.MAX_SLOT_INDEX));
+                try {
+                    incremental.update(appointment, moved -> book.update(moved,
+                            changed -> changed.setTimeslot(newSlot), changed -> changed.setTimeslot(oldSlot)));
+                } catch (IllegalArgumentException e) {
+                    // The new slot is taken by the same patient; the appointment stays where it was
+                }
+            } else {
+                Appointment appointment = TestData.appointment(random, providers, 200, 15);
+                if (!book.contains(appointment)) {
+                    book.add(appointment);
+                    booked.add(appointment);
+                    incremental.add(appointment);
+                }
+            }
+        }
+        ReportViews bulk = ReportViews.of(book);
+        assertEquals(incremental.size(), bulk.size());
+        for (char key : KEYS) {
+            assertEquals(new ArrayList<>(incremental.view(key)), new ArrayList<>(bulk.view(key)), "view " + key);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.IndexedList;
+import model.project1.List;
+import model.project1.Provider;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that sorting by packed keys gives exactly the order of the stable comparator sort,
+ * with the provider name ranks of the registered roster and without them.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+class SortKeysTest {
+    private static final int APPOINTMENTS = 2000;
+
+    /**
+     * Creates random appointments with the providers.
+     *
+     * @param providers the providers
+     * @param seed      the random seed
+     * @return the appointments, in booking order
+     */
+    private static IndexedList<Appointment> book(List<Provider> providers, long seed) {
+        Random random = new Random(seed);
+        IndexedList<Appointment> book = new IndexedList<>();
+        while (book.size() < APPOINTMENTS) {
+            Appointment appointment = TestData.appointment(random, providers, 300, 20);
+            if (!book.contains(appointment)) {
+                book.add(appointment);
+            }
+        }
+        return book;
+    }
+
+    /**
+     * Sorts a copy of the book by packed keys and another by the comparator, and checks they agree.
+     *
+     * @param book       the appointments
+     * @param order      the packed-key order
+     * @param comparator the matching comparator
+     */
+    private static void assertSameOrder(IndexedList<Appointment> book, SortKeys.Order order,
+                                        Comparator<Appointment> comparator) {
+        List<Appointment> expected = new List<>();
+        expected.addAll(book);
+        expected.sort(comparator);
+        assertTrue(SortKeys.sort(book, null, order));
+        assertEquals(expected.size(), book.size());
+        for (int i = 0; i < book.size(); i++) {
+            assertSame(expected.get(i), book.get(i), "position " + i);
+            assertEquals(i, book.indexOf(book.get(i)));
+        }
+    }
+
+    /**
+     * The A report matches the comparator with the registered roster's name ranks.
+     */
+    @Test
+    void dateTimeProviderWithRegisteredRoster() {
+        List<Provider> providers = TestData.providers();
+        Sort.setProviders(new ProviderRegistry(providers).byLastName());
+        assertSameOrder(book(providers, 1), SortKeys.Order.DATE_TIME_PROVIDER, Sort.BY_DATE_TIME_PROVIDER);
+    }
+
+    /**
+     * The A report matches the comparator when the providers are not of the registered roster.
+     */
+    @Test
+    void dateTimeProviderWithOtherRoster() {
+        List<Provider> providers = TestData.providers();
+        Sort.setProviders(new ProviderRegistry(providers).byLastName());
+        Sort.setProviders(new ProviderRegistry(TestData.providers()).byLastName()); // Registered after, with equal ids
+        assertSameOrder(book(providers, 2), SortKeys.Order.DATE_TIME_PROVIDER, Sort.BY_DATE_TIME_PROVIDER);
+    }
+
+    /**
+     * The I report matches the comparator with the registered roster's name ranks.
+     */
+    @Test
+    void imagingByCountyWithRegisteredRoster() {
+        List<Provider> providers = TestData.providers();
+        Sort.setProviders(new ProviderRegistry(providers).byLastName());
+        IndexedList<Appointment> imaging = book(providers, 3);
+        imaging.removeIf(appointment -> !(appointment instanceof Imaging));
+        assertSameOrder(imaging, SortKeys.Order.COUNTY_DATE_TIME_TECHNICIAN, Sort.BY_COUNTY_DATE_TIME_TECHNICIAN);
+    }
+
+    /**
+     * The P report, which still ranks patients per report, matches the comparator.
+     */
+    @Test
+    void patientDate() {
+        List<Provider> providers = TestData.providers();
+        Sort.setProviders(new ProviderRegistry(providers).byLastName());
+        assertSameOrder(book(providers, 4), SortKeys.Order.PATIENT_DATE, Sort.BY_PATIENT);
+    }
+}
@@ -0,0 +1,139 @@
+package model.util;
+
+import model.project1.List;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that SortedRun behaves as a SortedSet, and that a TreeSet is built from it without comparing elements.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+class SortedRunTest {
+    /**
+     * Creates sorted, distinct random numbers.
+     *
+     * @param random the source of randomness
+     * @param count  the number of draws; duplicates are dropped
+     * @return the numbers in ascending order
+     */
+    private static TreeSet<Integer> numbers(Random random, int count) {
+        TreeSet<Integer> numbers = new TreeSet<>();
+        for (int i = 0; i < count; i++) {
+            numbers.add(random.nextInt(count * 4));
+        }
+        return numbers;
+    }
+
+    /**
+     * Copies a sorted set into a run.
+     *
+     * @param numbers the numbers, in ascending order
+     * @return the run over them
+     */
+    private static SortedRun<Integer> runOf(SortedSet<Integer> numbers) {
+        List<Integer> list = new List<>();
+        for (Integer number : numbers) {
+            list.add(number);
+        }
+        return new SortedRun<>(list, Comparator.naturalOrder());
+    }
+
+    /**
+     * Checks that a run holds exactly the elements of a sorted set, in order.
+     *
+     * @param expected the sorted set
+     * @param actual   the run or a view of it
+     */
+    private static void assertSameSet(SortedSet<Integer> expected, SortedSet<Integer> actual) {
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+        assertEquals(expected.size(), actual.size());
+        if (!expected.isEmpty()) {
+            assertEquals(expected.first(), actual.first());
+            assertEquals(expected.last(), actual.last());
+        }
+    }
+
+    /**
+     * Contains, first, last and every kind of range view, nested, agree with a TreeSet of the same numbers.
+     */
+    @Test
+    void behavesLikeTreeSet() {
+        Random random = new Random(24);
+        TreeSet<Integer> expected = numbers(random, 500);
+        SortedRun<Integer> run = runOf(expected);
+        assertSameSet(expected, run);
+        for (int i = -1; i <= 2001; i++) {
+            assertEquals(expected.contains(i), run.contains(i), "contains " + i);
+        }
+        assertFalse(run.contains("not a number"));
+        for (int trial = 0; trial < 200; trial++) {
+            int a = random.nextInt(2100) - 50;
+            int b = a + 1 + random.nextInt(500);
+            assertSameSet(expected.subSet(a, b), run.subSet(a, b));
+            assertSameSet(expected.headSet(b), run.headSet(b));
+            assertSameSet(expected.tailSet(a), run.tailSet(a));
+            int c = a + random.nextInt(b - a); // A low end must be below the view's high end
+            assertSameSet(expected.subSet(a, b).headSet(c), run.subSet(a, b).headSet(c));
+            assertSameSet(expected.subSet(a, b).headSet(b), run.subSet(a, b).headSet(b));
+            assertSameSet(expected.subSet(a, b).tailSet(c), run.subSet(a, b).tailSet(c));
+            assertEquals(expected.subSet(a, b).contains(c), run.subSet(a, b).contains(c));
+        }
+    }
+
+    /**
+     * Views reject bounds outside their range, and an empty run has no first or last element.
+     */
+    @Test
+    void rejectsOutOfRangeBoundsAndEmptyEnds() {
+        SortedRun<Integer> run = runOf(new TreeSet<>(java.util.List.of(1, 3, 5, 7, 9)));
+        assertThrows(IllegalArgumentException.class, () -> run.subSet(5, 3));
+        SortedSet<Integer> middle = run.subSet(3, 7);
+        assertThrows(IllegalArgumentException.class, () -> middle.headSet(8));
+        assertThrows(IllegalArgumentException.class, () -> middle.tailSet(2));
+        assertThrows(IllegalArgumentException.class, () -> middle.tailSet(7));
+        assertTrue(middle.headSet(7).contains(5));
+        SortedSet<Integer> empty = run.subSet(4, 5);
+        assertTrue(empty.isEmpty());
+        assertThrows(NoSuchElementException.class, empty::first);
+        assertThrows(NoSuchElementException.class, empty::last);
+        assertThrows(UnsupportedOperationException.class, () -> run.add(11));
+    }
+
+    /**
+     * TreeSet.addAll and the TreeSet(SortedSet) constructor build the tree from a run without calling the
+     * comparator, which is the linear-time build ReportViews.of relies on.
+     */
+    @Test
+    void treeSetIsBuiltWithoutComparing() {
+        AtomicInteger comparisons = new AtomicInteger();
+        Comparator<Integer> counting = (x, y) -> {
+            comparisons.incrementAndGet();
+            return Integer.compare(x, y);
+        };
+        List<Integer> list = new List<>();
+        for (int i = 0; i < 10_000; i++) {
+            list.add(i * 2);
+        }
+        SortedRun<Integer> run = new SortedRun<>(list, counting);
+        TreeSet<Integer> added = new TreeSet<>(counting);
+        added.addAll(run);
+        TreeSet<Integer> constructed = new TreeSet<>(run);
+        assertEquals(0, comparisons.get());
+        assertEquals(10_000, added.size());
+        assertEquals(new ArrayList<>(added), new ArrayList<>(constructed));
+        assertTrue(added.contains(19_998));
+    }
+}
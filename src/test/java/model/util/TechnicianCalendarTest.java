@@ -0,0 +1,116 @@
+package model.util;
+
+import model.project1.Date;
+import model.project1.List;
+import model.project1.Location;
+import model.project1.Timeslot;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that the word-at-a-time rotation search picks the technician the plain rotation walk picks.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+class TechnicianCalendarTest {
+    private static final Location[] LOCATIONS = Location.values();
+    private static final int DAYS = 5;
+
+    /**
+     * Creates a rotation of technicians at random locations, with ids in a shuffled order.
+     *
+     * @param random      the source of randomness
+     * @param technicians the number of technicians
+     * @return the technicians, in rotation order
+     */
+    private static List<Technician> rotation(Random random, int technicians) {
+        int[] ids = new int[technicians];
+        for (int i = 0; i < technicians; i++) {
+            int j = random.nextInt(i + 1);
+            ids[i] = ids[j];
+            ids[j] = i;
+        }
+        List<Technician> rotation = new List<>();
+        for (int i = 0; i < technicians; i++) {
+            Technician technician = new Technician(TestData.profile("TECH" + i, "NUMBER" + i, 1990, 1, 1),
+                    LOCATIONS[random.nextInt(LOCATIONS.length)], 100);
+            technician.setId(ids[i]);
+            rotation.add(technician);
+        }
+        return rotation;
+    }
+
+    /**
+     * Walks the rotation one technician at a time from a position, the way the search did before the calendar.
+     *
+     * @param rotation  the technicians, in rotation order
+     * @param assigned  the assigned (day, timeslot, position) keys
+     * @param from      the rotation position to start from
+     * @param day       the day, from 0
+     * @param slot      the timeslot ordinal
+     * @param locations a mask with bit i set if the location with ordinal i is eligible
+     * @return the first free eligible position, or -1 if there is none
+     */
+    private static int walk(List<Technician> rotation, HashSet<Long> assigned, int from, int day, int slot,
+                            int locations) {
+        for (int k = 0; k < rotation.size(); k++) {
+            int position = (from + k) % rotation.size();
+            boolean eligible = (locations & 1 << rotation.get(position).getLocation().ordinal()) != 0;
+            if (eligible && !assigned.contains(key(day, slot, position))) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Packs a day, timeslot and rotation position into one key.
+     *
+     * @param day      the day, from 0
+     * @param slot     the timeslot ordinal
+     * @param position the rotation position
+     * @return the key
+     */
+    private static long key(int day, int slot, int position) {
+        return ((long) day * Timeslot.MAX_SLOT_INDEX + slot) << 32 | position;
+    }
+
+    /**
+     * Under random assignments and releases, nextFree agrees with the rotation walk for every start position
+     * and location mask, at rotation sizes within one word, at a word boundary and across several words.
+     */
+    @Test
+    void nextFreeMatchesRotationWalk() {
+        Random random = new Random(20);
+        for (int technicians : new int[] {1, 6, 13, 64, 65, 130}) {
+            List<Technician> rotation = rotation(random, technicians);
+            TechnicianCalendar calendar = new TechnicianCalendar(rotation, DAYS, TestData.FIRST_DAY);
+            HashSet<Long> assigned = new HashSet<>();
+            for (int operation = 0; operation < 3000; operation++) {
+                int day = random.nextInt(DAYS);
+                int slot = random.nextInt(Timeslot.MAX_SLOT_INDEX);
+                Date date = Date.ofEpochDay(TestData.FIRST_DAY.getEpochDay() + day);
+                Timeslot timeslot = Timeslot.ofOrdinal(slot);
+                int from = random.nextInt(technicians);
+                int locations = random.nextInt(1 << LOCATIONS.length);
+                int expected = walk(rotation, assigned, from, day, slot, locations);
+                assertEquals(expected, calendar.nextFree(from, date, timeslot, locations),
+                        technicians + " technicians, operation " + operation);
+
+                int position = random.nextInt(technicians);
+                Imaging imaging = new Imaging(date, timeslot, TestData.patient(operation), rotation.get(position),
+                        Radiology.values()[0]);
+                if (assigned.remove(key(day, slot, position))) {
+                    calendar.release(imaging);
+                } else if (random.nextInt(3) > 0) {
+                    assigned.add(key(day, slot, position));
+                    calendar.assign(imaging);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.Date;
+import model.project1.IndexedList;
+import model.project1.List;
+import model.project1.Patient;
+import model.project1.Profile;
+import model.project1.Provider;
+import model.project1.Timeslot;
+import model.project1.VisitHistory;
+
+import java.util.Random;
+
+/**
+ * A plain appointment store for the journal and snapshot tests. The same changes are made to it
+ * directly and through a journal, and a store rebuilt by replay must describe the same book.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+final class TestBook implements AppointmentSnapshot.Restore {
+    private final IndexedList<Appointment> book = new IndexedList<>();
+    private final VisitHistory history = new VisitHistory();
+    private Technician next;
+
+    /**
+     * Books an appointment unless an equal one is booked.
+     *
+     * @param appointment the appointment
+     * @return true if the appointment was booked
+     */
+    @Override
+    public boolean book(Appointment appointment) {
+        if (book.contains(appointment)) {
+            return false;
+        }
+        book.add(appointment);
+        return true;
+    }
+
+    /**
+     * Cancels the patient's appointment at a date and timeslot.
+     *
+     * @param date     the date
+     * @param timeslot the timeslot
+     * @param patient  the patient's profile
+     * @return true if the appointment was cancelled
+     */
+    @Override
+    public boolean cancel(Date date, Timeslot timeslot, Profile patient) {
+        Appointment appointment = find(date, timeslot, patient);
+        return appointment != null && book.remove(appointment);
+    }
+
+    /**
+     * Moves the patient's appointment at a date and timeslot, unless the patient is booked at the new timeslot.
+     *
+     * @param date     the date
+     * @param timeslot the current timeslot
+     * @param patient  the patient's profile
+     * @param newSlot  the new timeslot
+     * @return true if the appointment was moved
+     */
+    @Override
+    public boolean move(Date date, Timeslot timeslot, Profile patient, Timeslot newSlot) {
+        Appointment appointment = find(date, timeslot, patient);
+        if (appointment == null || find(date, newSlot, patient) != null) {
+            return false;
+        }
+        return book.update(appointment, a -> a.setTimeslot(newSlot), a -> a.setTimeslot(timeslot));
+    }
+
+    /**
+     * Archives every booked appointment at its provider's rate and empties the book.
+     *
+     * @return true
+     */
+    @Override
+    public boolean closeCycle() {
+        for (Appointment appointment : book) {
+            long charge = ((Provider) appointment.getProvider()).getSpecialtyBilling() * BillingLedger.CENTS_PER_DOLLAR;
+            history.archive(appointment, charge);
+        }
+        book.clear();
+        return true;
+    }
+
+    /**
+     * Gets the archived record of a patient, or a new patient.
+     *
+     * @param profile the patient's profile
+     * @return the patient
+     */
+    @Override
+    public Patient patient(Profile profile) {
+        return history.patientOf(profile);
+    }
+
+    /**
+     * Archives a visit.
+     *
+     * @param appointment the visit
+     * @param chargeCents the amount billed for the visit, in cents
+     * @return true
+     */
+    @Override
+    public boolean archive(Appointment appointment, long chargeCents) {
+        history.archive(appointment, chargeCents);
+        return true;
+    }
+
+    /**
+     * Records the technician the rotation will try next.
+     *
+     * @param technician the technician
+     */
+    @Override
+    public void rotateTo(Technician technician) {
+        next = technician;
+    }
+
+    /**
+     * Makes a random change to the book and, if it applies, appends it to the journal.
+     * Most changes are bookings; one in fifty closes the billing cycle.
+     *
+     * @param random    the source of randomness
+     * @param providers the registered providers
+     * @param journal   the journal
+     * @return the journal position just past the change, or -1 if the change did not apply
+     */
+    long change(Random random, List<Provider> providers, AppointmentJournal journal) {
+        int kind = random.nextInt(50);
+        if (kind == 0) {
+            closeCycle();
+            return journal.closeCycle();
+        }
+        if (kind < 15 && !book.isEmpty()) {
+            Appointment appointment = book.get(random.nextInt(book.size()));
+            Profile patient = appointment.getPatient().getProfile();
+            if (kind < 8) {
+                long position = journal.cancel(appointment);
+                cancel(appointment.getDate(), appointment.getTimeslot(), patient);
+                return position;
+            }
+            Timeslot newSlot = Timeslot.ofOrdinal(random.nextInt(Timeslot.MAX_SLOT_INDEX));
+            if (find(appointment.getDate(), newSlot, patient) != null) {
+                return -1;
+            }
+            long position = journal.move(appointment, newSlot);
+            move(appointment.getDate(), appointment.getTimeslot(), patient, newSlot);
+            return position;
+        }
+        Appointment appointment = TestData.appointment(random, providers, 40, 20);
+        return book(appointment) ? journal.book(appointment) : -1;
+    }
+
+    /**
+     * Captures the book, as it is at a journal cut.
+     *
+     * @return the snapshot
+     */
+    AppointmentSnapshot snapshot() {
+        return AppointmentSnapshot.capture(book, history, next);
+    }
+
+    /**
+     * Describes the whole store: the booked appointments in booking order, the archived visits
+     * with their charges, and the technician the rotation will try next.
+     *
+     * @return the description
+     */
+    String describe() {
+        StringBuilder description = new StringBuilder();
+        for (Appointment appointment : book) {
+            description.append(appointment).append('\n');
+        }
+        VisitHistory.Archived visits = history.archived();
+        for (int i = 0; i < visits.size(); i++) {
+            description.append("visit ").append(visits.get(i)).append(' ').append(visits.chargeCents(i)).append('\n');
+        }
+        return description.append("next ").append(next).toString();
+    }
+
+    /**
+     * Finds the patient's appointment at a date and timeslot.
+     *
+     * @param date     the date
+     * @param timeslot the timeslot
+     * @param patient  the patient's profile
+     * @return the appointment, or null if there is none
+     */
+    private Appointment find(Date date, Timeslot timeslot, Profile patient) {
+        for (Appointment appointment : book) {
+            if (appointment.getDate().equals(date) && appointment.getTimeslot().equals(timeslot)
+                    && appointment.getPatient().getProfile().equals(patient)) {
+                return appointment;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package model.util;
+
+import model.project1.Appointment;
+import model.project1.Date;
+import model.project1.List;
+import model.project1.Location;
+import model.project1.Patient;
+import model.project1.Profile;
+import model.project1.Provider;
+import model.project1.Specialty;
+import model.project1.Timeslot;
+
+import java.util.Random;
+
+/**
+ * Builds the rosters and appointments the tests run on: the providers of providers.txt,
+ * and random appointments over a small pool of patients and a few weeks of days.
+ *
+ * @author Stephen Kwok and Jeongtae Kim
+ */
+final class TestData {
+    /**
+     * First day of the booking window, a Monday.
+     */
+    static final Date FIRST_DAY = new Date(2026, 11, 2);
+
+    private static final Radiology[] ROOMS = Radiology.values();
+
+    private TestData() {
+    }
+
+    /**
+     * Creates new provider objects for every provider of providers.txt, in file order.
+     *
+     * @return the providers
+     */
+    static List<Provider> providers() {
+        List<Provider> providers = new List<>();
+        providers.add(new Doctor(profile("ANDREW", "PATEL", 1989, 1, 21), Location.BRIDGEWATER, Specialty.FAMILY, "01"));
+        providers.add(new Doctor(profile("RACHAEL", "LIM", 1975, 11, 30), Location.BRIDGEWATER,
+                Specialty.PEDIATRICIAN, "23"));
+        providers.add(new Doctor(profile("MONICA", "ZIMNES", 1981, 3, 11), Location.CLARK, Specialty.FAMILY, "11"));
+        providers.add(new Doctor(profile("JOHN", "HARPER", 1981, 3, 1), Location.CLARK, Specialty.FAMILY, "32"));
+        providers.add(new Doctor(profile("TOM", "KAUR", 1972, 11, 5), Location.PRINCETON, Specialty.ALLERGIST, "54"));
+        providers.add(new Doctor(profile("BEN", "RAMESH", 1981, 4, 8), Location.MORRISTOWN, Specialty.ALLERGIST, "39"));
+        providers.add(new Technician(profile("GARY", "JOHNSON", 1987, 11, 14), Location.PISCATAWAY, 110));
+        providers.add(new Technician(profile("BEN", "JERRY", 1987, 9, 28), Location.PISCATAWAY, 150));
+        providers.add(new Technician(profile("FRANK", "LIN", 1999, 6, 24), Location.PISCATAWAY, 120));
+        providers.add(new Technician(profile("CHARLES", "BROWN", 1999, 6, 24), Location.BRIDGEWATER, 100));
+        providers.add(new Technician(profile("MONICA", "FOX", 1995, 10, 10), Location.BRIDGEWATER, 130));
+        return providers;
+    }
+
+    /**
+     * Creates a profile.
+     *
+     * @param first the first name
+     * @param last  the last name
+     * @param year  the year of birth
+     * @param month the month of birth
+     * @param day   the day of birth
+     * @return the profile
+     */
+    static Profile profile(String first, String last, int year, int month, int day) {
+        return new Profile(first, last, new Date(year, month, day));
+    }
+
+    /**
+     * Creates the patient with the given number. Equal numbers give equal patients.
+     *
+     * @param number the patient number
+     * @return a new patient object
+     */
+    static Patient patient(int number) {
+        return new Patient(profile("FIRST" + number, "LAST" + number % 7, 1960 + number % 40, number % 12 + 1,
+                number % 28 + 1));
+    }
+
+    /**
+     * Creates a random appointment with one of the providers. Technicians get imaging appointments.
+     *
+     * @param random    the source of randomness
+     * @param providers the providers
+     * @param patients  the number of distinct patients
+     * @param days      the number of days in the booking window
+     * @return the appointment
+     */
+    static Appointment appointment(Random random, List<Provider> providers, int patients, int days) {
+        Date date = Date.ofEpochDay(FIRST_DAY.getEpochDay() + random.nextInt(days));
+        Timeslot timeslot = Timeslot.ofOrdinal(random.nextInt(Timeslot.MAX_SLOT_INDEX));
+        Patient patient = patient(random.nextInt(patients));
+        Provider provider = providers.get(random.nextInt(providers.size()));
+        if (provider instanceof Technician technician) {
+            return new Imaging(date, timeslot, patient, technician, ROOMS[random.nextInt(ROOMS.length)]);
+        }
+        return new Appointment(date, timeslot, patient, provider);
+    }
+}